@@ -0,0 +1,66 @@
+#!/usr/bin/env bash
+# Measures throughput and p99 latency of POST /payment for each threading model with a slow bank.
+#
+# Each mode runs the boot jar against the in-process bank simulator, which the load generator
+# starts on port 8080 for every run with BANK_LATENCY added to each authorization. The gateway is
+# driven closed loop at each CONCURRENCY level, and the generator's requests/s and p99 are
+# tabulated. Rate limiting and load shedding are off so they do not cap the result.
+#
+# Usage: scripts/compare-thread-models.sh
+# Environment: DURATION (default 30s), WARMUP (10s), CONCURRENCY ("100 200 400 800 1600"),
+#              BANK_LATENCY (fixed:500ms), MODES ("platform virtual async")
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+DURATION=${DURATION:-30s}
+WARMUP=${WARMUP:-10s}
+CONCURRENCY=${CONCURRENCY:-"100 200 400 800 1600"}
+BANK_LATENCY=${BANK_LATENCY:-fixed:500ms}
+MODES=${MODES:-"platform virtual async"}
+GATEWAY_OPTIONS="--gateway.rate-limit.enabled=false --gateway.load-shedding.enabled=false \
+--bank.max-connections=4000 --bank.max-connections-per-route=4000 --bank.max-in-flight=4000 \
+--bank.bulkhead.max-concurrent-calls=4000 --logging.level.root=WARN"
+
+mode_options() {
+  case "$1" in
+    platform) echo "--bank.client=blocking" ;;
+    virtual) echo "--gateway.virtual-threads.enabled=true --bank.client=virtual" ;;
+    async) echo "--bank.client=async" ;;
+    *) echo "Unknown mode $1" >&2; return 1 ;;
+  esac
+}
+
+wait_for_gateway() {
+  for _ in $(seq 1 120); do
+    if curl -s -o /dev/null http://localhost:8090/actuator/health; then
+      return 0
+    fi
+    sleep 1
+  done
+  echo "Gateway did not start; see $1" >&2
+  return 1
+}
+
+./gradlew -q bootJar loadTestClasses
+JAR=$(find build/libs -name '*.jar' ! -name '*-plain.jar' | head -n 1)
+GATEWAY=
+trap '[ -n "$GATEWAY" ] && kill "$GATEWAY" 2>/dev/null || true' EXIT
+
+printf '%-10s %12s %12s %10s\n' mode concurrency requests/s "p99 ms"
+for mode in $MODES; do
+  log="build/compare-thread-models-$mode.log"
+  # shellcheck disable=SC2046
+  java -jar "$JAR" $GATEWAY_OPTIONS $(mode_options "$mode") > "$log" 2>&1 &
+  GATEWAY=$!
+  wait_for_gateway "$log"
+  for concurrency in $CONCURRENCY; do
+    report=$(./gradlew -q loadTest -PloadTestArgs="--concurrency=$concurrency \
+--duration=$DURATION --warmup=$WARMUP --bank-simulator-port=8080 --bank-latency=$BANK_LATENCY")
+    p99=$(awk '$1 == "all" { print $5 }' <<< "$report")
+    throughput=$(grep -o '[0-9.]* requests/s' <<< "$report" | cut -d' ' -f1)
+    printf '%-10s %12s %12s %10s\n' "$mode" "$concurrency" "$throughput" "$p99"
+  done
+  kill "$GATEWAY"
+  wait "$GATEWAY" 2>/dev/null || true
+  GATEWAY=
+done
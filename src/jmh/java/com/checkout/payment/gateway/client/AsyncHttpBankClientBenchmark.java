@@ -0,0 +1,85 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.configuration.BankClientProperties;
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.simulator.BankSimulator;
+import com.checkout.payment.gateway.simulator.LatencyDistribution;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Authorization throughput of the non-blocking HTTP bank client against the in-process bank
+ * simulator, sending bursts of concurrent authorizations one at a time or micro-batched.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AsyncHttpBankClientBenchmark {
+
+  private static final int BURST = 256;
+
+  @Param({"none", "fixed:1ms"})
+  public String latency;
+
+  @Param({"false", "true"})
+  public boolean batching;
+
+  private BankSimulator simulator;
+  private BankClient client;
+  private PostPaymentRequest request;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    simulator = BankSimulator.builder().latency(LatencyDistribution.parse(latency)).start();
+    BankClientProperties properties = new BankClientProperties();
+    properties.setMaxConnections(BURST);
+    properties.setMaxConnectionsPerRoute(BURST);
+    AsyncHttpBankClient httpClient = new AsyncHttpBankClient(properties, simulator.url(),
+        new ObjectMapper(), ObservationRegistry.NOOP);
+    client = batching
+        ? new BatchingBankClient(httpClient, Duration.ofMillis(1), 64, new SimpleMeterRegistry(),
+            ObservationRegistry.NOOP)
+        : httpClient;
+
+    request = new PostPaymentRequest();
+    request.setCardNumberLastFour("4111111111111111");
+    request.setExpiryMonth(12);
+    request.setExpiryYear(2030);
+    request.setCurrency("GBP");
+    request.setAmount(1050);
+    request.setCvv("123");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    ((AutoCloseable) client).close();
+    simulator.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BURST)
+  public void authorizeBurst() {
+    @SuppressWarnings("unchecked")
+    CompletableFuture<PostAuthResponse>[] responses = new CompletableFuture[BURST];
+    for (int i = 0; i < BURST; i++) {
+      responses[i] = client.authorize(request);
+    }
+    CompletableFuture.allOf(responses).join();
+  }
+}
@@ -0,0 +1,71 @@
+package com.checkout.payment.gateway.logging;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * CardDataMasker against the regex masking MaskingPatternLayout used before, with the six
+ * {@code maskPattern}s that were configured in logback.xml.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CardDataMaskerBenchmark {
+
+  private static final Pattern LEGACY_PATTERN = Pattern.compile(String.join("|", List.of(
+      "\\b(\\d{10})\\d{4}\\b",
+      "\\b(\\d{11})\\d{4}\\b",
+      "\\b(\\d{12})\\d{4}\\b",
+      "\\b(\\d{13})\\d{4}\\b",
+      "\\b(\\d{14})\\d{4}\\b",
+      "\\b(\\d{15})\\d{4}\\b")), Pattern.MULTILINE);
+
+  @Param({"request", "response", "plain"})
+  public String line;
+
+  private String message;
+
+  @Setup
+  public void setUp() {
+    message = switch (line) {
+      case "request" -> "12:00:00.000 [http-nio-8090-exec-1] WARN  c.c.p.g.s.PaymentGatewayService"
+          + " - Invalid currency PostPaymentRequest{cardNumberLastFour=2222405343248877,"
+          + " expiryMonth=4, expiryYear=2030, currency='JPY', amount=100, cvv=123}\n";
+      case "response" -> "12:00:00.000 [http-nio-8090-exec-1] INFO  c.c.p.g.s.PaymentGatewayService"
+          + " - Saving payment with ID 7b0a9b3e-1c4d-4f1e-9a55-3d2f1c9e8b7a\n";
+      default -> "12:00:00.000 [main] INFO  c.c.p.g.PaymentGatewayApplication"
+          + " - Started PaymentGatewayApplication in 2.5 seconds (process running for 2.9)\n";
+    };
+  }
+
+  @Benchmark
+  public String scanner() {
+    return CardDataMasker.mask(message);
+  }
+
+  @Benchmark
+  public String legacyRegex() {
+    StringBuilder sb = new StringBuilder(message);
+    Matcher matcher = LEGACY_PATTERN.matcher(sb);
+    while (matcher.find()) {
+      IntStream.rangeClosed(1, matcher.groupCount()).forEach(group -> {
+        if (matcher.group(group) != null) {
+          IntStream.range(matcher.start(group), matcher.end(group))
+              .forEach(i -> sb.setCharAt(i, '*'));
+        }
+      });
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,69 @@
+package com.checkout.payment.gateway.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * MaskingPatternLayout.doLayout with the pattern from logback.xml, for a message carrying a card
+ * number and one with nothing to mask.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MaskingPatternLayoutBenchmark {
+
+  private MaskingPatternLayout layout;
+  private LoggingEvent cardEvent;
+  private LoggingEvent plainEvent;
+
+  @Setup
+  public void setUp() {
+    LoggerContext context = new LoggerContext();
+    layout = new MaskingPatternLayout();
+    layout.setContext(context);
+    layout.setPattern("%d{HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n");
+    layout.start();
+
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumberLastFour("2222405343248877");
+    request.setExpiryMonth(4);
+    request.setExpiryYear(2030);
+    request.setCurrency("GBP");
+    request.setAmount(100);
+    request.setCvv("123");
+
+    Logger logger = context.getLogger("com.checkout.payment.gateway.service.PaymentGatewayService");
+    cardEvent = event(logger, "Invalid currency {}", request);
+    plainEvent = event(logger, "Saving payment with ID {}", UUID.randomUUID());
+  }
+
+  @Benchmark
+  public String cardNumber() {
+    return layout.doLayout(cardEvent);
+  }
+
+  @Benchmark
+  public String nothingToMask() {
+    return layout.doLayout(plainEvent);
+  }
+
+  private static LoggingEvent event(Logger logger, String message, Object argument) {
+    LoggingEvent event = new LoggingEvent(Logger.class.getName(), logger, Level.INFO, message,
+        null, new Object[]{argument});
+    // Format once up front, as the appender would have done before the layout runs.
+    event.getFormattedMessage();
+    return event;
+  }
+}
@@ -0,0 +1,102 @@
+package com.checkout.payment.gateway.model;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.json.PaymentJsonModule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Jackson (de)serialization of the payment models with the mapper configuration Spring MVC
+ * uses for request and response bodies, with bean introspection ({@code reflective}) and with
+ * {@link PaymentJsonModule} registered ({@code streaming}). {@link #payment} performs the four
+ * conversions a single payment goes through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PaymentJsonBenchmark {
+
+  private static final byte[] REQUEST_JSON = """
+      {"card_number":"2222405343248877","expiry_month":4,"expiry_year":2030,\
+      "currency":"GBP","amount":100,"cvv":"123"}"""
+      .getBytes(StandardCharsets.UTF_8);
+  private static final byte[] AUTH_RESPONSE_JSON = """
+      {"authorized":true,"authorization_code":"0bb07405-6d44-4b50-a14f-7ae0beff13ad"}"""
+      .getBytes(StandardCharsets.UTF_8);
+
+  @Param({"reflective", "streaming"})
+  private String codec;
+
+  private ObjectReader requestReader;
+  private ObjectReader authResponseReader;
+  private ObjectWriter requestWriter;
+  private ObjectWriter responseWriter;
+  private PostPaymentRequest request;
+  private PostPaymentResponse response;
+
+  @Setup
+  public void setUp() throws IOException {
+    Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+    if (codec.equals("streaming")) {
+      builder.modulesToInstall(new PaymentJsonModule());
+    }
+    ObjectMapper mapper = builder.build();
+    requestReader = mapper.readerFor(PostPaymentRequest.class);
+    authResponseReader = mapper.readerFor(PostAuthResponse.class);
+    requestWriter = mapper.writerFor(PostPaymentRequest.class);
+    responseWriter = mapper.writerFor(PostPaymentResponse.class);
+
+    request = requestReader.readValue(REQUEST_JSON);
+    response = new PostPaymentResponse();
+    response.setId(UUID.randomUUID());
+    response.setStatus(PaymentStatus.AUTHORIZED);
+    response.setCardNumberLastFour("8877");
+    response.setExpiryMonth(4);
+    response.setExpiryYear(2030);
+    response.setCurrency("GBP");
+    response.setAmount(100);
+  }
+
+  @Benchmark
+  public PostPaymentRequest readRequest() throws IOException {
+    return requestReader.readValue(REQUEST_JSON);
+  }
+
+  @Benchmark
+  public byte[] writeRequest() throws IOException {
+    return requestWriter.writeValueAsBytes(request);
+  }
+
+  @Benchmark
+  public byte[] writeResponse() throws IOException {
+    return responseWriter.writeValueAsBytes(response);
+  }
+
+  @Benchmark
+  public PostAuthResponse readAuthResponse() throws IOException {
+    return authResponseReader.readValue(AUTH_RESPONSE_JSON);
+  }
+
+  @Benchmark
+  public void payment(Blackhole blackhole) throws IOException {
+    PostPaymentRequest incoming = requestReader.readValue(REQUEST_JSON);
+    blackhole.consume(requestWriter.writeValueAsBytes(incoming));
+    blackhole.consume(authResponseReader.readValue(AUTH_RESPONSE_JSON));
+    blackhole.consume(responseWriter.writeValueAsBytes(response));
+  }
+}
@@ -0,0 +1,103 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Repository throughput under contention: writers, readers, a 1:3 writer/reader mix and pages
+ * of the insertion-ordered listing, over the on-heap and off-heap stores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PaymentsRepositoryBenchmark {
+
+  private static final int PRELOADED = 1 << 16;
+  private static final int PAGE_SIZE = 100;
+
+  @Param({"1000000"})
+  public int capacity;
+
+  @Param({"false", "true"})
+  public boolean offHeap;
+
+  private PaymentsRepository repository;
+  private UUID[] ids;
+
+  @Setup
+  public void setUp() {
+    int concurrency = Runtime.getRuntime().availableProcessors() * 4;
+    repository = new PaymentsRepository(offHeap
+        ? new OffHeapPaymentStore(capacity, concurrency)
+        : new StripedPaymentStore(capacity, concurrency));
+    ids = new UUID[PRELOADED];
+    for (int i = 0; i < PRELOADED; i++) {
+      ids[i] = UUID.randomUUID();
+      repository.add(payment(ids[i]));
+    }
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void add() {
+    repository.add(payment(randomId()));
+  }
+
+  @Benchmark
+  @Threads(4)
+  public PostPaymentResponse find() {
+    return repository.find(ids[ThreadLocalRandom.current().nextInt(PRELOADED)]);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public PaymentPage listPage() {
+    long cursor = ThreadLocalRandom.current().nextInt(PRELOADED - PAGE_SIZE);
+    return repository.list(new PaymentQuery(null, null, null, cursor, PAGE_SIZE));
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(1)
+  public void mixedAdd() {
+    repository.add(payment(randomId()));
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(3)
+  public PostPaymentResponse mixedFind() {
+    return repository.find(ids[ThreadLocalRandom.current().nextInt(PRELOADED)]);
+  }
+
+  private static UUID randomId() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    return new UUID(random.nextLong(), random.nextLong());
+  }
+
+  private static PostPaymentResponse payment(UUID id) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(id);
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setAmount(1050);
+    payment.setCurrency("GBP");
+    payment.setCardNumberLastFour("1111");
+    payment.setExpiryMonth(12);
+    payment.setExpiryYear(2030);
+    return payment;
+  }
+}
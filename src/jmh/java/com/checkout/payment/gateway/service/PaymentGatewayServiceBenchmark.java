@@ -0,0 +1,116 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.json.PaymentJsonModule;
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.repository.StripedPaymentStore;
+import com.checkout.payment.gateway.service.PaymentResponseCache.SerializedPayment;
+import com.checkout.payment.gateway.validation.PaymentRequestValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * processPayment against a bank stub that answers immediately, so only gateway-side work
+ * (validation, response mapping and the repository write) is measured, and payment reads with
+ * and without the serialized response cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PaymentGatewayServiceBenchmark {
+
+  private static final String CARD_NUMBER = "4111111111111111";
+
+  private PaymentGatewayService service;
+  private PaymentsRepository repository;
+  private PostPaymentRequest valid;
+  private PostPaymentRequest expired;
+  private PostPaymentRequest unsupportedCurrency;
+  private ObjectWriter responseWriter;
+  private UUID storedId;
+  private UUID missingId;
+
+  @Setup
+  public void setUp() {
+    PostAuthResponse authorized = new PostAuthResponse();
+    authorized.setAuthorized("true");
+    authorized.setAuthorization_code(UUID.randomUUID().toString());
+    CompletableFuture<PostAuthResponse> bankResponse =
+        CompletableFuture.completedFuture(authorized);
+
+    repository = new PaymentsRepository(new StripedPaymentStore(1024, 16));
+    PaymentMetrics metrics = new PaymentMetrics(new SimpleMeterRegistry(), repository);
+    ObjectMapper mapper =
+        Jackson2ObjectMapperBuilder.json().modulesToInstall(new PaymentJsonModule()).build();
+    responseWriter = mapper.writerFor(PostPaymentResponse.class);
+    service = new PaymentGatewayService(repository, paymentRequest -> bankResponse, metrics,
+        ObservationRegistry.NOOP, PaymentRequestValidator.DEFAULT,
+        new PaymentResponseCache(mapper.writer(), 1024));
+
+    valid = request(2030, "GBP");
+    expired = request(2001, "GBP");
+    unsupportedCurrency = request(2030, "JPY");
+    storedId = service.processPayment(request(2030, "GBP"));
+    missingId = UUID.randomUUID();
+  }
+
+  @Benchmark
+  public UUID authorized() {
+    // processPayment trims the card number to its last four digits, so restore it each time.
+    valid.setCardNumberLastFour(CARD_NUMBER);
+    return service.processPayment(valid);
+  }
+
+  @Benchmark
+  public UUID rejectedExpiry() {
+    return service.processPayment(expired);
+  }
+
+  @Benchmark
+  public UUID rejectedCurrency() {
+    return service.processPayment(unsupportedCurrency);
+  }
+
+  @Benchmark
+  public SerializedPayment getCached() {
+    return service.getSerializedPayment(storedId);
+  }
+
+  // GET /payment/{id} before responses were cached: lookup, then serialize on every read.
+  @Benchmark
+  public byte[] getSerializedEachTime() throws IOException {
+    return responseWriter.writeValueAsBytes(repository.find(storedId));
+  }
+
+  @Benchmark
+  public SerializedPayment getMissing() {
+    return service.getSerializedPayment(missingId);
+  }
+
+  private static PostPaymentRequest request(int expiryYear, String currency) {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumberLastFour(CARD_NUMBER);
+    request.setExpiryMonth(12);
+    request.setExpiryYear(expiryYear);
+    request.setCurrency(currency);
+    request.setAmount(1050);
+    request.setCvv("123");
+    return request;
+  }
+}
@@ -0,0 +1,136 @@
+package com.checkout.payment.gateway.validation;
+
+import com.checkout.payment.gateway.enums.Currency;
+import com.checkout.payment.gateway.enums.RejectionReason;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Validation of one valid request: the previous regex annotations plus the service's string and
+ * date checks, against the custom constraints plus {@link PaymentRequestValidator}, and against
+ * the validator on its own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PaymentRequestValidatorBenchmark {
+
+  private ValidatorFactory factory;
+  private Validator beanValidator;
+  private PaymentRequestValidator validator;
+  private PostPaymentRequest request;
+  private LegacyRequest legacyRequest;
+
+  @Setup
+  public void setUp() {
+    factory = Validation.buildDefaultValidatorFactory();
+    beanValidator = factory.getValidator();
+    validator = PaymentRequestValidator.DEFAULT;
+
+    request = new PostPaymentRequest();
+    request.setCardNumberLastFour("2222405343248877");
+    request.setExpiryMonth(12);
+    request.setExpiryYear(2030);
+    request.setCurrency("USD");
+    request.setAmount(100);
+    request.setCvv("123");
+
+    legacyRequest = new LegacyRequest();
+    legacyRequest.cardNumber = request.getCardNumberLastFour();
+    legacyRequest.expiryMonth = request.getExpiryMonth();
+    legacyRequest.expiryYear = request.getExpiryYear();
+    legacyRequest.currency = request.getCurrency();
+    legacyRequest.amount = request.getAmount();
+    legacyRequest.cvv = request.getCvv();
+  }
+
+  @TearDown
+  public void tearDown() {
+    factory.close();
+  }
+
+  @Benchmark
+  public void legacyAnnotationsAndServiceChecks(Blackhole blackhole) {
+    Set<ConstraintViolation<LegacyRequest>> violations = beanValidator.validate(legacyRequest);
+    blackhole.consume(violations);
+    blackhole.consume(legacyCheck(request));
+  }
+
+  @Benchmark
+  public void constraintsAndValidator(Blackhole blackhole) {
+    Set<ConstraintViolation<PostPaymentRequest>> violations = beanValidator.validate(request);
+    blackhole.consume(violations);
+    blackhole.consume(validator.checkAuthorizable(request));
+  }
+
+  @Benchmark
+  public EnumSet<RejectionReason> validatorOnly() {
+    return validator.validate(request);
+  }
+
+  // The checks PaymentGatewayService ran before it delegated to PaymentRequestValidator.
+  private static RejectionReason legacyCheck(PostPaymentRequest paymentRequest) {
+    LocalDate currentDate = LocalDate.now();
+    if (currentDate.getYear() > paymentRequest.getExpiryYear()) {
+      return RejectionReason.EXPIRY_YEAR;
+    }
+    if (currentDate.getMonthValue() > paymentRequest.getExpiryMonth()) {
+      return RejectionReason.EXPIRY_MONTH;
+    }
+    if (!paymentRequest.getCurrency().equals(Currency.EUR.toString())
+        && !paymentRequest.getCurrency().equals(Currency.USD.toString())
+        && !paymentRequest.getCurrency().equals(Currency.GBP.toString())) {
+      return RejectionReason.CURRENCY;
+    }
+    return null;
+  }
+
+  // PostPaymentRequest's constraints before the custom card number and CVV constraints.
+  public static class LegacyRequest {
+
+    @Size(min = 14, max = 19, message = "Card number must be between 14 and 19 digits")
+    @Pattern(regexp = "\\d+", message = "Card number must contain only digits")
+    @NotNull(message = "Card number is required")
+    String cardNumber;
+
+    @Min(value = 1, message = "Expiry month must be between 1 and 12")
+    @Max(value = 12, message = "Expiry month must be between 1 and 12")
+    int expiryMonth;
+
+    @Min(value = 2025, message = "Expiry year must be current year or later")
+    int expiryYear;
+
+    @Size(min = 3, max = 3, message = "Currency must be exactly 3 characters")
+    @NotNull(message = "Currency is required")
+    String currency;
+
+    @Min(value = 1, message = "Amount must be greater than 0")
+    int amount;
+
+    @Size(min = 3, max = 4, message = "CVV must be 3 or 4 digits")
+    @Pattern(regexp = "\\d+", message = "CVV must contain only digits")
+    @NotNull(message = "CVV is required")
+    String cvv;
+  }
+}
@@ -0,0 +1,54 @@
+package com.checkout.payment.gateway.loadtest;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histograms keyed by request outcome: the returned payment status, the HTTP status of
+ * any other response, or {@code ERROR} when no response arrived.
+ */
+final class LatencyReport {
+
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+  private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+  void record(String outcome, long latencyNanos) {
+    histograms.computeIfAbsent(outcome, key -> new ConcurrentHistogram(3))
+        .recordValue(Math.max(0, latencyNanos));
+  }
+
+  long count() {
+    long count = 0;
+    for (Histogram histogram : histograms.values()) {
+      count += histogram.getTotalCount();
+    }
+    return count;
+  }
+
+  void print(PrintStream out, double elapsedSeconds) {
+    out.printf("%-12s %10s %10s %10s %10s %10s %10s%n", "outcome", "count", "p50 ms",
+        "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    Histogram total = new Histogram(3);
+    for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+      print(out, entry.getKey(), entry.getValue());
+      total.add(entry.getValue());
+    }
+    print(out, "all", total);
+    out.printf("%d requests in %.1f s, %.1f requests/s%n", total.getTotalCount(),
+        elapsedSeconds, total.getTotalCount() / elapsedSeconds);
+  }
+
+  private static void print(PrintStream out, String outcome, Histogram histogram) {
+    out.printf("%-12s %10d", outcome, histogram.getTotalCount());
+    for (double percentile : PERCENTILES) {
+      out.printf(" %10.3f", histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI);
+    }
+    out.printf(" %10.3f%n", histogram.getMaxValue() / NANOS_PER_MILLI);
+  }
+}
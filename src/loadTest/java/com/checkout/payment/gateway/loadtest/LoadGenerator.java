@@ -0,0 +1,207 @@
+package com.checkout.payment.gateway.loadtest;
+
+import com.checkout.payment.gateway.simulator.BankSimulator;
+import com.checkout.payment.gateway.simulator.LatencyDistribution;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Replays a JSONL workload of payment requests against {@code POST /payment} and prints latency
+ * percentiles per outcome.
+ *
+ * <p>With {@code --rate} set, requests are sent open loop on a fixed schedule whatever the
+ * gateway's response times, and each latency is measured from the request's scheduled start, so
+ * a stalled gateway shows up as queueing delay instead of being hidden by coordinated omission.
+ * Without it, {@code --concurrency} requests are kept in flight to find the maximum throughput.
+ * Requests sent during {@code --warmup} are not recorded.
+ *
+ * <p>With {@code --bank-simulator-port} set, an in-process {@link BankSimulator} is started on
+ * that port for the run, to be used as the gateway's {@code bank.url} in place of mountebank.
+ */
+public final class LoadGenerator {
+
+  private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+  private static final String USAGE = "Options: --target=<url> --workload=<jsonl file> "
+      + "--rate=<requests/s, 0 for max throughput> --concurrency=<n> --duration=<d> "
+      + "--warmup=<d> --api-key=<key> --bank-simulator-port=<port> "
+      + "--bank-latency=<distribution> --bank-error-rate=<0..1>";
+
+  private final Options options;
+  private final Workload workload;
+  private final ObjectMapper objectMapper;
+  private final HttpClient client;
+  private final LatencyReport report = new LatencyReport();
+  private final AtomicLong outstanding = new AtomicLong();
+
+  LoadGenerator(Options options, Workload workload, ObjectMapper objectMapper) {
+    this.options = options;
+    this.workload = workload;
+    this.objectMapper = objectMapper;
+    this.client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(CONNECT_TIMEOUT)
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+  }
+
+  public static void main(String[] args) throws Exception {
+    Options options = Options.parse(args);
+    ObjectMapper objectMapper = new ObjectMapper();
+    Workload workload = Workload.read(options.workload(), objectMapper);
+    BankSimulator simulator = null;
+    if (options.bankSimulatorPort() != null) {
+      simulator = BankSimulator.builder()
+          .port(options.bankSimulatorPort())
+          .latency(options.bankLatency())
+          .errorRate(options.bankErrorRate())
+          .start();
+      System.out.println("Bank simulator listening on " + simulator.url());
+    }
+    System.out.printf("Replaying %d requests from %s against %s, %s for %s after %s warm-up%n",
+        workload.size(), options.workload(), options.target(),
+        options.rate() > 0 ? options.rate() + " requests/s"
+            : options.concurrency() + " concurrent requests",
+        options.duration(), options.warmup());
+    try {
+      new LoadGenerator(options, workload, objectMapper).run().print(System.out,
+          options.duration().toNanos() / 1e9);
+    } finally {
+      if (simulator != null) {
+        simulator.close();
+      }
+    }
+  }
+
+  LatencyReport run() throws InterruptedException {
+    if (options.rate() > 0) {
+      runOpenLoop();
+    } else {
+      runClosedLoop();
+    }
+    long deadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+    while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    return report;
+  }
+
+  private void runOpenLoop() {
+    long start = System.nanoTime();
+    long measureFrom = start + options.warmup().toNanos();
+    long end = measureFrom + options.duration().toNanos();
+    double intervalNanos = 1e9 / options.rate();
+    for (long sequence = 0; ; sequence++) {
+      long intendedStart = start + (long) (sequence * intervalNanos);
+      if (intendedStart >= end) {
+        return;
+      }
+      long wait = intendedStart - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      send(sequence, intendedStart, intendedStart >= measureFrom, null);
+    }
+  }
+
+  private void runClosedLoop() throws InterruptedException {
+    Semaphore permits = new Semaphore(options.concurrency());
+    long start = System.nanoTime();
+    long measureFrom = start + options.warmup().toNanos();
+    long end = measureFrom + options.duration().toNanos();
+    for (long sequence = 0; System.nanoTime() < end; sequence++) {
+      permits.acquire();
+      long sendStart = System.nanoTime();
+      send(sequence, sendStart, sendStart >= measureFrom, permits);
+    }
+  }
+
+  private void send(long sequence, long startNanos, boolean measured, Semaphore permits) {
+    HttpRequest.Builder request = HttpRequest.newBuilder(options.target())
+        .timeout(REQUEST_TIMEOUT)
+        .header("Content-Type", "application/json")
+        .POST(BodyPublishers.ofByteArray(workload.body(sequence)));
+    if (options.apiKey() != null) {
+      request.header("X-API-Key", options.apiKey());
+    }
+    outstanding.incrementAndGet();
+    client.sendAsync(request.build(), BodyHandlers.ofByteArray())
+        .whenComplete((response, failure) -> {
+          long latency = System.nanoTime() - startNanos;
+          if (measured) {
+            report.record(outcome(response, failure), latency);
+          }
+          outstanding.decrementAndGet();
+          if (permits != null) {
+            permits.release();
+          }
+        });
+  }
+
+  private String outcome(HttpResponse<byte[]> response, Throwable failure) {
+    if (failure != null) {
+      return "ERROR";
+    }
+    if (response.statusCode() != 200) {
+      return "HTTP " + response.statusCode();
+    }
+    try {
+      return objectMapper.readTree(response.body()).path("status").asText("UNKNOWN");
+    } catch (IOException e) {
+      return "UNPARSEABLE";
+    }
+  }
+
+  record Options(URI target, Path workload, double rate, int concurrency, Duration duration,
+      Duration warmup, String apiKey, Integer bankSimulatorPort, LatencyDistribution bankLatency,
+      double bankErrorRate) {
+
+    static Options parse(String[] args) {
+      Map<String, String> values = new HashMap<>();
+      for (String arg : args) {
+        int separator = arg.indexOf('=');
+        if (!arg.startsWith("--") || separator < 0) {
+          throw new IllegalArgumentException("Unexpected argument " + arg + ". " + USAGE);
+        }
+        values.put(arg.substring(2, separator), arg.substring(separator + 1));
+      }
+      Options options = new Options(
+          URI.create(values.getOrDefault("target", "http://localhost:8090/payment")),
+          Path.of(values.getOrDefault("workload", "src/loadTest/resources/workload.jsonl")),
+          Double.parseDouble(values.getOrDefault("rate", "0")),
+          Integer.parseInt(values.getOrDefault("concurrency", "64")),
+          DurationStyle.detectAndParse(values.getOrDefault("duration", "30s")),
+          DurationStyle.detectAndParse(values.getOrDefault("warmup", "5s")),
+          values.get("api-key"),
+          values.containsKey("bank-simulator-port")
+              ? Integer.valueOf(values.get("bank-simulator-port")) : null,
+          LatencyDistribution.parse(values.getOrDefault("bank-latency", "none")),
+          Double.parseDouble(values.getOrDefault("bank-error-rate", "0")));
+      values.keySet().removeAll(Set.of("target", "workload", "rate", "concurrency", "duration",
+          "warmup", "api-key", "bank-simulator-port", "bank-latency", "bank-error-rate"));
+      if (!values.isEmpty()) {
+        throw new IllegalArgumentException("Unknown options " + values.keySet() + ". " + USAGE);
+      }
+      if (options.rate() < 0 || options.concurrency() < 1) {
+        throw new IllegalArgumentException("Rate must be >= 0 and concurrency >= 1. " + USAGE);
+      }
+      return options;
+    }
+  }
+}
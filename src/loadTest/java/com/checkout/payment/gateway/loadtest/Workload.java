@@ -0,0 +1,56 @@
+package com.checkout.payment.gateway.loadtest;
+
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request bodies read from a JSONL file, one {@link PostPaymentRequest} per line. Bodies are kept
+ * as the bytes read, so the gateway sees exactly what the file holds; each line is only parsed to
+ * reject files that are not payment requests.
+ */
+final class Workload {
+
+  private final List<byte[]> bodies;
+
+  private Workload(List<byte[]> bodies) {
+    this.bodies = bodies;
+  }
+
+  static Workload read(Path path, ObjectMapper objectMapper) throws IOException {
+    List<byte[]> bodies = new ArrayList<>();
+    int lineNumber = 0;
+    for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+      lineNumber++;
+      if (line.isBlank()) {
+        continue;
+      }
+      try {
+        objectMapper.readValue(line, PostPaymentRequest.class);
+      } catch (JsonProcessingException e) {
+        throw new IllegalArgumentException(
+            path + ":" + lineNumber + " is not a payment request: " + e.getOriginalMessage());
+      }
+      bodies.add(line.getBytes(StandardCharsets.UTF_8));
+    }
+    if (bodies.isEmpty()) {
+      throw new IllegalArgumentException(path + " holds no requests");
+    }
+    return new Workload(bodies);
+  }
+
+  /** The body for the {@code sequence}-th request, cycling through the file in order. */
+  byte[] body(long sequence) {
+    return bodies.get((int) (sequence % bodies.size()));
+  }
+
+  int size() {
+    return bodies.size();
+  }
+}
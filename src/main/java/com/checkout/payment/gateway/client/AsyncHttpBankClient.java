@@ -0,0 +1,213 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.configuration.BankClientProperties;
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.RequestReplySenderContext;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Non-blocking bank client backed by an Apache HttpClient 5 async client with a bounded
+ * keep-alive connection pool. No thread waits while an authorization is in flight; the returned
+ * future completes on the client's I/O reactor.
+ */
+public class AsyncHttpBankClient implements BatchBankClient, AutoCloseable {
+
+  private final CloseableHttpAsyncClient httpClient;
+  private final ObjectMapper objectMapper;
+  private final ObservationRegistry observationRegistry;
+  private final URI bankUrl;
+  private final URI batchUrl;
+
+  public AsyncHttpBankClient(BankClientProperties properties, ObjectMapper objectMapper,
+      ObservationRegistry observationRegistry) {
+    this(properties, properties.getUrl(), objectMapper, observationRegistry);
+  }
+
+  public AsyncHttpBankClient(BankClientProperties properties, String bankUrl,
+      ObjectMapper objectMapper, ObservationRegistry observationRegistry) {
+    this.objectMapper = objectMapper;
+    this.observationRegistry = observationRegistry;
+    this.bankUrl = URI.create(bankUrl);
+    this.batchUrl = URI.create(bankUrl + properties.getBatch().getPath());
+    Timeout connectTimeout = Timeout.ofMilliseconds(properties.getConnectTimeout().toMillis());
+    Timeout readTimeout = Timeout.ofMilliseconds(properties.getReadTimeout().toMillis());
+    this.httpClient = HttpAsyncClients.custom()
+        .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(properties.getMaxConnections())
+            .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setSocketTimeout(readTimeout)
+                .build())
+            .build())
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectionRequestTimeout(connectTimeout)
+            .setResponseTimeout(readTimeout)
+            .build())
+        .evictIdleConnections(TimeValue.ofMilliseconds(properties.getIdleTimeout().toMillis()))
+        .build();
+    this.httpClient.start();
+  }
+
+  @Override
+  public CompletableFuture<PostAuthResponse> authorize(PostPaymentRequest paymentRequest) {
+    return post(bankUrl, paymentRequest,
+        body -> objectMapper.readValue(body, PostAuthResponse.class));
+  }
+
+  /**
+   * Sends every request in one POST to the bank's batch endpoint, which answers with an array
+   * holding, in request order, the {@code status} and {@code body} the bank would have answered
+   * that request with on its own.
+   */
+  @Override
+  public CompletableFuture<List<BatchOutcome>> authorizeBatch(
+      List<PostPaymentRequest> paymentRequests) {
+    return post(batchUrl, paymentRequests, this::readBatch);
+  }
+
+  private List<BatchOutcome> readBatch(byte[] body) throws IOException {
+    JsonNode items = objectMapper.readTree(body);
+    if (items == null || !items.isArray()) {
+      throw new IOException("Expected an array of batch outcomes");
+    }
+    List<BatchOutcome> outcomes = new ArrayList<>(items.size());
+    for (JsonNode item : items) {
+      int status = item.path("status").asInt();
+      if (status < 100 || status > 599) {
+        outcomes.add(BatchOutcome.failed(
+            new RestClientException("Bank answered a batch item with status " + status)));
+        continue;
+      }
+      JsonNode itemBody = item.path("body");
+      byte[] bytes = itemBody.isMissingNode() || itemBody.isNull() ? null
+          : objectMapper.writeValueAsBytes(itemBody);
+      try {
+        outcomes.add(BatchOutcome.of(read(status, "", bytes,
+            json -> objectMapper.readValue(json, PostAuthResponse.class))));
+      } catch (RestClientException e) {
+        outcomes.add(BatchOutcome.failed(e));
+      }
+    }
+    return outcomes;
+  }
+
+  private <T> CompletableFuture<T> post(URI url, Object payload, BodyReader<T> reader) {
+    SimpleHttpRequest request;
+    try {
+      request = SimpleRequestBuilder.post(url)
+          .setBody(objectMapper.writeValueAsBytes(payload), ContentType.APPLICATION_JSON)
+          .build();
+    } catch (JsonProcessingException e) {
+      return CompletableFuture.failedFuture(
+          new RestClientException("Could not write bank request", e));
+    }
+
+    // Starting a sender observation injects the trace context (traceparent) into the request.
+    RequestReplySenderContext<SimpleHttpRequest, SimpleHttpResponse> context =
+        new RequestReplySenderContext<>(SimpleHttpRequest::setHeader);
+    context.setCarrier(request);
+    context.setRemoteServiceName("bank");
+    Observation observation =
+        Observation.createNotStarted("bank.http.request", () -> context, observationRegistry)
+            .contextualName("POST bank")
+            .start();
+
+    CompletableFuture<T> result = new CompletableFuture<>();
+    httpClient.execute(request, new FutureCallback<>() {
+      @Override
+      public void completed(SimpleHttpResponse response) {
+        context.setResponse(response);
+        observation.lowCardinalityKeyValue("status", String.valueOf(response.getCode()));
+        observation.stop();
+        try {
+          result.complete(readResponse(response, reader));
+        } catch (RestClientException e) {
+          result.completeExceptionally(e);
+        }
+      }
+
+      @Override
+      public void failed(Exception ex) {
+        observation.error(ex);
+        observation.stop();
+        IOException cause = ex instanceof IOException io ? io : new IOException(ex);
+        result.completeExceptionally(new ResourceAccessException(
+            "I/O error on POST request for \"" + url + "\": " + ex.getMessage(), cause));
+      }
+
+      @Override
+      public void cancelled() {
+        observation.stop();
+        result.cancel(false);
+      }
+    });
+    return result;
+  }
+
+  private static <T> T readResponse(SimpleHttpResponse response, BodyReader<T> reader) {
+    return read(response.getCode(),
+        response.getReasonPhrase() == null ? "" : response.getReasonPhrase(),
+        response.getBodyBytes(), reader);
+  }
+
+  private static <T> T read(int code, String statusText, byte[] body, BodyReader<T> reader) {
+    HttpStatusCode status = HttpStatusCode.valueOf(code);
+    if (status.is5xxServerError()) {
+      throw HttpServerErrorException.create(status, statusText, HttpHeaders.EMPTY, body,
+          StandardCharsets.UTF_8);
+    }
+    if (status.is4xxClientError()) {
+      throw HttpClientErrorException.create(status, statusText, HttpHeaders.EMPTY, body,
+          StandardCharsets.UTF_8);
+    }
+    if (!status.is2xxSuccessful() || body == null || body.length == 0) {
+      return null;
+    }
+    try {
+      return reader.read(body);
+    } catch (IOException e) {
+      throw new RestClientException("Could not read bank response", e);
+    }
+  }
+
+  @Override
+  public void close() {
+    httpClient.close(CloseMode.GRACEFUL);
+  }
+
+  private interface BodyReader<T> {
+
+    T read(byte[] body) throws IOException;
+  }
+}
@@ -0,0 +1,18 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends authorization requests to the acquiring bank.
+ *
+ * <p>Failures complete the returned future exceptionally with a
+ * {@link org.springframework.web.client.RestClientException}: an
+ * {@link org.springframework.web.client.HttpServerErrorException} for 5xx responses and a
+ * {@link org.springframework.web.client.ResourceAccessException} for I/O errors and timeouts.
+ */
+public interface BankClient {
+
+  CompletableFuture<PostAuthResponse> authorize(PostPaymentRequest paymentRequest);
+}
@@ -0,0 +1,16 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A bank client that can also send several authorizations in one round trip. The returned list
+ * holds one outcome per request, in request order, so each authorization succeeds or fails on
+ * its own. The future itself fails only when the batch as a whole does.
+ */
+public interface BatchBankClient extends BankClient {
+
+  CompletableFuture<List<BatchOutcome>> authorizeBatch(
+      List<PostPaymentRequest> paymentRequests);
+}
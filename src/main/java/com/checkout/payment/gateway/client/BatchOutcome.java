@@ -0,0 +1,21 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * The bank's answer to one authorization in a batch: its response, or the exception a single
+ * {@link BankClient#authorize} call for it would have failed with.
+ */
+public record BatchOutcome(@Nullable PostAuthResponse response,
+                           @Nullable RestClientException failure) {
+
+  public static BatchOutcome of(@Nullable PostAuthResponse response) {
+    return new BatchOutcome(response, null);
+  }
+
+  public static BatchOutcome failed(RestClientException failure) {
+    return new BatchOutcome(null, failure);
+  }
+}
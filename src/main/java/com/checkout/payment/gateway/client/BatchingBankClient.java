@@ -0,0 +1,236 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Gathers authorizations into batches and sends each batch to the bank in one round trip.
+ *
+ * <p>A batch closes {@code window} after its first authorization arrives, or as soon as it holds
+ * {@code maxBatchSize}, and authorizations arriving within a full batch's window are sent by
+ * that batch's deadline. A single flusher thread drains the queue and fans the responses back
+ * out to each caller's future. A batch of one is sent as a plain authorization. The bank answers
+ * each authorization in a batch separately, so one bad card cannot fail the others. If the batch
+ * call never reached the bank (a failure {@link RetryingBankClient#isRetriable} accepts, or a bank
+ * without a batch endpoint), each authorization in it is sent again on its own. Any other failure,
+ * or an answer with the wrong number of outcomes, fails every authorization in the batch, since
+ * the bank may already have acted on them.
+ *
+ * <p>Every call to the bank runs in the observation that was current when its authorization was
+ * queued, so the bank request joins the caller's trace. A batch joins the trace of its first
+ * authorization that has one.
+ */
+public class BatchingBankClient implements BankClient, AutoCloseable {
+
+  private final BatchBankClient delegate;
+  private final long windowNanos;
+  private final int maxBatchSize;
+  private final ObservationRegistry observationRegistry;
+  private final DistributionSummary batchSizes;
+  private final Counter fallbacks;
+  private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final Thread flusher;
+  private volatile boolean running = true;
+
+  public BatchingBankClient(BatchBankClient delegate, Duration window, int maxBatchSize,
+      MeterRegistry registry, ObservationRegistry observationRegistry) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("Max batch size must be at least 1: " + maxBatchSize);
+    }
+    this.delegate = delegate;
+    this.windowNanos = window.toNanos();
+    this.maxBatchSize = maxBatchSize;
+    this.observationRegistry = observationRegistry;
+    this.batchSizes = DistributionSummary.builder("bank.batch.size").register(registry);
+    this.fallbacks = Counter.builder("bank.batch.fallbacks").register(registry);
+    this.flusher = new Thread(this::runFlusher, "bank-batch-flusher");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  @Override
+  public CompletableFuture<PostAuthResponse> authorize(PostPaymentRequest paymentRequest) {
+    if (!running) {
+      return CompletableFuture.failedFuture(new RestClientException("Bank client is closed"));
+    }
+    Pending pending = new Pending(paymentRequest, observationRegistry.getCurrentObservation(),
+        System.nanoTime());
+    queue.add(pending);
+    int size = queued.incrementAndGet();
+    if (size == 1 || size == maxBatchSize) {
+      LockSupport.unpark(flusher);
+    }
+    return pending.result;
+  }
+
+  private void runFlusher() {
+    long fullBatchDeadline = 0;
+    boolean lastBatchFull = false;
+    while (running || !queue.isEmpty()) {
+      Pending oldest = queue.peek();
+      if (oldest == null) {
+        LockSupport.park(this);
+        continue;
+      }
+      // Authorizations that arrive within a full batch's window go by that batch's deadline
+      // instead of waiting another whole window.
+      long deadline = oldest.enqueuedAt + windowNanos;
+      if (lastBatchFull && oldest.enqueuedAt - fullBatchDeadline < 0) {
+        deadline = fullBatchDeadline;
+      }
+      long remaining = deadline - System.nanoTime();
+      while (running && queued.get() < maxBatchSize && remaining > 0) {
+        LockSupport.parkNanos(this, remaining);
+        remaining = deadline - System.nanoTime();
+      }
+      List<Pending> batch = new ArrayList<>(Math.min(queued.get(), maxBatchSize));
+      Pending pending;
+      while (batch.size() < maxBatchSize && (pending = queue.poll()) != null) {
+        batch.add(pending);
+      }
+      queued.addAndGet(-batch.size());
+      lastBatchFull = batch.size() == maxBatchSize;
+      fullBatchDeadline = deadline;
+      send(batch);
+    }
+  }
+
+  private void send(List<Pending> batch) {
+    batchSizes.record(batch.size());
+    if (batch.size() == 1) {
+      sendAlone(batch.get(0));
+      return;
+    }
+    List<PostPaymentRequest> requests = new ArrayList<>(batch.size());
+    Observation parent = null;
+    for (Pending pending : batch) {
+      requests.add(pending.request);
+      if (parent == null) {
+        parent = pending.parent;
+      }
+    }
+    inScope(parent, () -> delegate.authorizeBatch(requests)).whenComplete((outcomes, failure) -> {
+      if (failure != null && neverReachedBank(failure)) {
+        fallbacks.increment();
+        batch.forEach(this::sendAlone);
+        return;
+      }
+      if (failure != null) {
+        failAll(batch, failure);
+        return;
+      }
+      if (outcomes == null || outcomes.size() != batch.size()) {
+        int answered = outcomes == null ? 0 : outcomes.size();
+        failAll(batch, new RestClientException(
+            "Bank answered " + answered + " outcomes for a batch of " + batch.size()));
+        return;
+      }
+      for (int i = 0; i < batch.size(); i++) {
+        BatchOutcome outcome = outcomes.get(i);
+        if (outcome.failure() != null) {
+          batch.get(i).result.completeExceptionally(outcome.failure());
+        } else {
+          batch.get(i).result.complete(outcome.response());
+        }
+      }
+    });
+  }
+
+  private static void failAll(List<Pending> batch, Throwable failure) {
+    for (Pending pending : batch) {
+      pending.result.completeExceptionally(failure);
+    }
+  }
+
+  private static boolean neverReachedBank(Throwable failure) {
+    if (RetryingBankClient.isRetriable(failure)) {
+      return true;
+    }
+    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause() : failure;
+    if (cause instanceof HttpStatusCodeException statusError) {
+      int status = statusError.getStatusCode().value();
+      return status == HttpStatus.NOT_FOUND.value()
+          || status == HttpStatus.METHOD_NOT_ALLOWED.value()
+          || status == HttpStatus.NOT_IMPLEMENTED.value();
+    }
+    return false;
+  }
+
+  private void sendAlone(Pending pending) {
+    inScope(pending.parent, () -> delegate.authorize(pending.request))
+        .whenComplete((response, failure) -> {
+          if (failure != null) {
+            pending.result.completeExceptionally(failure);
+          } else {
+            pending.result.complete(response);
+          }
+        });
+  }
+
+  private static <T> CompletableFuture<T> inScope(Observation parent,
+      Supplier<CompletableFuture<T>> call) {
+    if (parent == null) {
+      return call(call);
+    }
+    try (Observation.Scope scope = parent.openScope()) {
+      return call(call);
+    }
+  }
+
+  private static <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> call) {
+    try {
+      return call.get();
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    running = false;
+    LockSupport.unpark(flusher);
+    flusher.join();
+    Pending stranded;
+    while ((stranded = queue.poll()) != null) {
+      stranded.result.completeExceptionally(new RestClientException("Bank client is closed"));
+    }
+    if (delegate instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+  }
+
+  private static final class Pending {
+
+    private final PostPaymentRequest request;
+    @Nullable
+    private final Observation parent;
+    private final long enqueuedAt;
+    private final CompletableFuture<PostAuthResponse> result = new CompletableFuture<>();
+
+    Pending(PostPaymentRequest request, Observation parent, long enqueuedAt) {
+      this.request = request;
+      this.parent = parent;
+      this.enqueuedAt = enqueuedAt;
+    }
+  }
+}
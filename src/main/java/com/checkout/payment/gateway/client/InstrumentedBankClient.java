@@ -0,0 +1,79 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.resilience.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.InterruptedIOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+/**
+ * Records the latency of every bank authorization in the {@code bank.authorization} timer,
+ * tagged with how the call ended.
+ */
+public class InstrumentedBankClient implements BankClient, AutoCloseable {
+
+  enum Outcome {
+    AUTHORIZED, DECLINED, SERVER_ERROR, CLIENT_ERROR, TIMEOUT, IO_ERROR, NOT_PERMITTED
+  }
+
+  private final BankClient delegate;
+  private final Map<Outcome, Timer> timers = new EnumMap<>(Outcome.class);
+
+  public InstrumentedBankClient(BankClient delegate, MeterRegistry registry) {
+    this.delegate = delegate;
+    for (Outcome outcome : Outcome.values()) {
+      timers.put(outcome, Timer.builder("bank.authorization")
+          .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+          .register(registry));
+    }
+  }
+
+  @Override
+  public CompletableFuture<PostAuthResponse> authorize(PostPaymentRequest paymentRequest) {
+    long start = System.nanoTime();
+    return delegate.authorize(paymentRequest).whenComplete((response, failure) ->
+        timers.get(outcome(response, failure))
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+  }
+
+  static Outcome outcome(PostAuthResponse response, Throwable failure) {
+    if (failure == null) {
+      return response != null && Boolean.parseBoolean(response.getAuthorized())
+          ? Outcome.AUTHORIZED : Outcome.DECLINED;
+    }
+    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause() : failure;
+    if (cause instanceof HttpServerErrorException) {
+      return Outcome.SERVER_ERROR;
+    }
+    if (cause instanceof HttpClientErrorException) {
+      return Outcome.CLIENT_ERROR;
+    }
+    if (cause instanceof CallNotPermittedException) {
+      return Outcome.NOT_PERMITTED;
+    }
+    for (Throwable t = cause; t != null; t = t.getCause()) {
+      if (t instanceof InterruptedIOException || t instanceof TimeoutException) {
+        return Outcome.TIMEOUT;
+      }
+    }
+    return Outcome.IO_ERROR;
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (delegate instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+  }
+}
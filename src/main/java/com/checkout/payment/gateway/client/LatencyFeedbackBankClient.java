@@ -0,0 +1,39 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.client.InstrumentedBankClient.Outcome;
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.resilience.AdaptiveConcurrencyLimiter;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Feeds the latency of every bank call to an {@link AdaptiveConcurrencyLimiter}. Timeouts and
+ * I/O failures are reported as dropped calls.
+ */
+public class LatencyFeedbackBankClient implements BankClient, AutoCloseable {
+
+  private final BankClient delegate;
+  private final AdaptiveConcurrencyLimiter limiter;
+
+  public LatencyFeedbackBankClient(BankClient delegate, AdaptiveConcurrencyLimiter limiter) {
+    this.delegate = delegate;
+    this.limiter = limiter;
+  }
+
+  @Override
+  public CompletableFuture<PostAuthResponse> authorize(PostPaymentRequest paymentRequest) {
+    long start = System.nanoTime();
+    return delegate.authorize(paymentRequest).whenComplete((response, failure) -> {
+      Outcome outcome = InstrumentedBankClient.outcome(response, failure);
+      limiter.onSample(System.nanoTime() - start,
+          outcome == Outcome.TIMEOUT || outcome == Outcome.IO_ERROR);
+    });
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (delegate instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+  }
+}
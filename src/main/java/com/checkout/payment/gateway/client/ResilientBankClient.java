@@ -0,0 +1,75 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.resilience.Bulkhead;
+import com.checkout.payment.gateway.resilience.CallNotPermittedException;
+import com.checkout.payment.gateway.resilience.CircuitBreaker;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Guards a bank client with a bulkhead and a circuit breaker. Calls over the concurrency limit or
+ * made while the circuit is open fail immediately with a {@link CallNotPermittedException}.
+ * Server errors and I/O failures count against the circuit; declines and client errors do not.
+ */
+public class ResilientBankClient implements BankClient, AutoCloseable {
+
+  private static final CallNotPermittedException CIRCUIT_OPEN =
+      new CallNotPermittedException("Bank circuit breaker is open");
+  private static final CallNotPermittedException BULKHEAD_FULL =
+      new CallNotPermittedException("Too many concurrent bank calls");
+
+  private final BankClient delegate;
+  private final CircuitBreaker circuitBreaker;
+  private final Bulkhead bulkhead;
+
+  public ResilientBankClient(BankClient delegate, CircuitBreaker circuitBreaker,
+      Bulkhead bulkhead) {
+    this.delegate = delegate;
+    this.circuitBreaker = circuitBreaker;
+    this.bulkhead = bulkhead;
+  }
+
+  @Override
+  public CompletableFuture<PostAuthResponse> authorize(PostPaymentRequest paymentRequest) {
+    if (!bulkhead.tryAcquire()) {
+      return CompletableFuture.failedFuture(BULKHEAD_FULL);
+    }
+    long permission = circuitBreaker.tryAcquirePermission();
+    if (permission == CircuitBreaker.NOT_PERMITTED) {
+      bulkhead.release();
+      return CompletableFuture.failedFuture(CIRCUIT_OPEN);
+    }
+
+    CompletableFuture<PostAuthResponse> call;
+    try {
+      call = delegate.authorize(paymentRequest);
+    } catch (RuntimeException e) {
+      call = CompletableFuture.failedFuture(e);
+    }
+    return call.whenComplete((response, failure) -> {
+      bulkhead.release();
+      if (failure != null && isBankFailure(failure)) {
+        circuitBreaker.onFailure(permission);
+      } else {
+        circuitBreaker.onSuccess(permission);
+      }
+    });
+  }
+
+  private static boolean isBankFailure(Throwable failure) {
+    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause() : failure;
+    return cause instanceof HttpServerErrorException || cause instanceof ResourceAccessException;
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (delegate instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+  }
+}
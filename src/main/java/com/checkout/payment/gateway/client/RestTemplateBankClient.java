@@ -0,0 +1,44 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Blocking bank client; the calling thread waits for the whole bank round trip.
+ */
+public class RestTemplateBankClient implements BankClient {
+
+  private final RestTemplate restTemplate;
+  private final String bankUrl;
+
+  public RestTemplateBankClient(RestTemplate restTemplate, String bankUrl) {
+    this.restTemplate = restTemplate;
+    this.bankUrl = bankUrl;
+  }
+
+  @Override
+  public CompletableFuture<PostAuthResponse> authorize(PostPaymentRequest paymentRequest) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    HttpEntity<PostPaymentRequest> requestEntity = new HttpEntity<>(paymentRequest, headers);
+
+    try {
+      ResponseEntity<PostAuthResponse> response = restTemplate.postForEntity(
+          bankUrl, requestEntity, PostAuthResponse.class
+      );
+      if (response == null || !response.getStatusCode().is2xxSuccessful()) {
+        return CompletableFuture.completedFuture(null);
+      }
+      return CompletableFuture.completedFuture(response.getBody());
+    } catch (RestClientException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+}
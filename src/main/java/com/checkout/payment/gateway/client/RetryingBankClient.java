@@ -0,0 +1,154 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.resilience.LatencyPercentile;
+import com.checkout.payment.gateway.resilience.RetryPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpServerErrorException;
+
+/**
+ * Retries bank calls that failed before the bank could have acted on them: 503 responses and
+ * connection failures. Waits follow the {@link RetryPolicy}, and the whole call, retries
+ * included, fails with a {@link java.util.concurrent.TimeoutException} at its deadline.
+ *
+ * <p>With a {@link LatencyPercentile} the first attempt is also hedged: if it has not answered
+ * once the percentile has elapsed, the same request is sent again and the first response wins.
+ * The slower call is not cancelled, so hedging is only safe against a bank that de-duplicates
+ * authorizations.
+ */
+public class RetryingBankClient implements BankClient, AutoCloseable {
+
+  private final BankClient delegate;
+  private final RetryPolicy retryPolicy;
+  @Nullable
+  private final LatencyPercentile hedgeDelay;
+  private final ExecutorService executor;
+  private final Counter retries;
+  private final Counter hedges;
+
+  public RetryingBankClient(BankClient delegate, RetryPolicy retryPolicy,
+      @Nullable LatencyPercentile hedgeDelay, ExecutorService executor, MeterRegistry registry) {
+    this.delegate = delegate;
+    this.retryPolicy = retryPolicy;
+    this.hedgeDelay = hedgeDelay;
+    this.executor = executor;
+    this.retries = Counter.builder("bank.retries").register(registry);
+    this.hedges = Counter.builder("bank.hedges").register(registry);
+  }
+
+  @Override
+  public CompletableFuture<PostAuthResponse> authorize(PostPaymentRequest paymentRequest) {
+    Call call = new Call(paymentRequest);
+    CompletableFuture<PostAuthResponse> first = call.send();
+    if (hedgeDelay != null && !first.isDone()) {
+      CompletableFuture.delayedExecutor(hedgeDelay.getNanos(), TimeUnit.NANOSECONDS, executor)
+          .execute(() -> {
+            if (!first.isDone() && !call.result.isDone()) {
+              hedges.increment();
+              call.send();
+            }
+          });
+    }
+    return call.result.orTimeout(retryPolicy.getDeadlineNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  static boolean isRetriable(Throwable failure) {
+    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause() : failure;
+    if (cause instanceof HttpServerErrorException serverError) {
+      return serverError.getStatusCode().value() == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+    return isConnectFailure(cause);
+  }
+
+  /**
+   * Whether the failure, or one of its causes, shows that no connection to the bank was made, so
+   * the bank cannot have acted on the request.
+   */
+  public static boolean isConnectFailure(Throwable failure) {
+    for (Throwable t = failure; t != null; t = t.getCause()) {
+      if (t instanceof ConnectException || t instanceof NoRouteToHostException
+          || t instanceof ConnectTimeoutException || t instanceof HttpConnectTimeoutException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void close() throws Exception {
+    executor.shutdown();
+    if (delegate instanceof AutoCloseable closeable) {
+      closeable.close();
+    }
+  }
+
+  private final class Call {
+
+    private final PostPaymentRequest request;
+    private final long deadline;
+    private final CompletableFuture<PostAuthResponse> result = new CompletableFuture<>();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    // Only touched by the send that completes last, so never concurrently.
+    private int attempts = 1;
+
+    Call(PostPaymentRequest request) {
+      this.request = request;
+      this.deadline = System.nanoTime() + retryPolicy.getDeadlineNanos();
+    }
+
+    CompletableFuture<PostAuthResponse> send() {
+      outstanding.incrementAndGet();
+      long start = System.nanoTime();
+      CompletableFuture<PostAuthResponse> sent;
+      try {
+        sent = delegate.authorize(request);
+      } catch (RuntimeException e) {
+        sent = CompletableFuture.failedFuture(e);
+      }
+      sent.whenComplete((response, failure) -> onComplete(start, response, failure));
+      return sent;
+    }
+
+    private void onComplete(long start, PostAuthResponse response, Throwable failure) {
+      int remaining = outstanding.decrementAndGet();
+      if (failure == null) {
+        if (hedgeDelay != null) {
+          hedgeDelay.record(System.nanoTime() - start);
+        }
+        result.complete(response);
+        return;
+      }
+      // Another send is still in flight and may yet succeed.
+      if (remaining > 0 || result.isDone()) {
+        return;
+      }
+      long backoff = isRetriable(failure)
+          ? retryPolicy.backoffNanos(attempts, deadline - System.nanoTime()) : -1;
+      if (backoff < 0) {
+        result.completeExceptionally(failure);
+        return;
+      }
+      attempts++;
+      retries.increment();
+      CompletableFuture.delayedExecutor(backoff, TimeUnit.NANOSECONDS, executor).execute(() -> {
+        if (!result.isDone()) {
+          send();
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,214 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Spreads authorizations over several acquirer endpoints by the power of two choices: each call
+ * samples two endpoints and goes to the cheaper one. Cost is the endpoint's peak-EWMA latency
+ * times its outstanding calls plus one, multiplied again by its consecutive failures plus one.
+ *
+ * <p>An endpoint that fails {@code ejectionThreshold} times in a row is ejected for
+ * {@code ejectionDuration}; if every candidate is ejected, they are all used anyway. A currency
+ * with a route is only sent to that route's endpoints.
+ */
+public class RoutingBankClient implements BankClient, AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RoutingBankClient.class);
+
+  private final List<Endpoint> endpoints = new ArrayList<>();
+  private final Endpoint[] defaultRoute;
+  private final Map<String, Endpoint[]> currencyRoutes = new HashMap<>();
+  private final int ejectionThreshold;
+  private final long ejectionNanos;
+  private final double decayNanos;
+  private final LongSupplier nanoClock;
+
+  /**
+   * @param clients        a client per endpoint URL, in configuration order
+   * @param defaultUrls    endpoints for currencies without a route
+   * @param currencyRoutes endpoints by ISO currency code
+   */
+  public RoutingBankClient(Map<String, BankClient> clients, List<String> defaultUrls,
+      Map<String, List<String>> currencyRoutes, int ejectionThreshold,
+      Duration ejectionDuration, Duration decay) {
+    this(clients, defaultUrls, currencyRoutes, ejectionThreshold, ejectionDuration, decay,
+        System::nanoTime);
+  }
+
+  RoutingBankClient(Map<String, BankClient> clients, List<String> defaultUrls,
+      Map<String, List<String>> currencyRoutes, int ejectionThreshold,
+      Duration ejectionDuration, Duration decay, LongSupplier nanoClock) {
+    Map<String, Endpoint> byUrl = new HashMap<>();
+    clients.forEach((url, client) -> {
+      Endpoint endpoint = new Endpoint(url, client);
+      byUrl.put(url, endpoint);
+      endpoints.add(endpoint);
+    });
+    this.defaultRoute = resolve(byUrl, defaultUrls);
+    currencyRoutes.forEach((currency, urls) ->
+        this.currencyRoutes.put(currency.toUpperCase(Locale.ROOT), resolve(byUrl, urls)));
+    this.ejectionThreshold = ejectionThreshold;
+    this.ejectionNanos = ejectionDuration.toNanos();
+    this.decayNanos = Math.max(1, decay.toNanos());
+    this.nanoClock = nanoClock;
+  }
+
+  @Override
+  public CompletableFuture<PostAuthResponse> authorize(PostPaymentRequest paymentRequest) {
+    long start = nanoClock.getAsLong();
+    Endpoint endpoint = choose(route(paymentRequest.getCurrency()), start);
+    endpoint.pending.incrementAndGet();
+    CompletableFuture<PostAuthResponse> call;
+    try {
+      call = endpoint.client.authorize(paymentRequest);
+    } catch (RuntimeException e) {
+      call = CompletableFuture.failedFuture(e);
+    }
+    return call.whenComplete((response, failure) ->
+        onComplete(endpoint, nanoClock.getAsLong(), start, failure));
+  }
+
+  List<Endpoint> getEndpoints() {
+    return endpoints;
+  }
+
+  private Endpoint[] route(String currency) {
+    if (currency == null || currencyRoutes.isEmpty()) {
+      return defaultRoute;
+    }
+    Endpoint[] route = currencyRoutes.get(currency.toUpperCase(Locale.ROOT));
+    return route != null ? route : defaultRoute;
+  }
+
+  private Endpoint choose(Endpoint[] candidates, long now) {
+    if (candidates.length == 1) {
+      return candidates[0];
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int first = random.nextInt(candidates.length);
+    int second = random.nextInt(candidates.length - 1);
+    if (second >= first) {
+      second++;
+    }
+    Endpoint a = candidates[first];
+    Endpoint b = candidates[second];
+    boolean aAvailable = a.isAvailable(now);
+    boolean bAvailable = b.isAvailable(now);
+    if (aAvailable != bAvailable) {
+      return aAvailable ? a : b;
+    }
+    if (!aAvailable) {
+      for (Endpoint candidate : candidates) {
+        if (candidate.isAvailable(now)) {
+          return candidate;
+        }
+      }
+    }
+    return a.cost() <= b.cost() ? a : b;
+  }
+
+  private void onComplete(Endpoint endpoint, long now, long start, Throwable failure) {
+    endpoint.pending.decrementAndGet();
+    endpoint.observe(now - start, now, decayNanos);
+    if (failure == null || !isBankFailure(failure)) {
+      endpoint.consecutiveFailures.set(0);
+      endpoint.ejected = false;
+      return;
+    }
+    int failures = endpoint.consecutiveFailures.incrementAndGet();
+    // Also re-ejects an endpoint that fails its first call after an ejection lapses.
+    if (failures >= ejectionThreshold && endpoint.isAvailable(now)) {
+      endpoint.ejectedUntil = now + ejectionNanos;
+      endpoint.ejected = true;
+      LOG.warn("Ejecting acquirer endpoint {} after {} consecutive failures", endpoint.url,
+          failures);
+    }
+  }
+
+  private static boolean isBankFailure(Throwable failure) {
+    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause() : failure;
+    return cause instanceof HttpServerErrorException || cause instanceof ResourceAccessException;
+  }
+
+  private static Endpoint[] resolve(Map<String, Endpoint> byUrl, List<String> urls) {
+    if (urls.isEmpty()) {
+      throw new IllegalArgumentException("A route needs at least one endpoint");
+    }
+    return urls.stream()
+        .map(url -> {
+          Endpoint endpoint = byUrl.get(url);
+          if (endpoint == null) {
+            throw new IllegalArgumentException("No client for acquirer endpoint " + url);
+          }
+          return endpoint;
+        })
+        .toArray(Endpoint[]::new);
+  }
+
+  @Override
+  public void close() throws Exception {
+    for (Endpoint endpoint : endpoints) {
+      if (endpoint.client instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+    }
+  }
+
+  static final class Endpoint {
+
+    private final String url;
+    private final BankClient client;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long ejectedUntil;
+    private volatile boolean ejected;
+    // Guarded by this.
+    private double ewmaNanos;
+    private long lastObserved;
+
+    Endpoint(String url, BankClient client) {
+      this.url = url;
+      this.client = client;
+    }
+
+    String getUrl() {
+      return url;
+    }
+
+    boolean isAvailable(long now) {
+      return !ejected || now - ejectedUntil >= 0;
+    }
+
+    double cost() {
+      double ewma;
+      synchronized (this) {
+        ewma = ewmaNanos;
+      }
+      return (ewma + 1) * (pending.get() + 1) * (consecutiveFailures.get() + 1);
+    }
+
+    // Peak EWMA: a slower sample replaces the average outright, faster ones decay it over time.
+    synchronized void observe(long rttNanos, long now, double decayNanos) {
+      double weight = Math.exp(-Math.max(0, now - lastObserved) / decayNanos);
+      lastObserved = now;
+      ewmaNanos = rttNanos > ewmaNanos ? rttNanos : ewmaNanos * weight + rttNanos * (1 - weight);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Runs a blocking bank client on virtual threads. At most {@code maxInFlight} calls are
+ * outstanding at once; further callers wait up to {@code acquireTimeout} for a permit and are
+ * then rejected instead of queueing without bound.
+ */
+public class VirtualThreadBankClient implements BankClient, AutoCloseable {
+
+  private final BankClient delegate;
+  private final Semaphore permits;
+  private final long acquireTimeoutNanos;
+  private final ObservationRegistry observationRegistry;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  public VirtualThreadBankClient(BankClient delegate, int maxInFlight, Duration acquireTimeout,
+      ObservationRegistry observationRegistry) {
+    this.delegate = delegate;
+    this.permits = new Semaphore(maxInFlight);
+    this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    this.observationRegistry = observationRegistry;
+  }
+
+  @Override
+  public CompletableFuture<PostAuthResponse> authorize(PostPaymentRequest paymentRequest) {
+    // Carry the caller's observation over so the bank request joins the same trace.
+    Observation parent = observationRegistry.getCurrentObservation();
+    return CompletableFuture.supplyAsync(() -> {
+      if (parent == null) {
+        return call(paymentRequest);
+      }
+      try (Observation.Scope scope = parent.openScope()) {
+        return call(paymentRequest);
+      }
+    }, executor);
+  }
+
+  private PostAuthResponse call(PostPaymentRequest paymentRequest) {
+    try {
+      if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+        throw new ResourceAccessException("Too many bank authorizations in flight");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ResourceAccessException("Interrupted while waiting to call the bank");
+    }
+    try {
+      return delegate.authorize(paymentRequest).join();
+    } finally {
+      permits.release();
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.close();
+  }
+}
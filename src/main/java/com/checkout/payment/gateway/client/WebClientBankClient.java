@@ -0,0 +1,79 @@
+package com.checkout.payment.gateway.client;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking bank client on Spring's {@link WebClient} and Reactor Netty, for the reactive
+ * stack. Failures are translated to the same exceptions as the other clients, with response
+ * timeouts reported as a {@link SocketTimeoutException}.
+ */
+public class WebClientBankClient implements BankClient {
+
+  private final WebClient webClient;
+  private final String bankUrl;
+
+  public WebClientBankClient(WebClient webClient, String bankUrl) {
+    this.webClient = webClient;
+    this.bankUrl = bankUrl;
+  }
+
+  @Override
+  public CompletableFuture<PostAuthResponse> authorize(PostPaymentRequest paymentRequest) {
+    return authorizeMono(paymentRequest).toFuture();
+  }
+
+  public Mono<PostAuthResponse> authorizeMono(PostPaymentRequest paymentRequest) {
+    return webClient.post()
+        .uri(bankUrl)
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(paymentRequest)
+        .exchangeToMono(this::readResponse)
+        .onErrorMap(WebClientRequestException.class, this::toResourceAccessException);
+  }
+
+  private Mono<PostAuthResponse> readResponse(ClientResponse response) {
+    HttpStatusCode status = response.statusCode();
+    if (status.is4xxClientError() || status.is5xxServerError()) {
+      return response.bodyToMono(byte[].class)
+          .defaultIfEmpty(new byte[0])
+          .flatMap(body -> Mono.error(status.is5xxServerError()
+              ? HttpServerErrorException.create(status, "", HttpHeaders.EMPTY, body,
+                  StandardCharsets.UTF_8)
+              : HttpClientErrorException.create(status, "", HttpHeaders.EMPTY, body,
+                  StandardCharsets.UTF_8)));
+    }
+    if (!status.is2xxSuccessful()) {
+      return response.releaseBody().then(Mono.empty());
+    }
+    return response.bodyToMono(PostAuthResponse.class);
+  }
+
+  private ResourceAccessException toResourceAccessException(WebClientRequestException e) {
+    Throwable cause = e.getCause();
+    IOException ioCause;
+    if (cause instanceof io.netty.handler.timeout.TimeoutException) {
+      ioCause = new SocketTimeoutException("Bank response timed out");
+    } else if (cause instanceof IOException io) {
+      ioCause = io;
+    } else {
+      ioCause = new IOException(cause);
+    }
+    return new ResourceAccessException(
+        "I/O error on POST request for \"" + bankUrl + "\": " + e.getMessage(), ioCause);
+  }
+}
@@ -0,0 +1,70 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.controller.LoadSheddingFilter;
+import com.checkout.payment.gateway.controller.RateLimitFilter;
+import com.checkout.payment.gateway.resilience.AdaptiveConcurrencyLimiter;
+import com.checkout.payment.gateway.resilience.AdmissionMetrics;
+import com.checkout.payment.gateway.resilience.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AdmissionControlConfiguration {
+
+  @Bean
+  public TokenBucketRateLimiter clientRateLimiter(
+      @Value("${gateway.rate-limit.requests-per-second:100}") double requestsPerSecond,
+      @Value("${gateway.rate-limit.burst:200}") int burst,
+      @Value("${gateway.rate-limit.max-clients:100000}") int maxClients) {
+    return new TokenBucketRateLimiter(requestsPerSecond, burst, maxClients);
+  }
+
+  @Bean
+  public AdaptiveConcurrencyLimiter paymentConcurrencyLimiter(
+      @Value("${gateway.load-shedding.initial-limit:100}") int initialLimit,
+      @Value("${gateway.load-shedding.min-limit:10}") int minLimit,
+      @Value("${gateway.load-shedding.max-limit:1000}") int maxLimit) {
+    return new AdaptiveConcurrencyLimiter("payments", initialLimit, minLimit, maxLimit);
+  }
+
+  @Bean
+  public AdmissionMetrics admissionMetrics(TokenBucketRateLimiter clientRateLimiter,
+      AdaptiveConcurrencyLimiter paymentConcurrencyLimiter) {
+    return new AdmissionMetrics(clientRateLimiter, paymentConcurrencyLimiter);
+  }
+
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+  @ConditionalOnProperty(name = "gateway.rate-limit.enabled", havingValue = "true",
+      matchIfMissing = true)
+  public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+      TokenBucketRateLimiter clientRateLimiter, ObjectMapper objectMapper,
+      @Value("${gateway.rate-limit.client-header:X-API-Key}") String clientHeader,
+      @Value("${gateway.rate-limit.api-keys:}") Set<String> apiKeys) {
+    FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+        new RateLimitFilter(clientRateLimiter, objectMapper.writer(), clientHeader, apiKeys));
+    registration.addUrlPatterns("/payment", "/payment/*", "/payments", "/payments/*");
+    registration.setOrder(1);
+    return registration;
+  }
+
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+  @ConditionalOnProperty(name = "gateway.load-shedding.enabled", havingValue = "true",
+      matchIfMissing = true)
+  public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(
+      AdaptiveConcurrencyLimiter paymentConcurrencyLimiter, ObjectMapper objectMapper) {
+    FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(
+        new LoadSheddingFilter(paymentConcurrencyLimiter, objectMapper.writer()));
+    // Batches are shed too, since their bank calls feed the same latency samples.
+    registration.addUrlPatterns("/payment", "/payments/batch");
+    registration.setOrder(2);
+    return registration;
+  }
+}
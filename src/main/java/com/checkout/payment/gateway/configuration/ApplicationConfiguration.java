@@ -1,19 +1,262 @@
 package com.checkout.payment.gateway.configuration;
 
+import com.checkout.payment.gateway.client.AsyncHttpBankClient;
+import com.checkout.payment.gateway.client.BankClient;
+import com.checkout.payment.gateway.client.BatchingBankClient;
+import com.checkout.payment.gateway.client.InstrumentedBankClient;
+import com.checkout.payment.gateway.client.LatencyFeedbackBankClient;
+import com.checkout.payment.gateway.client.ResilientBankClient;
+import com.checkout.payment.gateway.client.RestTemplateBankClient;
+import com.checkout.payment.gateway.client.RetryingBankClient;
+import com.checkout.payment.gateway.client.RoutingBankClient;
+import com.checkout.payment.gateway.client.VirtualThreadBankClient;
+import com.checkout.payment.gateway.client.WebClientBankClient;
+import com.checkout.payment.gateway.logging.LoggingMetrics;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.OffHeapPaymentStore;
+import com.checkout.payment.gateway.repository.PaymentArchive;
+import com.checkout.payment.gateway.repository.PaymentArchiveMetrics;
+import com.checkout.payment.gateway.repository.PaymentJournal;
+import com.checkout.payment.gateway.repository.PaymentStore;
+import com.checkout.payment.gateway.repository.StripedPaymentStore;
+import com.checkout.payment.gateway.resilience.AdaptiveConcurrencyLimiter;
+import com.checkout.payment.gateway.resilience.Bulkhead;
+import com.checkout.payment.gateway.resilience.CircuitBreaker;
+import com.checkout.payment.gateway.resilience.LatencyPercentile;
+import com.checkout.payment.gateway.resilience.ResilienceMetrics;
+import com.checkout.payment.gateway.resilience.RetryPolicy;
+import com.checkout.payment.gateway.service.IdempotencyCache;
+import com.checkout.payment.gateway.service.PaymentResponseCache;
+import com.checkout.payment.gateway.validation.PaymentRequestValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.netty.channel.ChannelOption;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Clock;
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
+@EnableConfigurationProperties(BankClientProperties.class)
 public class ApplicationConfiguration {
 
   @Bean
-  public RestTemplate restTemplate(RestTemplateBuilder builder) {
-    return builder
-        .setConnectTimeout(Duration.ofMillis(10000))
-        .setReadTimeout(Duration.ofMillis(10000))
+  public RestTemplate restTemplate(ObjectProvider<RestTemplateBuilder> builders,
+      BankClientProperties properties) {
+    Timeout connectTimeout = Timeout.ofMilliseconds(properties.getConnectTimeout().toMillis());
+    Timeout readTimeout = Timeout.ofMilliseconds(properties.getReadTimeout().toMillis());
+    CloseableHttpClient httpClient = HttpClients.custom()
+        .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(properties.getMaxConnections())
+            .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setSocketTimeout(readTimeout)
+                .build())
+            .build())
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectionRequestTimeout(connectTimeout)
+            .setResponseTimeout(readTimeout)
+            .build())
+        .evictIdleConnections(TimeValue.ofMilliseconds(properties.getIdleTimeout().toMillis()))
         .build();
+    // Boot only provides a RestTemplateBuilder to servlet applications.
+    return builders.getIfAvailable(RestTemplateBuilder::new)
+        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+        .build();
+  }
+
+  @Bean
+  public CircuitBreaker bankCircuitBreaker(BankClientProperties properties) {
+    BankClientProperties.CircuitBreakerProperties circuitBreaker = properties.getCircuitBreaker();
+    return new CircuitBreaker("bank", circuitBreaker.getFailureThreshold(),
+        circuitBreaker.getOpenDuration(), circuitBreaker.getHalfOpenProbes());
+  }
+
+  @Bean
+  public Bulkhead bankBulkhead(BankClientProperties properties) {
+    return new Bulkhead("bank", properties.getBulkhead().getMaxConcurrentCalls());
+  }
+
+  @Bean
+  public ResilienceMetrics bankResilienceMetrics(CircuitBreaker bankCircuitBreaker,
+      Bulkhead bankBulkhead) {
+    return new ResilienceMetrics(bankCircuitBreaker, bankBulkhead);
+  }
+
+  @Bean
+  public LoggingMetrics loggingMetrics() {
+    return new LoggingMetrics();
+  }
+
+  @Bean
+  public BankClient bankClient(BankClientProperties properties, ObjectMapper objectMapper,
+      RestTemplate restTemplate, CircuitBreaker bankCircuitBreaker, Bulkhead bankBulkhead,
+      AdaptiveConcurrencyLimiter paymentConcurrencyLimiter, MeterRegistry meterRegistry,
+      ObservationRegistry observationRegistry, ObjectProvider<WebClient.Builder> webClients) {
+    BankClient client = new ResilientBankClient(
+        new LatencyFeedbackBankClient(
+            createBankClient(properties, objectMapper, restTemplate, webClients, meterRegistry,
+            observationRegistry),
+            paymentConcurrencyLimiter),
+        bankCircuitBreaker, bankBulkhead);
+    BankClientProperties.RetryProperties retry = properties.getRetry();
+    BankClientProperties.HedgeProperties hedge = properties.getHedge();
+    client = new RetryingBankClient(client,
+        new RetryPolicy(retry.getMaxAttempts(), retry.getInitialBackoff(),
+            retry.getMaxBackoff(), retry.getDeadline()),
+        hedge.isEnabled()
+            ? new LatencyPercentile(hedge.getPercentile(), hedge.getWindow(), hedge.getMinDelay())
+            : null,
+        Executors.newVirtualThreadPerTaskExecutor(), meterRegistry);
+    return new InstrumentedBankClient(client, meterRegistry);
+  }
+
+  private static BankClient createBankClient(BankClientProperties properties,
+      ObjectMapper objectMapper, RestTemplate restTemplate,
+      ObjectProvider<WebClient.Builder> webClients, MeterRegistry meterRegistry,
+      ObservationRegistry observationRegistry) {
+    return switch (properties.getClient()) {
+      case ASYNC -> route(properties, url -> {
+        AsyncHttpBankClient client =
+            new AsyncHttpBankClient(properties, url, objectMapper, observationRegistry);
+        BankClientProperties.BatchProperties batch = properties.getBatch();
+        return batch.isEnabled()
+            ? new BatchingBankClient(client, batch.getWindow(), batch.getMaxSize(), meterRegistry,
+                observationRegistry)
+            : client;
+      });
+      case BLOCKING -> route(properties, url -> new RestTemplateBankClient(restTemplate, url));
+      case VIRTUAL -> new VirtualThreadBankClient(
+          route(properties, url -> new RestTemplateBankClient(restTemplate, url)),
+          properties.getMaxInFlight(), properties.getConnectTimeout(), observationRegistry);
+      case WEBCLIENT -> {
+        WebClient webClient = webClient(webClients.getObject(), properties);
+        yield route(properties, url -> new WebClientBankClient(webClient, url));
+      }
+    };
+  }
+
+  private static WebClient webClient(WebClient.Builder builder,
+      BankClientProperties properties) {
+    ConnectionProvider connections = ConnectionProvider.builder("bank")
+        .maxConnections(properties.getMaxConnectionsPerRoute())
+        .pendingAcquireMaxCount(-1)
+        .pendingAcquireTimeout(properties.getConnectTimeout())
+        .maxIdleTime(properties.getIdleTimeout())
+        .build();
+    HttpClient httpClient = HttpClient.create(connections)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+            Math.toIntExact(properties.getConnectTimeout().toMillis()))
+        .responseTimeout(properties.getReadTimeout());
+    return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+  }
+
+  // A single endpoint is called directly; several go through a router with a client for each.
+  private static BankClient route(BankClientProperties properties,
+      Function<String, BankClient> clientFactory) {
+    Set<String> urls = properties.getAllUrls();
+    if (urls.size() == 1) {
+      return clientFactory.apply(urls.iterator().next());
+    }
+    Map<String, BankClient> clients = new LinkedHashMap<>();
+    urls.forEach(url -> clients.put(url, clientFactory.apply(url)));
+    BankClientProperties.RoutingProperties routing = properties.getRouting();
+    return new RoutingBankClient(clients, properties.getDefaultUrls(), routing.getCurrencies(),
+        routing.getEjectionThreshold(), routing.getEjectionDuration(), routing.getDecay());
+  }
+
+  @Bean
+  public PaymentStore paymentStore(
+      @Value("${payments.store.capacity:1000000}") int capacity,
+      @Value("${payments.store.concurrency:0}") int concurrency,
+      @Value("${payments.store.off-heap:false}") boolean offHeap) {
+    int stripes = concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors() * 4;
+    return offHeap
+        ? new OffHeapPaymentStore(capacity, stripes)
+        : new StripedPaymentStore(capacity, stripes);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "payments.journal.enabled", havingValue = "true")
+  public PaymentJournal paymentJournal(
+      @Value("${payments.journal.directory:data/journal}") Path directory,
+      @Value("${payments.journal.segment-size:64MB}") DataSize segmentSize,
+      @Value("${payments.journal.flush-interval:10ms}") Duration flushInterval,
+      @Value("${payments.store.capacity:1000000}") int capacity) throws IOException {
+    return new PaymentJournal(directory, Math.toIntExact(segmentSize.toBytes()), flushInterval,
+        capacity);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "payments.archive.enabled", havingValue = "true")
+  public PaymentArchive paymentArchive(
+      @Value("${payments.archive.url:jdbc:h2:file:./data/payments}") String url,
+      @Value("${payments.archive.username:sa}") String username,
+      @Value("${payments.archive.password:}") String password,
+      @Value("${payments.archive.max-connections:4}") int maxConnections,
+      @Value("${payments.archive.queue-capacity:100000}") int queueCapacity,
+      @Value("${payments.archive.batch-size:500}") int batchSize,
+      @Value("${payments.archive.flush-interval:50ms}") Duration flushInterval,
+      @Value("${payments.archive.expected-payments:10000000}") long expectedPayments)
+      throws SQLException {
+    JdbcConnectionPool pool = JdbcConnectionPool.create(url, username, password);
+    pool.setMaxConnections(maxConnections);
+    return new PaymentArchive(pool, queueCapacity, batchSize, flushInterval, expectedPayments);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "payments.archive.enabled", havingValue = "true")
+  public PaymentArchiveMetrics paymentArchiveMetrics(PaymentArchive paymentArchive) {
+    return new PaymentArchiveMetrics(paymentArchive);
+  }
+
+  @Bean
+  public IdempotencyCache<ResponseEntity<PostPaymentResponse>> paymentIdempotencyCache(
+      @Value("${payments.idempotency.max-entries:100000}") int maxEntries,
+      @Value("${payments.idempotency.ttl:24h}") Duration ttl) {
+    return new IdempotencyCache<>(maxEntries, ttl);
+  }
+
+  @Bean
+  public PaymentResponseCache paymentResponseCache(ObjectMapper objectMapper,
+      @Value("${payments.response-cache.size:65536}") int size) {
+    return new PaymentResponseCache(objectMapper.writer(), size);
+  }
+
+  @Bean
+  public PaymentRequestValidator paymentRequestValidator(
+      @Value("${payments.validation.luhn:false}") boolean luhnCheckEnabled) {
+    return new PaymentRequestValidator(Clock.systemDefaultZone(), luhnCheckEnabled);
   }
 }
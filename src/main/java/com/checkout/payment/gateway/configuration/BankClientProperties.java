@@ -0,0 +1,351 @@
+package com.checkout.payment.gateway.configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "bank")
+public class BankClientProperties {
+
+  public enum Client {
+    ASYNC, BLOCKING, VIRTUAL, WEBCLIENT
+  }
+
+  private Client client = Client.ASYNC;
+  private String url = "http://localhost:8080/payments";
+  private List<String> urls = new ArrayList<>();
+  private Duration connectTimeout = Duration.ofSeconds(10);
+  private Duration readTimeout = Duration.ofSeconds(10);
+  private Duration idleTimeout = Duration.ofSeconds(30);
+  private int maxConnections = 200;
+  private int maxConnectionsPerRoute = 200;
+  private int maxInFlight = 2000;
+  private final CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+  private final BulkheadProperties bulkhead = new BulkheadProperties();
+  private final RetryProperties retry = new RetryProperties();
+  private final HedgeProperties hedge = new HedgeProperties();
+  private final RoutingProperties routing = new RoutingProperties();
+  private final BatchProperties batch = new BatchProperties();
+
+  public Client getClient() {
+    return client;
+  }
+
+  public void setClient(Client client) {
+    this.client = client;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  public void setUrl(String url) {
+    this.url = url;
+  }
+
+  public List<String> getUrls() {
+    return urls;
+  }
+
+  public void setUrls(List<String> urls) {
+    this.urls = urls;
+  }
+
+  /**
+   * Endpoints for currencies without a route: {@code bank.urls}, or {@code bank.url} when that is
+   * empty.
+   */
+  public List<String> getDefaultUrls() {
+    return urls.isEmpty() ? List.of(url) : urls;
+  }
+
+  /**
+   * Every distinct endpoint, whether routed by default or only for some currencies.
+   */
+  public Set<String> getAllUrls() {
+    Set<String> all = new LinkedHashSet<>(getDefaultUrls());
+    routing.getCurrencies().values().forEach(all::addAll);
+    return all;
+  }
+
+  public Duration getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  public void setConnectTimeout(Duration connectTimeout) {
+    this.connectTimeout = connectTimeout;
+  }
+
+  public Duration getReadTimeout() {
+    return readTimeout;
+  }
+
+  public void setReadTimeout(Duration readTimeout) {
+    this.readTimeout = readTimeout;
+  }
+
+  public Duration getIdleTimeout() {
+    return idleTimeout;
+  }
+
+  public void setIdleTimeout(Duration idleTimeout) {
+    this.idleTimeout = idleTimeout;
+  }
+
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  public void setMaxConnections(int maxConnections) {
+    this.maxConnections = maxConnections;
+  }
+
+  public int getMaxConnectionsPerRoute() {
+    return maxConnectionsPerRoute;
+  }
+
+  public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+    this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+  }
+
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  public void setMaxInFlight(int maxInFlight) {
+    this.maxInFlight = maxInFlight;
+  }
+
+  public CircuitBreakerProperties getCircuitBreaker() {
+    return circuitBreaker;
+  }
+
+  public BulkheadProperties getBulkhead() {
+    return bulkhead;
+  }
+
+  public RetryProperties getRetry() {
+    return retry;
+  }
+
+  public HedgeProperties getHedge() {
+    return hedge;
+  }
+
+  public RoutingProperties getRouting() {
+    return routing;
+  }
+
+  public BatchProperties getBatch() {
+    return batch;
+  }
+
+  public static class CircuitBreakerProperties {
+
+    private int failureThreshold = 5;
+    private Duration openDuration = Duration.ofSeconds(5);
+    private int halfOpenProbes = 1;
+
+    public int getFailureThreshold() {
+      return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+      this.failureThreshold = failureThreshold;
+    }
+
+    public Duration getOpenDuration() {
+      return openDuration;
+    }
+
+    public void setOpenDuration(Duration openDuration) {
+      this.openDuration = openDuration;
+    }
+
+    public int getHalfOpenProbes() {
+      return halfOpenProbes;
+    }
+
+    public void setHalfOpenProbes(int halfOpenProbes) {
+      this.halfOpenProbes = halfOpenProbes;
+    }
+  }
+
+  public static class BulkheadProperties {
+
+    private int maxConcurrentCalls = 1000;
+
+    public int getMaxConcurrentCalls() {
+      return maxConcurrentCalls;
+    }
+
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+      this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+  }
+
+  public static class RetryProperties {
+
+    private int maxAttempts = 3;
+    private Duration initialBackoff = Duration.ofMillis(50);
+    private Duration maxBackoff = Duration.ofSeconds(1);
+    private Duration deadline = Duration.ofSeconds(15);
+
+    public int getMaxAttempts() {
+      return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+      this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+      return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+      this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+      return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+      this.maxBackoff = maxBackoff;
+    }
+
+    public Duration getDeadline() {
+      return deadline;
+    }
+
+    public void setDeadline(Duration deadline) {
+      this.deadline = deadline;
+    }
+  }
+
+  public static class HedgeProperties {
+
+    private boolean enabled = false;
+    private double percentile = 0.95;
+    private int window = 1000;
+    private Duration minDelay = Duration.ofMillis(50);
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public double getPercentile() {
+      return percentile;
+    }
+
+    public void setPercentile(double percentile) {
+      this.percentile = percentile;
+    }
+
+    public int getWindow() {
+      return window;
+    }
+
+    public void setWindow(int window) {
+      this.window = window;
+    }
+
+    public Duration getMinDelay() {
+      return minDelay;
+    }
+
+    public void setMinDelay(Duration minDelay) {
+      this.minDelay = minDelay;
+    }
+  }
+
+  public static class RoutingProperties {
+
+    private Map<String, List<String>> currencies = new LinkedHashMap<>();
+    private int ejectionThreshold = 5;
+    private Duration ejectionDuration = Duration.ofSeconds(30);
+    private Duration decay = Duration.ofSeconds(10);
+
+    public Map<String, List<String>> getCurrencies() {
+      return currencies;
+    }
+
+    public void setCurrencies(Map<String, List<String>> currencies) {
+      this.currencies = currencies;
+    }
+
+    public int getEjectionThreshold() {
+      return ejectionThreshold;
+    }
+
+    public void setEjectionThreshold(int ejectionThreshold) {
+      this.ejectionThreshold = ejectionThreshold;
+    }
+
+    public Duration getEjectionDuration() {
+      return ejectionDuration;
+    }
+
+    public void setEjectionDuration(Duration ejectionDuration) {
+      this.ejectionDuration = ejectionDuration;
+    }
+
+    public Duration getDecay() {
+      return decay;
+    }
+
+    public void setDecay(Duration decay) {
+      this.decay = decay;
+    }
+  }
+
+  public static class BatchProperties {
+
+    private boolean enabled = false;
+    private Duration window = Duration.ofMillis(2);
+    private int maxSize = 64;
+    private String path = "/batch";
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public Duration getWindow() {
+      return window;
+    }
+
+    public void setWindow(Duration window) {
+      this.window = window;
+    }
+
+    public int getMaxSize() {
+      return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    public String getPath() {
+      return path;
+    }
+
+    public void setPath(String path) {
+      this.path = path;
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.checkout.payment.gateway.configuration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyRouteProvider;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs the reactive application on Netty. With both the web and webflux starters on the class
+ * path Boot would otherwise pick Tomcat, since it prefers Tomcat when its classes are present.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServerConfiguration {
+
+  @Bean
+  public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+      ObjectProvider<NettyRouteProvider> routes,
+      ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+    NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+    routes.orderedStream().forEach(factory::addRouteProviders);
+    serverCustomizers.orderedStream().forEach(factory::addServerCustomizers);
+    return factory;
+  }
+}
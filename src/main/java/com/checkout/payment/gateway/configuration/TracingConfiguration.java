@@ -0,0 +1,28 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.tracing.SpanRecorder;
+import com.checkout.payment.gateway.tracing.SpansEndpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TracingConfiguration {
+
+  @Bean
+  public SpanRecorder spanRecorder(ObjectMapper objectMapper,
+      @Value("${gateway.tracing.buffer-size:4096}") int bufferSize,
+      @Value("${gateway.tracing.export-file:}") String exportFile,
+      @Value("${gateway.tracing.export-interval:1s}") Duration exportInterval) {
+    return new SpanRecorder(bufferSize, objectMapper.writer(),
+        exportFile.isBlank() ? null : Path.of(exportFile), exportInterval);
+  }
+
+  @Bean
+  public SpansEndpoint spansEndpoint(SpanRecorder spanRecorder) {
+    return new SpansEndpoint(spanRecorder);
+  }
+}
@@ -0,0 +1,43 @@
+package com.checkout.payment.gateway.configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Runs Tomcat request handling on virtual threads. The executor is a bean so it is closed with
+ * the context. Since an executor bean replaces Spring Boot's {@code applicationTaskExecutor},
+ * asynchronous MVC work such as streamed batch responses runs on it too.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gateway.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+  @Bean(destroyMethod = "close")
+  public ExecutorService virtualThreadExecutor() {
+    return Executors.newVirtualThreadPerTaskExecutor();
+  }
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+      ExecutorService virtualThreadExecutor) {
+    return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+  }
+
+  @Bean
+  public WebMvcConfigurer virtualThreadAsyncSupportConfigurer(
+      ExecutorService virtualThreadExecutor) {
+    return new WebMvcConfigurer() {
+      @Override
+      public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(virtualThreadExecutor));
+      }
+    };
+  }
+}
@@ -0,0 +1,32 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.model.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+/**
+ * Writes the same JSON {@link ErrorResponse} the exception handlers produce, for filters that
+ * reject a request before it reaches a controller.
+ */
+final class ErrorResponses {
+
+  private ErrorResponses() {
+  }
+
+  static void send(HttpServletResponse response, ObjectWriter writer, HttpStatus status,
+      String message) throws IOException {
+    response.setStatus(status.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    writer.writeValue(response.getOutputStream(), new ErrorResponse(message));
+  }
+
+  static void tooManyRequests(HttpServletResponse response, ObjectWriter writer,
+      long retryAfterSeconds, String message) throws IOException {
+    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+    send(response, writer, HttpStatus.TOO_MANY_REQUESTS, message);
+  }
+}
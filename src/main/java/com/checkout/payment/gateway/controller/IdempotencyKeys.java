@@ -0,0 +1,70 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Scopes idempotency keys to the client that sent them and fingerprints the request they were
+ * first used with, so two clients picking the same key never share a result and a key reused
+ * for a different payment is rejected instead of answered with the first payment's response.
+ */
+final class IdempotencyKeys {
+
+  static final String HEADER = "Idempotency-Key";
+  static final String CLIENT_HEADER = "X-API-Key";
+  static final int MAX_LENGTH = 255;
+  private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+  private static final SecretKeySpec FINGERPRINT_KEY = newFingerprintKey();
+
+  private IdempotencyKeys() {
+  }
+
+  /**
+   * The cache key for {@code key}, scoped by the client's API key or else its address, or null
+   * when the request has no idempotency key. Throws 400 when the key is too long.
+   */
+  @Nullable
+  static String scoped(@Nullable String key, @Nullable String apiKey,
+      @Nullable String remoteAddress) {
+    if (key == null || key.isBlank()) {
+      return null;
+    }
+    if (key.length() > MAX_LENGTH) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          HEADER + " must be at most " + MAX_LENGTH + " characters");
+    }
+    String client = apiKey == null || apiKey.isBlank() ? "addr:" + remoteAddress : "key:" + apiKey;
+    return client + '\n' + key;
+  }
+
+  /**
+   * HMAC-SHA256 of the request's fields under a key drawn at startup, so the fingerprints held
+   * for the key's lifetime cannot be brute-forced back into card numbers. The CVV is left out, as
+   * nothing derived from it may be kept after authorization. It must be taken before the request
+   * is authorized, since authorizing trims the card number to its last four digits.
+   */
+  static byte[] fingerprint(PostPaymentRequest request) {
+    String fields = request.getCardNumberLastFour() + '\n' + request.getExpiryMonth() + '\n'
+        + request.getExpiryYear() + '\n' + request.getCurrency() + '\n' + request.getAmount();
+    try {
+      Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+      mac.init(FINGERPRINT_KEY);
+      return mac.doFinal(fields.getBytes(StandardCharsets.UTF_8));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(FINGERPRINT_ALGORITHM + " is not available", e);
+    }
+  }
+
+  private static SecretKeySpec newFingerprintKey() {
+    byte[] key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    return new SecretKeySpec(key, FINGERPRINT_ALGORITHM);
+  }
+}
@@ -0,0 +1,92 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.resilience.AdaptiveConcurrencyLimiter;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Rejects payment requests with 429 once the adaptive concurrency limit is reached, rather than
+ * letting them queue for the bank. The permit is held until the response is complete, including
+ * the asynchronous part of the request.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+  private static final long RETRY_AFTER_SECONDS = 1;
+
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final ObjectWriter writer;
+
+  public LoadSheddingFilter(AdaptiveConcurrencyLimiter limiter, ObjectWriter writer) {
+    this.limiter = limiter;
+    this.writer = writer;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !HttpMethod.POST.matches(request.getMethod());
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain chain) throws ServletException, IOException {
+    if (!limiter.tryAcquire()) {
+      ErrorResponses.tooManyRequests(response, writer, RETRY_AFTER_SECONDS,
+          "Server is overloaded, try again later");
+      return;
+    }
+    Permit permit = new Permit(limiter);
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      if (request.isAsyncStarted()) {
+        request.getAsyncContext().addListener(permit);
+      } else {
+        permit.release();
+      }
+    }
+  }
+
+  private static final class Permit implements AsyncListener {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    Permit(AdaptiveConcurrencyLimiter limiter) {
+      this.limiter = limiter;
+    }
+
+    void release() {
+      if (released.compareAndSet(false, true)) {
+        limiter.release();
+      }
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      release();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      release();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      release();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+  }
+}
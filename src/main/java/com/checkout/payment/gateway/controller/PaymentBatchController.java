@@ -0,0 +1,58 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.service.BatchPaymentService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PaymentBatchController {
+  private static final Logger LOG = LoggerFactory.getLogger(PaymentBatchController.class);
+  private final BatchPaymentService batchPaymentService;
+  private final ObjectReader requestReader;
+  private final ObjectWriter resultWriter;
+
+  public PaymentBatchController(BatchPaymentService batchPaymentService,
+      ObjectMapper objectMapper) {
+    this.batchPaymentService = batchPaymentService;
+    this.requestReader = objectMapper.readerFor(PostPaymentRequest.class);
+    this.resultWriter = objectMapper.writer();
+  }
+
+  /**
+   * Accepts a JSON array or newline-delimited JSON of payment requests and streams one NDJSON
+   * result line per payment as soon as it is decided.
+   */
+  @PostMapping(value = "/payments/batch",
+      consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> processBatch(InputStream body) {
+    StreamingResponseBody results = out -> {
+      try (MappingIterator<PostPaymentRequest> items = requestReader.readValues(body)) {
+        int processed = batchPaymentService.process(items, result -> {
+          out.write(resultWriter.writeValueAsBytes(result));
+          out.write('\n');
+          out.flush();
+        });
+        LOG.info("Processed batch of {} payments", processed);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Batch processing interrupted");
+      }
+    };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(results);
+  }
+}
@@ -1,55 +1,76 @@
 package com.checkout.payment.gateway.controller;
 
+import com.checkout.payment.gateway.model.ErrorResponse;
 import com.checkout.payment.gateway.model.PostPaymentRequest;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.service.IdempotencyCache;
 import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.checkout.payment.gateway.service.PaymentResponseCache.SerializedPayment;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
-import static com.checkout.payment.gateway.enums.PaymentStatus.*;
-
 @RestController("api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class PaymentGatewayController {
   private static final Logger LOG = LoggerFactory.getLogger(PaymentGatewayController.class);
   private final PaymentGatewayService paymentGatewayService;
+  private final IdempotencyCache<ResponseEntity<PostPaymentResponse>> idempotencyCache;
 
-  public PaymentGatewayController(PaymentGatewayService paymentGatewayService) {
+  public PaymentGatewayController(PaymentGatewayService paymentGatewayService,
+      IdempotencyCache<ResponseEntity<PostPaymentResponse>> idempotencyCache) {
     this.paymentGatewayService = paymentGatewayService;
+    this.idempotencyCache = idempotencyCache;
   }
 
+  // Spring answers a matching If-None-Match with 304 from the entity's ETag.
   @GetMapping("/payment/{id}")
-  public ResponseEntity<PostPaymentResponse> getPostPaymentEventById(@PathVariable UUID id) {
-    return new ResponseEntity<>(paymentGatewayService.getPaymentById(id), HttpStatus.OK);
+  public ResponseEntity<?> getPostPaymentEventById(@PathVariable UUID id) {
+    SerializedPayment payment = paymentGatewayService.getSerializedPayment(id);
+    if (payment == null) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse("Page not found"));
+    }
+    return ResponseEntity.ok()
+        .eTag(payment.etag())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(payment.body());
   }
 
   @PostMapping("/payment")
-  public ResponseEntity<PostPaymentResponse> processPayment(@Valid @RequestBody final PostPaymentRequest postPaymentRequest) {
+  public CompletableFuture<ResponseEntity<PostPaymentResponse>> processPayment(@Valid @RequestBody final PostPaymentRequest postPaymentRequest,
+      @RequestHeader(name = IdempotencyKeys.HEADER, required = false) String idempotencyKey,
+      @RequestHeader(name = IdempotencyKeys.CLIENT_HEADER, required = false) String apiKey,
+      HttpServletRequest request) {
     LOG.info("Attempting payment {}", postPaymentRequest);
 
-    UUID id = paymentGatewayService.processPayment(postPaymentRequest);
+    String scopedKey = IdempotencyKeys.scoped(idempotencyKey, apiKey, request.getRemoteAddr());
+    if (scopedKey == null) {
+      return authorize(postPaymentRequest);
+    }
+    return idempotencyCache.getOrCompute(scopedKey,
+        IdempotencyKeys.fingerprint(postPaymentRequest), () -> authorize(postPaymentRequest));
+  }
 
-    PostPaymentResponse response = new PostPaymentResponse();
-    response.setAmount(postPaymentRequest.getAmount());
-    response.setCurrency(postPaymentRequest.getCurrency());
-    response.setStatus(id == null ? DECLINED : AUTHORIZED);
-    response.setId(id);
-    response.setExpiryMonth(postPaymentRequest.getExpiryMonth());
-    response.setExpiryYear(postPaymentRequest.getExpiryYear());
-    String lastFour = postPaymentRequest.getCardNumberLastFour()
-        .substring(postPaymentRequest.getCardNumberLastFour().length()-4);
-    response.setCardNumberLastFour(lastFour);
+  private CompletableFuture<ResponseEntity<PostPaymentResponse>> authorize(PostPaymentRequest postPaymentRequest) {
+    return paymentGatewayService.processPaymentAsync(postPaymentRequest).thenApply(id -> {
+      PostPaymentResponse response = PaymentResponses.of(postPaymentRequest, id);
 
-    LOG.info("Processed payment {}", response);
+      LOG.info("Processed payment {}", response);
 
-    return new ResponseEntity<>(response, HttpStatus.OK);
+      return new ResponseEntity<>(response, HttpStatus.OK);
+    });
   }
 }
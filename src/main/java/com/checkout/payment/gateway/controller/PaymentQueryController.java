@@ -0,0 +1,122 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.repository.PaymentQuery;
+import com.checkout.payment.gateway.service.PaymentQueryService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PaymentQueryController {
+  private static final Logger LOG = LoggerFactory.getLogger(PaymentQueryController.class);
+  private static final int MAX_PAGE_SIZE = 1000;
+  private final PaymentQueryService paymentQueryService;
+  private final ObjectMapper objectMapper;
+  private final int maxLookupIds;
+
+  public PaymentQueryController(PaymentQueryService paymentQueryService,
+      ObjectMapper objectMapper, @Value("${payments.lookup.max-ids:10000}") int maxLookupIds) {
+    this.paymentQueryService = paymentQueryService;
+    this.objectMapper = objectMapper;
+    this.maxLookupIds = maxLookupIds;
+  }
+
+  /**
+   * Accepts a JSON array of payment IDs and streams back the payments that exist, in request
+   * order, as {@code {"payments": [...]}}.
+   */
+  @PostMapping(value = "/payments/lookup", consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> lookup(@RequestBody List<UUID> ids) {
+    if (ids.size() > maxLookupIds) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "At most " + maxLookupIds + " IDs can be looked up at once");
+    }
+    if (ids.contains(null)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "IDs must not be null");
+    }
+    StreamingResponseBody body = out -> {
+      JsonGenerator generator = objectMapper.createGenerator(out);
+      generator.writeStartObject();
+      generator.writeArrayFieldStart("payments");
+      int found = paymentQueryService.lookup(ids, generator::writeObject);
+      generator.writeEndArray();
+      generator.writeEndObject();
+      generator.flush();
+      LOG.debug("Looked up {} payments, found {}", ids.size(), found);
+    };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+  }
+
+  /**
+   * Streams one page of payments, oldest first, as {@code {"payments": [...], "nextCursor": ...}}.
+   * Pass {@code nextCursor} back as {@code cursor}, with the same filters, for the next page; it
+   * is null once the newest payment has been listed. A page can hold fewer than {@code limit}
+   * payments even when more follow.
+   */
+  @GetMapping(value = "/payments", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> list(
+      @RequestParam(required = false) String currency,
+      @RequestParam(required = false) PaymentStatus status,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+      Instant since,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "100") int limit) {
+    if (currency != null && currency.length() != 3) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "Currency must be exactly 3 characters");
+    }
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "Limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    PaymentQuery query = new PaymentQuery(currency, status, since, parseCursor(cursor), limit);
+    StreamingResponseBody body = out -> {
+      JsonGenerator generator = objectMapper.createGenerator(out);
+      generator.writeStartObject();
+      generator.writeArrayFieldStart("payments");
+      Long nextCursor = paymentQueryService.list(query, generator::writeObject);
+      generator.writeEndArray();
+      generator.writeStringField("nextCursor",
+          nextCursor == null ? null : Long.toString(nextCursor));
+      generator.writeEndObject();
+      generator.flush();
+    };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+  }
+
+  private static Long parseCursor(String cursor) {
+    if (cursor == null) {
+      return null;
+    }
+    long position;
+    try {
+      position = Long.parseLong(cursor);
+    } catch (NumberFormatException e) {
+      position = -1;
+    }
+    if (position < 0) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+    return position;
+  }
+}
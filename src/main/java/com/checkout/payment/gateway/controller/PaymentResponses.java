@@ -0,0 +1,30 @@
+package com.checkout.payment.gateway.controller;
+
+import static com.checkout.payment.gateway.enums.PaymentStatus.AUTHORIZED;
+import static com.checkout.payment.gateway.enums.PaymentStatus.DECLINED;
+
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.util.UUID;
+import org.springframework.lang.Nullable;
+
+/** Builds the answer to {@code POST /payment} on both the servlet and the reactive stack. */
+final class PaymentResponses {
+
+  private PaymentResponses() {
+  }
+
+  /** The response for a request the bank authorized with {@code id}, or declined when null. */
+  static PostPaymentResponse of(PostPaymentRequest request, @Nullable UUID id) {
+    PostPaymentResponse response = new PostPaymentResponse();
+    response.setAmount(request.getAmount());
+    response.setCurrency(request.getCurrency());
+    response.setStatus(id == null ? DECLINED : AUTHORIZED);
+    response.setId(id);
+    response.setExpiryMonth(request.getExpiryMonth());
+    response.setExpiryYear(request.getExpiryYear());
+    String cardNumber = request.getCardNumberLastFour();
+    response.setCardNumberLastFour(cardNumber.substring(cardNumber.length() - 4));
+    return response;
+  }
+}
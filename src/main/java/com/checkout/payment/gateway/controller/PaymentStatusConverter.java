@@ -0,0 +1,20 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds {@code status} request parameters in any case, so the name payments carry in JSON
+ * ({@code Authorized}) works as well as {@code authorized} or {@code AUTHORIZED}.
+ *
+ * <p>Picked up by Spring Boot's MVC conversion service like any other {@code Converter} bean.
+ */
+@Component
+public class PaymentStatusConverter implements Converter<String, PaymentStatus> {
+
+  @Override
+  public PaymentStatus convert(String source) {
+    return PaymentStatus.fromName(source.trim());
+  }
+}
@@ -0,0 +1,58 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.resilience.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Rate limits each client before the request body is read. The API key header is not
+ * authenticated, so only the keys in {@code apiKeys} identify a client; any other request is
+ * limited by its remote address, and changing the header cannot buy a fresh allowance. A client
+ * over its rate gets 429 with a {@code Retry-After} in whole seconds.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  static final int MAX_CLIENT_KEY_LENGTH = 255;
+
+  private final TokenBucketRateLimiter rateLimiter;
+  private final ObjectWriter writer;
+  private final String clientHeader;
+  private final Set<String> apiKeys;
+
+  public RateLimitFilter(TokenBucketRateLimiter rateLimiter, ObjectWriter writer,
+      String clientHeader, Set<String> apiKeys) {
+    this.rateLimiter = rateLimiter;
+    this.writer = writer;
+    this.clientHeader = clientHeader;
+    this.apiKeys = Set.copyOf(apiKeys);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain chain) throws ServletException, IOException {
+    String apiKey = request.getHeader(clientHeader);
+    if (apiKey != null && apiKey.length() > MAX_CLIENT_KEY_LENGTH) {
+      ErrorResponses.send(response, writer, HttpStatus.BAD_REQUEST,
+          clientHeader + " must be at most " + MAX_CLIENT_KEY_LENGTH + " characters");
+      return;
+    }
+    String clientKey = apiKey != null && apiKeys.contains(apiKey)
+        ? "key:" + apiKey : "addr:" + request.getRemoteAddr();
+    long waitNanos = rateLimiter.tryAcquire(clientKey);
+    if (waitNanos > 0) {
+      long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)
+          / TimeUnit.SECONDS.toNanos(1));
+      ErrorResponses.tooManyRequests(response, writer, retryAfter, "Rate limit exceeded");
+      return;
+    }
+    chain.doFilter(request, response);
+  }
+}
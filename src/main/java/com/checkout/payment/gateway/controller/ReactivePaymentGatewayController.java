@@ -0,0 +1,90 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.model.ErrorResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.service.IdempotencyCache;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import jakarta.validation.Valid;
+import java.net.InetSocketAddress;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The payment API on WebFlux, used instead of {@link PaymentGatewayController} when the
+ * application runs as a reactive web application. Payments do not block, so the Netty event loop
+ * threads carry them from body decoding to the bank call and back.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePaymentGatewayController {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ReactivePaymentGatewayController.class);
+  private final PaymentGatewayService paymentGatewayService;
+  private final IdempotencyCache<ResponseEntity<PostPaymentResponse>> idempotencyCache;
+
+  public ReactivePaymentGatewayController(PaymentGatewayService paymentGatewayService,
+      IdempotencyCache<ResponseEntity<PostPaymentResponse>> idempotencyCache) {
+    this.paymentGatewayService = paymentGatewayService;
+    this.idempotencyCache = idempotencyCache;
+  }
+
+  // Lookups can miss the cache and read the archive over JDBC, so they run off the event loop.
+  @GetMapping("/payment/{id}")
+  public Mono<ResponseEntity<?>> getPostPaymentEventById(@PathVariable UUID id) {
+    return Mono.fromSupplier(() -> paymentGatewayService.getSerializedPayment(id))
+        .subscribeOn(Schedulers.boundedElastic())
+        .<ResponseEntity<?>>map(payment -> ResponseEntity.ok()
+            .eTag(payment.etag())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(payment.body()))
+        .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND)
+            .body(new ErrorResponse("Page not found")));
+  }
+
+  @PostMapping("/payment")
+  public Mono<ResponseEntity<PostPaymentResponse>> processPayment(
+      @Valid @RequestBody final PostPaymentRequest postPaymentRequest,
+      @RequestHeader(name = IdempotencyKeys.HEADER, required = false) String idempotencyKey,
+      @RequestHeader(name = IdempotencyKeys.CLIENT_HEADER, required = false) String apiKey,
+      ServerHttpRequest request) {
+    LOG.info("Attempting payment {}", postPaymentRequest);
+
+    InetSocketAddress remoteAddress = request.getRemoteAddress();
+    String scopedKey = IdempotencyKeys.scoped(idempotencyKey, apiKey,
+        remoteAddress == null ? null : remoteAddress.getHostString());
+    if (scopedKey == null) {
+      return authorize(postPaymentRequest);
+    }
+    byte[] fingerprint = IdempotencyKeys.fingerprint(postPaymentRequest);
+    // A client that disconnects cancels its future; a copy keeps that from cancelling the cached
+    // result every retry with the same key would get.
+    return Mono.fromFuture(() -> idempotencyCache.getOrCompute(scopedKey, fingerprint,
+        () -> authorize(postPaymentRequest).toFuture()).copy());
+  }
+
+  private Mono<ResponseEntity<PostPaymentResponse>> authorize(
+      PostPaymentRequest postPaymentRequest) {
+    return paymentGatewayService.processPaymentMono(postPaymentRequest)
+        .map(id -> PaymentResponses.of(postPaymentRequest, id))
+        .switchIfEmpty(Mono.fromSupplier(() -> PaymentResponses.of(postPaymentRequest, null)))
+        .map(response -> {
+          LOG.info("Processed payment {}", response);
+          return new ResponseEntity<>(response, HttpStatus.OK);
+        });
+  }
+}
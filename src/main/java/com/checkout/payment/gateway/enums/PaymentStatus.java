@@ -17,4 +17,14 @@ public enum PaymentStatus {
   public String getName() {
     return this.name;
   }
+
+  /** The status named {@code name} in any case, as in JSON ("Authorized") or as the constant. */
+  public static PaymentStatus fromName(String name) {
+    for (PaymentStatus status : values()) {
+      if (status.name.equalsIgnoreCase(name)) {
+        return status;
+      }
+    }
+    throw new IllegalArgumentException("Unknown payment status: " + name);
+  }
 }
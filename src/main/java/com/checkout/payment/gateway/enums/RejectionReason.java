@@ -0,0 +1,22 @@
+package com.checkout.payment.gateway.enums;
+
+public enum RejectionReason {
+  CARD_NUMBER_LENGTH("Card number must be between 14 and 19 digits"),
+  CARD_NUMBER_DIGITS("Card number must contain only digits"),
+  CARD_NUMBER_LUHN("Card number is not valid"),
+  CVV_LENGTH("CVV must be 3 or 4 digits"),
+  CVV_DIGITS("CVV must contain only digits"),
+  EXPIRY_YEAR("Expiry year must be current year or later"),
+  EXPIRY_MONTH("Card has expired"),
+  CURRENCY("Currency is not supported");
+
+  private final String message;
+
+  RejectionReason(String message) {
+    this.message = message;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+}
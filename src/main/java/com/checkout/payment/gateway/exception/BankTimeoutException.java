@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.exception;
+
+public class BankTimeoutException extends BankUnavailableException {
+  public BankTimeoutException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.exception;
+
+public class BankUnavailableException extends EventProcessingException {
+  public BankUnavailableException(String message) {
+    super(message);
+  }
+}
@@ -21,6 +21,27 @@ public class CommonExceptionHandler {
     return new ErrorResponse("Page not found");
   }
 
+  @ExceptionHandler(BankUnavailableException.class)
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  public ErrorResponse handleBankUnavailable(BankUnavailableException ex) {
+    LOG.error("Bank unavailable: {}", ex.getMessage());
+    return new ErrorResponse(ex.getMessage());
+  }
+
+  @ExceptionHandler(BankTimeoutException.class)
+  @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+  public ErrorResponse handleBankTimeout(BankTimeoutException ex) {
+    LOG.error("Bank timed out: {}", ex.getMessage());
+    return new ErrorResponse(ex.getMessage());
+  }
+
+  @ExceptionHandler(IdempotencyKeyReusedException.class)
+  @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+  public ErrorResponse handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+    LOG.warn("Idempotency key reused: {}", ex.getMessage());
+    return new ErrorResponse(ex.getMessage());
+  }
+
   @ExceptionHandler(ConstraintViolationException.class)
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   public ErrorResponse handleConstraintViolationErrors(ConstraintViolationException ex) {
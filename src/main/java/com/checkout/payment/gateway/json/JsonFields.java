@@ -0,0 +1,93 @@
+package com.checkout.payment.gateway.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Field readers and writers shared by the payment (de)serializers. Common tokens are handled
+ * inline; anything else is passed to Jackson's own scalar deserializers so coercion rules and
+ * error messages stay the same as for bean properties.
+ */
+final class JsonFields {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private JsonFields() {
+  }
+
+  static String readString(JsonParser parser, DeserializationContext context) throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_STRING) {
+      return parser.getText();
+    }
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    return context.readValue(parser, String.class);
+  }
+
+  static int readInt(JsonParser parser, DeserializationContext context) throws IOException {
+    if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+      return parser.getIntValue();
+    }
+    return context.readValue(parser, Integer.TYPE);
+  }
+
+  // Writes month/year as "%d/%d" would, without formatting a string.
+  static void writeExpiryDate(JsonGenerator generator, int month, int year) throws IOException {
+    char[] buffer = new char[23];
+    int length = putInt(buffer, 0, month);
+    buffer[length++] = '/';
+    length = putInt(buffer, length, year);
+    generator.writeString(buffer, 0, length);
+  }
+
+  static void writeUuid(JsonGenerator generator, UUID uuid) throws IOException {
+    if (uuid == null) {
+      generator.writeNull();
+      return;
+    }
+    char[] buffer = new char[36];
+    long msb = uuid.getMostSignificantBits();
+    long lsb = uuid.getLeastSignificantBits();
+    putHex(buffer, 0, msb >>> 32, 8);
+    buffer[8] = '-';
+    putHex(buffer, 9, msb >>> 16, 4);
+    buffer[13] = '-';
+    putHex(buffer, 14, msb, 4);
+    buffer[18] = '-';
+    putHex(buffer, 19, lsb >>> 48, 4);
+    buffer[23] = '-';
+    putHex(buffer, 24, lsb, 12);
+    generator.writeString(buffer, 0, 36);
+  }
+
+  private static int putInt(char[] buffer, int position, int value) {
+    long remaining = value;
+    if (remaining < 0) {
+      buffer[position++] = '-';
+      remaining = -remaining;
+    }
+    int digits = 1;
+    for (long bound = 10; bound <= remaining; bound *= 10) {
+      digits++;
+    }
+    int end = position + digits;
+    for (int i = end - 1; i >= position; i--) {
+      buffer[i] = (char) ('0' + remaining % 10);
+      remaining /= 10;
+    }
+    return end;
+  }
+
+  private static void putHex(char[] buffer, int position, long value, int digits) {
+    for (int i = position + digits - 1; i >= position; i--) {
+      buffer[i] = HEX[(int) value & 0xF];
+      value >>>= 4;
+    }
+  }
+}
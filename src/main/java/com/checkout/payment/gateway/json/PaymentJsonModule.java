@@ -0,0 +1,27 @@
+package com.checkout.payment.gateway.json;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.springframework.stereotype.Component;
+
+/**
+ * Streaming (de)serializers for the models every payment passes through: the incoming request,
+ * the request body sent to the bank, the bank's reply and the payment response. They read and
+ * write fields directly on the parser and generator instead of going through bean introspection,
+ * and produce the same JSON as the annotated models.
+ *
+ * <p>Picked up by Spring Boot's {@code ObjectMapper} like any other {@code Module} bean.
+ */
+@Component
+public class PaymentJsonModule extends SimpleModule {
+
+  public PaymentJsonModule() {
+    super(PaymentJsonModule.class.getSimpleName());
+    addSerializer(PostPaymentRequest.class, new PostPaymentRequestSerializer());
+    addDeserializer(PostPaymentRequest.class, new PostPaymentRequestDeserializer());
+    addSerializer(PostPaymentResponse.class, new PostPaymentResponseSerializer());
+    addDeserializer(PostAuthResponse.class, new PostAuthResponseDeserializer());
+  }
+}
@@ -0,0 +1,38 @@
+package com.checkout.payment.gateway.json;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+
+final class PostAuthResponseDeserializer extends StdDeserializer<PostAuthResponse> {
+
+  PostAuthResponseDeserializer() {
+    super(PostAuthResponse.class);
+  }
+
+  @Override
+  public PostAuthResponse deserialize(JsonParser parser, DeserializationContext context)
+      throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = parser.nextToken();
+    } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+      return (PostAuthResponse) context.handleUnexpectedToken(PostAuthResponse.class, parser);
+    }
+    PostAuthResponse response = new PostAuthResponse();
+    for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+      String name = parser.currentName();
+      parser.nextToken();
+      switch (name) {
+        case "authorized" -> response.setAuthorized(JsonFields.readString(parser, context));
+        case "authorization_code" ->
+            response.setAuthorization_code(JsonFields.readString(parser, context));
+        default -> handleUnknownProperty(parser, context, response, name);
+      }
+    }
+    return response;
+  }
+}
@@ -0,0 +1,41 @@
+package com.checkout.payment.gateway.json;
+
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+
+final class PostPaymentRequestDeserializer extends StdDeserializer<PostPaymentRequest> {
+
+  PostPaymentRequestDeserializer() {
+    super(PostPaymentRequest.class);
+  }
+
+  @Override
+  public PostPaymentRequest deserialize(JsonParser parser, DeserializationContext context)
+      throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = parser.nextToken();
+    } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+      return (PostPaymentRequest) context.handleUnexpectedToken(PostPaymentRequest.class, parser);
+    }
+    PostPaymentRequest request = new PostPaymentRequest();
+    for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+      String name = parser.currentName();
+      parser.nextToken();
+      switch (name) {
+        case "card_number" -> request.setCardNumberLastFour(JsonFields.readString(parser, context));
+        case "expiry_month" -> request.setExpiryMonth(JsonFields.readInt(parser, context));
+        case "expiry_year" -> request.setExpiryYear(JsonFields.readInt(parser, context));
+        case "currency" -> request.setCurrency(JsonFields.readString(parser, context));
+        case "amount" -> request.setAmount(JsonFields.readInt(parser, context));
+        case "cvv" -> request.setCvv(JsonFields.readString(parser, context));
+        default -> handleUnknownProperty(parser, context, request, name);
+      }
+    }
+    return request;
+  }
+}
@@ -0,0 +1,29 @@
+package com.checkout.payment.gateway.json;
+
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+final class PostPaymentRequestSerializer extends StdSerializer<PostPaymentRequest> {
+
+  PostPaymentRequestSerializer() {
+    super(PostPaymentRequest.class);
+  }
+
+  @Override
+  public void serialize(PostPaymentRequest request, JsonGenerator generator,
+      SerializerProvider provider) throws IOException {
+    generator.writeStartObject(request);
+    generator.writeStringField("card_number", request.getCardNumberLastFour());
+    generator.writeNumberField("expiry_month", request.getExpiryMonth());
+    generator.writeNumberField("expiry_year", request.getExpiryYear());
+    generator.writeStringField("currency", request.getCurrency());
+    generator.writeNumberField("amount", request.getAmount());
+    generator.writeStringField("cvv", request.getCvv());
+    generator.writeFieldName("expiry_date");
+    JsonFields.writeExpiryDate(generator, request.getExpiryMonth(), request.getExpiryYear());
+    generator.writeEndObject();
+  }
+}
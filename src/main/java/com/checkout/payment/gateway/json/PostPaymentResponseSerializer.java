@@ -0,0 +1,30 @@
+package com.checkout.payment.gateway.json;
+
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+final class PostPaymentResponseSerializer extends StdSerializer<PostPaymentResponse> {
+
+  PostPaymentResponseSerializer() {
+    super(PostPaymentResponse.class);
+  }
+
+  @Override
+  public void serialize(PostPaymentResponse response, JsonGenerator generator,
+      SerializerProvider provider) throws IOException {
+    generator.writeStartObject(response);
+    generator.writeFieldName("id");
+    JsonFields.writeUuid(generator, response.getId());
+    generator.writeStringField("status",
+        response.getStatus() == null ? null : response.getStatus().getName());
+    generator.writeStringField("cardNumberLastFour", response.getCardNumberLastFour());
+    generator.writeNumberField("expiryMonth", response.getExpiryMonth());
+    generator.writeNumberField("expiryYear", response.getExpiryYear());
+    generator.writeStringField("currency", response.getCurrency());
+    generator.writeNumberField("amount", response.getAmount());
+    generator.writeEndObject();
+  }
+}
@@ -0,0 +1,191 @@
+package com.checkout.payment.gateway.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appender that hands events to a background writer through a {@link RingBuffer}, so encoding
+ * (including masking) and console I/O happen off the logging thread. The writer drains up to
+ * {@code batchSize} events at a time and writes them with a single write and flush.
+ *
+ * <p>When the buffer is full the {@link OverflowPolicy} decides whether the logging thread
+ * waits for space or the event is dropped and counted.
+ */
+public class AsyncBatchingAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+  public enum OverflowPolicy {
+    BLOCK,
+    DROP
+  }
+
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+  private Encoder<ILoggingEvent> encoder;
+  private int capacity = 8192;
+  private int batchSize = 256;
+  private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+  private int maxFlushTime = 1000;
+  private OutputStream outputStream = System.out;
+
+  private final LongAdder droppedEvents = new LongAdder();
+  private RingBuffer<ILoggingEvent> buffer;
+  private Thread writer;
+  private volatile boolean running;
+  private volatile boolean writerParked;
+
+  @Override
+  public void start() {
+    if (isStarted()) {
+      return;
+    }
+    if (encoder == null) {
+      addError("No encoder set for the appender named [" + name + "].");
+      return;
+    }
+    if (batchSize < 1) {
+      addError("batchSize must be positive for the appender named [" + name + "].");
+      return;
+    }
+    buffer = new RingBuffer<>(capacity);
+    running = true;
+    writer = new Thread(this::drain, "log-writer-" + name);
+    writer.setDaemon(true);
+    writer.start();
+    super.start();
+  }
+
+  @Override
+  public void stop() {
+    if (!isStarted()) {
+      return;
+    }
+    super.stop();
+    running = false;
+    LockSupport.unpark(writer);
+    try {
+      writer.join(maxFlushTime);
+      if (writer.isAlive()) {
+        addWarn("Timed out after " + maxFlushTime + " ms flushing the appender named [" + name
+            + "]; remaining events are discarded.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      addError("Interrupted while flushing the appender named [" + name + "].", e);
+    }
+  }
+
+  @Override
+  protected void append(ILoggingEvent event) {
+    // Capture the formatted message, thread name and MDC before the event leaves this thread.
+    event.prepareForDeferredProcessing();
+    while (!buffer.offer(event)) {
+      if (overflowPolicy == OverflowPolicy.DROP || !running) {
+        droppedEvents.increment();
+        return;
+      }
+      LockSupport.parkNanos(this, FULL_PARK_NANOS);
+    }
+    if (writerParked) {
+      LockSupport.unpark(writer);
+    }
+  }
+
+  private void drain() {
+    ILoggingEvent[] batch = new ILoggingEvent[batchSize];
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+    while (true) {
+      int count = 0;
+      ILoggingEvent event;
+      while (count < batch.length && (event = buffer.poll()) != null) {
+        batch[count++] = event;
+      }
+      if (count > 0) {
+        write(batch, count, bytes);
+        continue;
+      }
+      if (!running) {
+        return;
+      }
+      writerParked = true;
+      // A producer that missed the flag is picked up on the next timed wake-up at the latest.
+      if (buffer.isEmpty()) {
+        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+      }
+      writerParked = false;
+    }
+  }
+
+  private void write(ILoggingEvent[] batch, int count, ByteArrayOutputStream bytes) {
+    bytes.reset();
+    for (int i = 0; i < count; i++) {
+      try {
+        bytes.writeBytes(encoder.encode(batch[i]));
+      } catch (RuntimeException e) {
+        addError("Failed to encode event for the appender named [" + name + "].", e);
+      }
+      batch[i] = null;
+    }
+    try {
+      bytes.writeTo(outputStream);
+      outputStream.flush();
+    } catch (IOException e) {
+      addError("Failed to write events for the appender named [" + name + "].", e);
+    }
+  }
+
+  public long getDroppedEvents() {
+    return droppedEvents.sum();
+  }
+
+  public Encoder<ILoggingEvent> getEncoder() {
+    return encoder;
+  }
+
+  public void setEncoder(Encoder<ILoggingEvent> encoder) {
+    this.encoder = encoder;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public void setCapacity(int capacity) {
+    this.capacity = capacity;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  public int getMaxFlushTime() {
+    return maxFlushTime;
+  }
+
+  public void setMaxFlushTime(int maxFlushTime) {
+    this.maxFlushTime = maxFlushTime;
+  }
+
+  void setOutputStream(OutputStream outputStream) {
+    this.outputStream = outputStream;
+  }
+}
@@ -0,0 +1,172 @@
+package com.checkout.payment.gateway.logging;
+
+/**
+ * Masks card numbers and CVVs in log lines in a single pass over the text.
+ *
+ * <p>A card number is a run of 14 to 19 digits on word boundaries, either contiguous or split
+ * into groups of 3 to 6 digits by a single space or dash ({@code 4111 1111 1111 1111}). All but
+ * its last four digits are masked. A CVV is a 3 or 4 digit value following {@code cvv=} or
+ * {@code "cvv":} and is masked entirely. Lines without either are returned as the same instance.
+ */
+public final class CardDataMasker {
+
+  private static final int MIN_PAN_DIGITS = 14;
+  private static final int MAX_PAN_DIGITS = 19;
+  private static final int MIN_GROUP_DIGITS = 3;
+  private static final int MAX_GROUP_DIGITS = 6;
+  private static final int VISIBLE_PAN_DIGITS = 4;
+  private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+  private static final ThreadLocal<StringBuilder> BUFFER =
+      ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+  private CardDataMasker() {
+  }
+
+  public static String mask(String message) {
+    if (message == null) {
+      return null;
+    }
+    StringBuilder out = null;
+    int copied = 0;
+    int length = message.length();
+    int i = 0;
+    while (i < length) {
+      char c = message.charAt(i);
+      int start = i;
+      int end = -1;
+      int visible = 0;
+      if (isDigit(c) && (i == 0 || !isWordChar(message.charAt(i - 1)))) {
+        end = panEnd(message, i);
+        visible = VISIBLE_PAN_DIGITS;
+      } else if ((c == 'c' || c == 'C') && (i == 0 || !isWordChar(message.charAt(i - 1)))) {
+        start = cvvStart(message, i);
+        if (start > 0) {
+          end = digitRunEnd(message, start);
+        }
+      }
+      if (end < 0) {
+        i++;
+        continue;
+      }
+      if (out == null) {
+        out = BUFFER.get();
+        out.setLength(0);
+      }
+      out.append(message, copied, start);
+      maskDigits(out, message, start, end, visible);
+      copied = end;
+      i = end;
+    }
+    if (out == null) {
+      return message;
+    }
+    out.append(message, copied, length);
+    String masked = out.toString();
+    if (out.capacity() > MAX_RETAINED_CAPACITY) {
+      BUFFER.remove();
+    }
+    return masked;
+  }
+
+  // Returns the end of a card number starting at start, or -1 if the digits there are not one.
+  private static int panEnd(String message, int start) {
+    int length = message.length();
+    int end = digitRunEnd(message, start);
+    int digits = end - start;
+    if (end + 1 < length && isSeparator(message.charAt(end)) && isDigit(message.charAt(end + 1))
+        && digits >= MIN_GROUP_DIGITS && digits <= MAX_GROUP_DIGITS) {
+      char separator = message.charAt(end);
+      while (end + 1 < length && message.charAt(end) == separator
+          && isDigit(message.charAt(end + 1))) {
+        int groupEnd = digitRunEnd(message, end + 1);
+        int group = groupEnd - end - 1;
+        if (group < MIN_GROUP_DIGITS || group > MAX_GROUP_DIGITS
+            || digits + group > MAX_PAN_DIGITS) {
+          break;
+        }
+        digits += group;
+        end = groupEnd;
+      }
+    }
+    if (digits < MIN_PAN_DIGITS || digits > MAX_PAN_DIGITS) {
+      return -1;
+    }
+    return end == length || !isWordChar(message.charAt(end)) ? end : -1;
+  }
+
+  // Returns where the CVV digits start if a cvv key and separator begin at start, else -1.
+  private static int cvvStart(String message, int start) {
+    int length = message.length();
+    if (!message.regionMatches(true, start, "cvv", 0, 3)) {
+      return -1;
+    }
+    int i = start + 3;
+    if (i < length && message.charAt(i) == '"') {
+      i++;
+    }
+    i = skipSpaces(message, i);
+    if (i >= length || (message.charAt(i) != '=' && message.charAt(i) != ':')) {
+      return -1;
+    }
+    i = skipSpaces(message, i + 1);
+    if (i < length && message.charAt(i) == '"') {
+      i++;
+    }
+    int end = digitRunEnd(message, i);
+    int digits = end - i;
+    if (digits < 3 || digits > 4 || (end < length && isWordChar(message.charAt(end)))) {
+      return -1;
+    }
+    return i;
+  }
+
+  private static void maskDigits(StringBuilder out, String message, int start, int end,
+      int visible) {
+    int masked = 0;
+    for (int i = start; i < end; i++) {
+      if (isDigit(message.charAt(i))) {
+        masked++;
+      }
+    }
+    masked -= visible;
+    for (int i = start; i < end; i++) {
+      char c = message.charAt(i);
+      if (masked > 0 && isDigit(c)) {
+        out.append('*');
+        masked--;
+      } else {
+        out.append(c);
+      }
+    }
+  }
+
+  private static int digitRunEnd(String message, int start) {
+    int i = start;
+    while (i < message.length() && isDigit(message.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static int skipSpaces(String message, int start) {
+    int i = start;
+    while (i < message.length() && message.charAt(i) == ' ') {
+      i++;
+    }
+    return i;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isSeparator(char c) {
+    return c == ' ' || c == '-';
+  }
+
+  // Same character class as \w, so boundaries match the \b the old mask patterns relied on.
+  private static boolean isWordChar(char c) {
+    return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+  }
+}
@@ -0,0 +1,36 @@
+package com.checkout.payment.gateway.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Iterator;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exposes the dropped-event count of every {@link AsyncBatchingAppender} on the root logger.
+ */
+public class LoggingMetrics implements MeterBinder {
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+    if (!(loggerFactory instanceof LoggerContext context)) {
+      return;
+    }
+    Iterator<Appender<ILoggingEvent>> appenders =
+        context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+    while (appenders.hasNext()) {
+      if (appenders.next() instanceof AsyncBatchingAppender appender) {
+        FunctionCounter.builder("logging.events.dropped", appender,
+                AsyncBatchingAppender::getDroppedEvents)
+            .tag("appender", appender.getName())
+            .register(registry);
+      }
+    }
+  }
+}
@@ -6,8 +6,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.IntStream;
 
+/**
+ * Pattern layout that masks card numbers and CVVs with {@link CardDataMasker}. Additional
+ * {@code maskPattern}s can still be configured; characters in their capturing groups are masked.
+ */
 public class MaskingPatternLayout extends PatternLayout {
 
   private Pattern multilinePattern;
@@ -20,22 +23,27 @@ public class MaskingPatternLayout extends PatternLayout {
 
   @Override
   public String doLayout(ILoggingEvent event) {
-    return maskMessage(super.doLayout(event));
+    return maskMessage(CardDataMasker.mask(super.doLayout(event)));
   }
 
   private String maskMessage(String message) {
     if (multilinePattern == null) {
       return message;
     }
-    StringBuilder sb = new StringBuilder(message);
-    Matcher matcher = multilinePattern.matcher(sb);
-    while (matcher.find()) {
-      IntStream.rangeClosed(1, matcher.groupCount()).forEach(group -> {
-        if (matcher.group(group) != null) {
-          IntStream.range(matcher.start(group), matcher.end(group)).forEach(i -> sb.setCharAt(i, '*'));
-        }
-      });
+    Matcher matcher = multilinePattern.matcher(message);
+    if (!matcher.find()) {
+      return message;
     }
-    return sb.toString();
+    char[] chars = message.toCharArray();
+    do {
+      for (int group = 1; group <= matcher.groupCount(); group++) {
+        if (matcher.start(group) >= 0) {
+          for (int i = matcher.start(group); i < matcher.end(group); i++) {
+            chars[i] = '*';
+          }
+        }
+      }
+    } while (matcher.find());
+    return new String(chars);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package com.checkout.payment.gateway.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ *
+ * <p>Each slot carries a sequence number: a producer may claim slot {@code t & mask} only when
+ * its sequence equals {@code t}, and publishes by setting it to {@code t + 1}; the consumer frees
+ * the slot by advancing it a full lap. Producers contend on one CAS and never wait on each other.
+ */
+final class RingBuffer<E> {
+
+  private final AtomicReferenceArray<E> elements;
+  private final AtomicLongArray sequences;
+  private final int mask;
+  private final AtomicLong tail = new AtomicLong();
+  // Only touched by the consumer thread.
+  private long head;
+
+  RingBuffer(int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Capacity out of range: " + capacity);
+    }
+    int size = Integer.highestOneBit(capacity * 2 - 1);
+    this.elements = new AtomicReferenceArray<>(size);
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+    this.mask = size - 1;
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+
+  boolean offer(E element) {
+    while (true) {
+      long position = tail.get();
+      int slot = (int) position & mask;
+      long difference = sequences.getAcquire(slot) - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          elements.setPlain(slot, element);
+          sequences.setRelease(slot, position + 1);
+          return true;
+        }
+      } else if (difference < 0) {
+        return false;
+      }
+    }
+  }
+
+  E poll() {
+    int slot = (int) head & mask;
+    if (sequences.getAcquire(slot) != head + 1) {
+      return null;
+    }
+    E element = elements.getPlain(slot);
+    elements.setPlain(slot, null);
+    sequences.setRelease(slot, head + mask + 1);
+    head++;
+    return element;
+  }
+
+  boolean isEmpty() {
+    return sequences.getAcquire((int) head & mask) != head + 1;
+  }
+}
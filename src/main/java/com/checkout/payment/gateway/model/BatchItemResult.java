@@ -0,0 +1,52 @@
+package com.checkout.payment.gateway.model;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class BatchItemResult {
+  private final int index;
+  private final PaymentStatus status;
+  private final UUID id;
+  private final List<String> errors;
+
+  public BatchItemResult(int index, PaymentStatus status, UUID id, List<String> errors) {
+    this.index = index;
+    this.status = status;
+    this.id = id;
+    this.errors = errors;
+  }
+
+  public static BatchItemResult rejected(int index, List<String> errors) {
+    return new BatchItemResult(index, PaymentStatus.REJECTED, null, errors);
+  }
+
+  @JsonInclude(JsonInclude.Include.ALWAYS)
+  public int getIndex() {
+    return index;
+  }
+
+  public PaymentStatus getStatus() {
+    return status;
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public List<String> getErrors() {
+    return errors;
+  }
+
+  @Override
+  public String toString() {
+    return "BatchItemResult{" +
+        "index=" + index +
+        ", status=" + status +
+        ", id=" + id +
+        ", errors=" + errors +
+        '}';
+  }
+}
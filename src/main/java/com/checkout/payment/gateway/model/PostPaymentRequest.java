@@ -1,18 +1,18 @@
 package com.checkout.payment.gateway.model;
 
+import com.checkout.payment.gateway.validation.CardNumber;
+import com.checkout.payment.gateway.validation.Cvv;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import java.io.Serializable;
 
 public class PostPaymentRequest implements Serializable {
 
   @JsonProperty("card_number")
-  @Size(min = 14, max = 19, message = "Card number must be between 14 and 19 digits")
-  @Pattern(regexp = "\\d+", message = "Card number must contain only digits")
+  @CardNumber
   @NotNull(message = "Card number is required")
   private String cardNumberLastFour;
 
@@ -32,8 +32,7 @@ public class PostPaymentRequest implements Serializable {
   @Min(value = 1, message = "Amount must be greater than 0")
   private int amount;
 
-  @Size(min = 3, max = 4, message = "CVV must be 3 or 4 digits")
-  @Pattern(regexp = "\\d+", message = "CVV must contain only digits")
+  @Cvv
   @NotNull(message = "CVV is required")
   private String cvv;
 
@@ -87,7 +86,7 @@ public class PostPaymentRequest implements Serializable {
 
   @JsonProperty("expiry_date")
   public String getExpiryDate() {
-    return String.format("%d/%d", expiryMonth, expiryYear);
+    return expiryMonth + "/" + expiryYear;
   }
 
   @Override
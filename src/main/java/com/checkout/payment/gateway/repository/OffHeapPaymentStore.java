@@ -0,0 +1,298 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Payment store that keeps every payment in a fixed-width record outside the Java heap.
+ *
+ * <p>Like {@link StripedPaymentStore}, entries are spread over lock-striped segments with
+ * optimistic reads and evicted oldest-first. Each segment reserves direct buffers for its records
+ * and for a linear-probing index when it is created, so the store's footprint is fixed at startup
+ * and the heap holds only a few objects per segment however many payments are stored. A
+ * {@link PostPaymentResponse} is only created when a payment is read.
+ */
+public class OffHeapPaymentStore implements PaymentStore {
+
+  static final int RECORD_SIZE = 40;
+  private static final int HI = 0;
+  private static final int LO = 8;
+  private static final int AMOUNT = 16;
+  private static final int CURRENCY = 20;
+  private static final int LAST_FOUR = 24;
+  private static final int EXPIRY = 28;
+  private static final int STATUS = 32;
+  private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+  private final Segment[] segments;
+  private final int segmentMask;
+  private final int capacity;
+
+  public OffHeapPaymentStore(int capacity, int concurrency) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(concurrency, capacity)) * 2 - 1);
+    int segmentCapacity = (capacity + segmentCount - 1) / segmentCount;
+    this.segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(segmentCapacity);
+    }
+    this.segmentMask = segmentCount - 1;
+    this.capacity = segmentCapacity * segmentCount;
+  }
+
+  @Override
+  public boolean put(PostPaymentResponse payment) {
+    UUID id = payment.getId();
+    long hi = id.getMostSignificantBits();
+    long lo = id.getLeastSignificantBits();
+    long hash = StripedPaymentStore.hash(hi, lo);
+    return segmentFor(hash).put(hi, lo, (int) hash, payment);
+  }
+
+  @Override
+  public PostPaymentResponse get(UUID id) {
+    long hi = id.getMostSignificantBits();
+    long lo = id.getLeastSignificantBits();
+    long hash = StripedPaymentStore.hash(hi, lo);
+    return segmentFor(hash).get(hi, lo, (int) hash);
+  }
+
+  @Override
+  public boolean contains(UUID id) {
+    long hi = id.getMostSignificantBits();
+    long lo = id.getLeastSignificantBits();
+    long hash = StripedPaymentStore.hash(hi, lo);
+    return segmentFor(hash).contains(hi, lo, (int) hash);
+  }
+
+  @Override
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  /** Bytes of direct memory reserved for records and index slots. */
+  public long reservedBytes() {
+    long bytes = 0;
+    for (Segment segment : segments) {
+      bytes += segment.records.capacity() + segment.index.capacity();
+    }
+    return bytes;
+  }
+
+  private Segment segmentFor(long hash) {
+    return segments[(int) (hash >>> 32) & segmentMask];
+  }
+
+  private static final class Segment {
+
+    private final StampedLock lock = new StampedLock();
+    private final ByteBuffer records;
+    // Record position + 1 per slot, 0 when empty.
+    private final ByteBuffer index;
+    private final int maxEntries;
+    private final int indexMask;
+    // Once the segment is full, head is the oldest entry and the next one to be evicted.
+    private int head;
+    private int count;
+
+    Segment(int maxEntries) {
+      int slots = Integer.highestOneBit(maxEntries * 2 - 1) * 2;
+      this.records = ByteBuffer.allocateDirect(Math.multiplyExact(maxEntries, RECORD_SIZE))
+          .order(ByteOrder.nativeOrder());
+      this.index = ByteBuffer.allocateDirect(Math.multiplyExact(slots, Integer.BYTES))
+          .order(ByteOrder.nativeOrder());
+      this.maxEntries = maxEntries;
+      this.indexMask = slots - 1;
+    }
+
+    PostPaymentResponse get(long hi, long lo, int hash) {
+      long stamp = lock.tryOptimisticRead();
+      if (stamp != 0) {
+        int position = find(hi, lo, hash);
+        if (position < 0) {
+          if (lock.validate(stamp)) {
+            return null;
+          }
+        } else {
+          int offset = position * RECORD_SIZE;
+          int amount = records.getInt(offset + AMOUNT);
+          int currency = records.getInt(offset + CURRENCY);
+          int lastFour = records.getInt(offset + LAST_FOUR);
+          int expiry = records.getInt(offset + EXPIRY);
+          byte status = records.get(offset + STATUS);
+          if (lock.validate(stamp)) {
+            return materialize(hi, lo, amount, currency, lastFour, expiry, status);
+          }
+        }
+      }
+      stamp = lock.readLock();
+      try {
+        int position = find(hi, lo, hash);
+        if (position < 0) {
+          return null;
+        }
+        int offset = position * RECORD_SIZE;
+        return materialize(hi, lo, records.getInt(offset + AMOUNT),
+            records.getInt(offset + CURRENCY), records.getInt(offset + LAST_FOUR),
+            records.getInt(offset + EXPIRY), records.get(offset + STATUS));
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    boolean contains(long hi, long lo, int hash) {
+      long stamp = lock.tryOptimisticRead();
+      if (stamp != 0) {
+        boolean found = find(hi, lo, hash) >= 0;
+        if (lock.validate(stamp)) {
+          return found;
+        }
+      }
+      stamp = lock.readLock();
+      try {
+        return find(hi, lo, hash) >= 0;
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    boolean put(long hi, long lo, int hash, PostPaymentResponse payment) {
+      int currency = StripedPaymentStore.packAscii(payment.getCurrency(), 3);
+      int lastFour = StripedPaymentStore.packAscii(payment.getCardNumberLastFour(), 4);
+      int expiry = payment.getExpiryYear() << 8 | (payment.getExpiryMonth() & 0xFF);
+      byte status = payment.getStatus() == null ? -1 : (byte) payment.getStatus().ordinal();
+
+      long stamp = lock.writeLock();
+      try {
+        int position = find(hi, lo, hash);
+        boolean inserted = position < 0;
+        if (inserted) {
+          position = claimPosition();
+          records.putLong(position * RECORD_SIZE + HI, hi);
+          records.putLong(position * RECORD_SIZE + LO, lo);
+          insertIntoIndex(position, hash);
+        }
+        int offset = position * RECORD_SIZE;
+        records.putInt(offset + AMOUNT, payment.getAmount());
+        records.putInt(offset + CURRENCY, currency);
+        records.putInt(offset + LAST_FOUR, lastFour);
+        records.putInt(offset + EXPIRY, expiry);
+        records.put(offset + STATUS, status);
+        return inserted;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    int size() {
+      long stamp = lock.tryOptimisticRead();
+      int size = count;
+      if (!lock.validate(stamp)) {
+        stamp = lock.readLock();
+        try {
+          size = count;
+        } finally {
+          lock.unlockRead(stamp);
+        }
+      }
+      return size;
+    }
+
+    private int claimPosition() {
+      if (count < maxEntries) {
+        return count++;
+      }
+      int evicted = head;
+      removeFromIndex(evicted);
+      head = (head + 1) % maxEntries;
+      return evicted;
+    }
+
+    // Safe against torn state during optimistic reads: probing is capped at the index size and
+    // every index entry points inside the record buffer.
+    private int find(long hi, long lo, int hash) {
+      int slot = hash & indexMask;
+      for (int probes = 0; probes <= indexMask; probes++) {
+        int entry = slotAt(slot);
+        if (entry == 0) {
+          return -1;
+        }
+        int position = entry - 1;
+        if (records.getLong(position * RECORD_SIZE + HI) == hi
+            && records.getLong(position * RECORD_SIZE + LO) == lo) {
+          return position;
+        }
+        slot = (slot + 1) & indexMask;
+      }
+      return -1;
+    }
+
+    private void insertIntoIndex(int position, int hash) {
+      int slot = hash & indexMask;
+      while (slotAt(slot) != 0) {
+        slot = (slot + 1) & indexMask;
+      }
+      setSlot(slot, position + 1);
+    }
+
+    // Backward-shift deletion keeps probe sequences intact without tombstones.
+    private void removeFromIndex(int position) {
+      int hole = idealSlot(position);
+      while (slotAt(hole) != position + 1) {
+        hole = (hole + 1) & indexMask;
+      }
+      int next = (hole + 1) & indexMask;
+      while (slotAt(next) != 0) {
+        int ideal = idealSlot(slotAt(next) - 1);
+        if (((next - ideal) & indexMask) >= ((next - hole) & indexMask)) {
+          setSlot(hole, slotAt(next));
+          hole = next;
+        }
+        next = (next + 1) & indexMask;
+      }
+      setSlot(hole, 0);
+    }
+
+    private int idealSlot(int position) {
+      int offset = position * RECORD_SIZE;
+      return (int) StripedPaymentStore.hash(records.getLong(offset + HI),
+          records.getLong(offset + LO)) & indexMask;
+    }
+
+    private int slotAt(int slot) {
+      return index.getInt(slot * Integer.BYTES);
+    }
+
+    private void setSlot(int slot, int entry) {
+      index.putInt(slot * Integer.BYTES, entry);
+    }
+
+    private static PostPaymentResponse materialize(long hi, long lo, int amount, int currency,
+        int lastFour, int expiry, byte status) {
+      PostPaymentResponse payment = new PostPaymentResponse();
+      payment.setId(new UUID(hi, lo));
+      payment.setAmount(amount);
+      payment.setCurrency(StripedPaymentStore.unpackAscii(currency));
+      payment.setCardNumberLastFour(StripedPaymentStore.unpackAscii(lastFour));
+      payment.setExpiryYear(expiry >> 8);
+      payment.setExpiryMonth(expiry & 0xFF);
+      payment.setStatus(status < 0 ? null : STATUSES[status]);
+      return payment;
+    }
+  }
+}
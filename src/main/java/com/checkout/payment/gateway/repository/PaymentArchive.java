@@ -0,0 +1,291 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+
+/**
+ * Write-behind copy of every stored payment in an embedded H2 database.
+ *
+ * <p>{@link #offer} only adds the payment to a bounded queue, and refuses it when the queue is
+ * full. A single writer thread drains the queue every flush interval, or as soon as a batch is
+ * full, and upserts each batch with one JDBC batch in one transaction. When the database cannot
+ * be reached the batch is retried on the next pass, so an outage delays writes until the queue
+ * fills. Any other failure halves the batch until the rows that cannot be written are isolated,
+ * and those are logged and dropped.
+ *
+ * <p>Reads go to the database and are meant for payments the in-memory store has already
+ * evicted. A Bloom filter of the archived IDs answers lookups of unknown IDs without a query.
+ */
+public class PaymentArchive implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PaymentArchive.class);
+
+  private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+  private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS payments ("
+      + "id UUID PRIMARY KEY, status TINYINT, amount INT, currency CHAR(3), "
+      + "card_number_last_four CHAR(4), expiry_month TINYINT, expiry_year INT)";
+  private static final String UPSERT = "MERGE INTO payments (id, status, amount, currency, "
+      + "card_number_last_four, expiry_month, expiry_year) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+  private static final String SELECT = "SELECT status, amount, currency, card_number_last_four, "
+      + "expiry_month, expiry_year FROM payments WHERE id = ?";
+  private static final String SELECT_IDS = "SELECT id FROM payments";
+
+  private final JdbcConnectionPool pool;
+  private final int capacity;
+  private final int batchSize;
+  private final long flushIntervalNanos;
+  private final ArchivedIdFilter archivedIds;
+  private final ConcurrentLinkedQueue<PostPaymentResponse> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final AtomicLong rejected = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final Thread writer;
+  private volatile boolean running = true;
+
+  /**
+   * Takes ownership of {@code pool}, which {@link #close} disposes. Up to {@code capacity}
+   * payments wait to be written, and {@code expectedPayments} sizes the filter of archived IDs.
+   */
+  public PaymentArchive(JdbcConnectionPool pool, int capacity, int batchSize,
+      Duration flushInterval, long expectedPayments) throws SQLException {
+    if (batchSize < 1 || capacity < batchSize) {
+      throw new IllegalArgumentException(
+          "Need 1 <= batch size <= capacity, got " + batchSize + " and " + capacity);
+    }
+    if (flushInterval.isNegative() || flushInterval.isZero()) {
+      throw new IllegalArgumentException("Flush interval must be positive: " + flushInterval);
+    }
+    this.pool = pool;
+    this.capacity = capacity;
+    this.batchSize = batchSize;
+    this.flushIntervalNanos = flushInterval.toNanos();
+    this.archivedIds = new ArchivedIdFilter(expectedPayments);
+    try {
+      initialize();
+    } catch (SQLException | RuntimeException e) {
+      pool.dispose();
+      throw e;
+    }
+    this.writer = new Thread(this::runWriter, "payment-archive-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Queues the payment to be archived. Returns false, without blocking, when the archive is
+   * closed or its queue is full.
+   */
+  public boolean offer(PostPaymentResponse payment) {
+    if (!running) {
+      return reject(payment, "the archive is closed");
+    }
+    int position = queued.incrementAndGet();
+    if (position > capacity) {
+      queued.decrementAndGet();
+      return reject(payment, "the queue is full");
+    }
+    archivedIds.add(payment.getId());
+    queue.add(payment);
+    if (position == batchSize) {
+      LockSupport.unpark(writer);
+    }
+    return true;
+  }
+
+  @Nullable
+  public PostPaymentResponse find(UUID id) {
+    if (!archivedIds.mightContain(id)) {
+      return null;
+    }
+    try (Connection connection = pool.getConnection();
+        PreparedStatement select = connection.prepareStatement(SELECT)) {
+      select.setObject(1, id);
+      try (ResultSet row = select.executeQuery()) {
+        return row.next() ? materialize(id, row) : null;
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to read archived payment " + id, e);
+    }
+  }
+
+  /** Number of payments waiting to be written. */
+  public int pending() {
+    return queued.get();
+  }
+
+  /** Payments refused because the queue was full or the archive closed. */
+  public long getRejectedPayments() {
+    return rejected.get();
+  }
+
+  /** Payments dropped because writing them kept failing. */
+  public long getDroppedPayments() {
+    return dropped.get();
+  }
+
+  @Override
+  public void close() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    LockSupport.unpark(writer);
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      pool.dispose();
+    }
+  }
+
+  private void initialize() throws SQLException {
+    long start = System.nanoTime();
+    int ids = 0;
+    try (Connection connection = pool.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute(CREATE_TABLE);
+      try (ResultSet rows = statement.executeQuery(SELECT_IDS)) {
+        while (rows.next()) {
+          archivedIds.add(rows.getObject(1, UUID.class));
+          ids++;
+        }
+      }
+    }
+    LOG.info("Loaded {} archived payment IDs in {} ms", ids,
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  private boolean reject(PostPaymentResponse payment, String reason) {
+    long count = rejected.incrementAndGet();
+    // Logs the 1st, 2nd, 4th, 8th... rejection, so a long stall cannot flood the log.
+    if (Long.bitCount(count) == 1) {
+      LOG.error("Payment {} not archived because {}; {} payments refused so far",
+          payment.getId(), reason, count);
+    }
+    return false;
+  }
+
+  private void runWriter() {
+    List<PostPaymentResponse> batch = new ArrayList<>(batchSize);
+    while (running || !batch.isEmpty() || !queue.isEmpty()) {
+      if (batch.isEmpty() && queued.get() < batchSize && running) {
+        LockSupport.parkNanos(this, flushIntervalNanos);
+      }
+      if (batch.isEmpty()) {
+        PostPaymentResponse payment;
+        while (batch.size() < batchSize && (payment = queue.poll()) != null) {
+          batch.add(payment);
+        }
+      }
+      if (batch.isEmpty()) {
+        continue;
+      }
+      try (Connection connection = pool.getConnection()) {
+        writeSplitting(connection, batch);
+        queued.addAndGet(-batch.size());
+        batch.clear();
+      } catch (SQLException | RuntimeException e) {
+        LOG.error("Failed to archive {} payments, will retry: {}", batch.size(), e.getMessage());
+        if (!running) {
+          LOG.error("Payment archive closed with {} payments unwritten", queued.get());
+          return;
+        }
+        LockSupport.parkNanos(this, flushIntervalNanos);
+      }
+    }
+  }
+
+  /**
+   * Writes the batch, halving it on failure until every row that cannot be written is on its
+   * own and dropped. Connection failures are rethrown instead, for the whole batch to be retried.
+   */
+  private void writeSplitting(Connection connection, List<PostPaymentResponse> batch)
+      throws SQLException {
+    try {
+      write(connection, batch);
+    } catch (SQLException | RuntimeException e) {
+      if (isConnectionFailure(e)) {
+        throw e;
+      }
+      if (batch.size() == 1) {
+        dropped.incrementAndGet();
+        LOG.error("Dropping payment {} that cannot be archived", batch.get(0).getId(), e);
+        return;
+      }
+      int half = batch.size() / 2;
+      writeSplitting(connection, batch.subList(0, half));
+      writeSplitting(connection, batch.subList(half, batch.size()));
+    }
+  }
+
+  private void write(Connection connection, List<PostPaymentResponse> batch)
+      throws SQLException {
+    connection.setAutoCommit(false);
+    try (PreparedStatement upsert = connection.prepareStatement(UPSERT)) {
+      for (PostPaymentResponse payment : batch) {
+        upsert.setObject(1, payment.getId());
+        upsert.setByte(2, payment.getStatus() == null ? -1
+            : (byte) payment.getStatus().ordinal());
+        upsert.setInt(3, payment.getAmount());
+        upsert.setString(4, payment.getCurrency());
+        upsert.setString(5, payment.getCardNumberLastFour());
+        upsert.setInt(6, payment.getExpiryMonth());
+        upsert.setInt(7, payment.getExpiryYear());
+        upsert.addBatch();
+      }
+      upsert.executeBatch();
+      connection.commit();
+    } catch (SQLException | RuntimeException e) {
+      try {
+        connection.rollback();
+      } catch (SQLException rollbackFailure) {
+        e.addSuppressed(rollbackFailure);
+      }
+      throw e;
+    }
+  }
+
+  // Transient errors and SQL state class 08 mean the database, not the rows, is the problem.
+  private static boolean isConnectionFailure(Exception e) {
+    if (!(e instanceof SQLException sqlException)) {
+      return false;
+    }
+    String state = sqlException.getSQLState();
+    return e instanceof SQLTransientException
+        || e instanceof SQLNonTransientConnectionException
+        || state != null && state.startsWith("08");
+  }
+
+  private static PostPaymentResponse materialize(UUID id, ResultSet row) throws SQLException {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(id);
+    byte status = row.getByte(1);
+    payment.setStatus(status < 0 ? null : STATUSES[status]);
+    payment.setAmount(row.getInt(2));
+    payment.setCurrency(row.getString(3));
+    payment.setCardNumberLastFour(row.getString(4));
+    payment.setExpiryMonth(row.getInt(5));
+    payment.setExpiryYear(row.getInt(6));
+    return payment;
+  }
+}
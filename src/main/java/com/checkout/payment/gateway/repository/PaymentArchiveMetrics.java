@@ -0,0 +1,27 @@
+package com.checkout.payment.gateway.repository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+public class PaymentArchiveMetrics implements MeterBinder {
+
+  private final PaymentArchive archive;
+
+  public PaymentArchiveMetrics(PaymentArchive archive) {
+    this.archive = archive;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("payments.archive.queue.depth", archive, PaymentArchive::pending)
+        .register(registry);
+    FunctionCounter.builder("payments.archive.rejected", archive,
+            PaymentArchive::getRejectedPayments)
+        .register(registry);
+    FunctionCounter.builder("payments.archive.dropped", archive,
+            PaymentArchive::getDroppedPayments)
+        .register(registry);
+  }
+}
@@ -0,0 +1,106 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Insertion-ordered index of payment IDs with the fields listings filter on.
+ *
+ * <p>Every payment gets the next sequence number and a slot in a ring of primitive columns, so
+ * a page starts at its cursor in constant time and {@code since} is a binary search over the
+ * creation times. The ring holds at least as many entries as the store, so it only forgets
+ * payments the store has already evicted. A page scans at most {@link #SCAN_LIMIT} entries, so
+ * a selective filter can return a short page with a cursor to continue from.
+ */
+class PaymentIndex {
+
+  static final int SCAN_LIMIT = 10_000;
+
+  private final StampedLock lock = new StampedLock();
+  private final long[] his;
+  private final long[] los;
+  private final long[] times;
+  private final int[] currencies;
+  private final byte[] statuses;
+  private final int mask;
+  // Guarded by lock.
+  private long next;
+  private long lastTime;
+
+  PaymentIndex(int capacity) {
+    int size = Integer.highestOneBit(Math.max(1, capacity) * 2 - 1);
+    this.his = new long[size];
+    this.los = new long[size];
+    this.times = new long[size];
+    this.currencies = new int[size];
+    this.statuses = new byte[size];
+    this.mask = size - 1;
+  }
+
+  void add(PostPaymentResponse payment, long timeMillis) {
+    UUID id = payment.getId();
+    int currency = StripedPaymentStore.packAscii(payment.getCurrency(), 3);
+    byte status = payment.getStatus() == null ? -1 : (byte) payment.getStatus().ordinal();
+    long stamp = lock.writeLock();
+    try {
+      int slot = (int) (next & mask);
+      his[slot] = id.getMostSignificantBits();
+      los[slot] = id.getLeastSignificantBits();
+      // Kept non-decreasing so since can be binary searched even if the clock steps back.
+      lastTime = Math.max(lastTime, timeMillis);
+      times[slot] = lastTime;
+      currencies[slot] = currency;
+      statuses[slot] = status;
+      next++;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  PaymentPage page(PaymentQuery query) {
+    int currency =
+        query.currency() == null ? 0 : StripedPaymentStore.packAscii(query.currency(), 3);
+    int status = query.status() == null ? -1 : query.status().ordinal();
+    List<UUID> ids = new ArrayList<>(Math.min(query.limit(), 256));
+    long stamp = lock.readLock();
+    try {
+      long oldest = Math.max(0, next - his.length);
+      long position;
+      if (query.cursor() != null) {
+        position = Math.max(query.cursor(), oldest);
+      } else if (query.since() != null) {
+        position = firstAtOrAfter(query.since().toEpochMilli(), oldest);
+      } else {
+        position = oldest;
+      }
+      long end = Math.min(next, position + SCAN_LIMIT);
+      for (; position < end && ids.size() < query.limit(); position++) {
+        int slot = (int) (position & mask);
+        if ((currency == 0 || currencies[slot] == currency)
+            && (status < 0 || statuses[slot] == status)) {
+          ids.add(new UUID(his[slot], los[slot]));
+        }
+      }
+      return new PaymentPage(ids, position < next ? position : null);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  private long firstAtOrAfter(long timeMillis, long oldest) {
+    long low = oldest;
+    long high = next;
+    while (low < high) {
+      long middle = (low + high) >>> 1;
+      if (times[(int) (middle & mask)] < timeMillis) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+}
@@ -0,0 +1,359 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only payment journal in memory-mapped, fixed-size segment files.
+ *
+ * <p>Each segment starts with a magic number and a format version. Each payment is a 48-byte
+ * record, holding the payment and the time it was created, guarded by a CRC32C, so a torn write
+ * at the tail is detected on replay and overwritten by the next append. Segments written before
+ * the header existed hold 40-byte records without a creation time; they are still replayed, with
+ * the file's modification time as the creation time, but never appended to. A segment with an
+ * unknown format version stops the journal from opening instead of being overwritten.
+ *
+ * <p>Appends only copy the record into the mapped segment; a background thread forces
+ * written ranges to disk every flush interval, so one fsync covers every payment appended since
+ * the previous one. Segments older than needed to rebuild {@code retainedRecords} payments are
+ * deleted.
+ */
+public class PaymentJournal implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PaymentJournal.class);
+
+  static final int RECORD_SIZE = 48;
+  static final int HEADER_SIZE = 8;
+  static final int MAGIC = 0x504A4E4C;
+  static final int VERSION = 2;
+  static final int LEGACY_VERSION = 1;
+  static final int LEGACY_RECORD_SIZE = 40;
+  private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+  private static final String SEGMENT_SUFFIX = ".journal";
+
+  private final Path directory;
+  private final int segmentSize;
+  private final int maxSegments;
+  private final long flushIntervalNanos;
+  private final ReentrantLock lock = new ReentrantLock();
+  // Guarded by lock.
+  private final Deque<Segment> unforced = new ArrayDeque<>();
+  private final Deque<Path> segmentFiles = new ArrayDeque<>();
+  private Segment current;
+  private long nextSegmentId;
+  private boolean closed;
+
+  private final Thread flusher;
+  private volatile boolean running = true;
+
+  public PaymentJournal(Path directory, int segmentSize, Duration flushInterval,
+      int retainedRecords) throws IOException {
+    if (segmentSize < HEADER_SIZE + RECORD_SIZE) {
+      throw new IllegalArgumentException(
+          "Segment size must be at least " + (HEADER_SIZE + RECORD_SIZE));
+    }
+    if (flushInterval.isNegative() || flushInterval.isZero()) {
+      throw new IllegalArgumentException("Flush interval must be positive: " + flushInterval);
+    }
+    this.directory = directory;
+    int recordsPerSegment = (segmentSize - HEADER_SIZE) / RECORD_SIZE;
+    this.segmentSize = HEADER_SIZE + recordsPerSegment * RECORD_SIZE;
+    this.maxSegments =
+        Math.max(2, (retainedRecords + recordsPerSegment - 1) / recordsPerSegment + 1);
+    this.flushIntervalNanos = flushInterval.toNanos();
+
+    Files.createDirectories(directory);
+    int lastVersion = VERSION;
+    for (Path path : listSegments()) {
+      lastVersion = formatVersion(path);
+      segmentFiles.add(path);
+    }
+    if (!segmentFiles.isEmpty()) {
+      nextSegmentId = segmentId(segmentFiles.getLast()) + 1;
+    }
+    current = segmentFiles.isEmpty() || lastVersion != VERSION
+        ? createSegment() : Segment.open(segmentFiles.getLast());
+
+    flusher = new Thread(this::runFlusher, "payment-journal-flusher");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  public void append(PostPaymentResponse payment, long createdAtMillis) {
+    byte[] record = encode(payment, createdAtMillis);
+    lock.lock();
+    try {
+      if (closed) {
+        throw new IllegalStateException("Payment journal is closed");
+      }
+      if (current.position + RECORD_SIZE > current.capacity()) {
+        unforced.add(current);
+        current = createSegment();
+      }
+      current.buffer.put(current.position, record);
+      current.position += RECORD_SIZE;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to roll payment journal segment", e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Passes every journaled payment and its creation time to {@code consumer} in append order and
+   * returns the count. Intended to be called once at startup, before the first append.
+   */
+  public int replay(ObjLongConsumer<PostPaymentResponse> consumer) throws IOException {
+    List<Path> paths;
+    lock.lock();
+    try {
+      paths = new ArrayList<>(segmentFiles);
+    } finally {
+      lock.unlock();
+    }
+    int count = 0;
+    for (Path path : paths) {
+      boolean legacy = formatVersion(path) == LEGACY_VERSION;
+      long modifiedAt = legacy ? Files.getLastModifiedTime(path).toMillis() : 0;
+      int start = legacy ? 0 : HEADER_SIZE;
+      int recordSize = legacy ? LEGACY_RECORD_SIZE : RECORD_SIZE;
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+        int end = validLength(buffer, start, recordSize);
+        for (int position = start; position < end; position += recordSize) {
+          consumer.accept(decode(buffer, position),
+              legacy ? modifiedAt : buffer.getLong(position + 40));
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  // Forces everything appended so far; called by the flusher and on close.
+  void flush() {
+    List<Segment> rolled;
+    Segment active;
+    int position;
+    List<Path> expired = new ArrayList<>();
+    lock.lock();
+    try {
+      rolled = new ArrayList<>(unforced);
+      unforced.clear();
+      active = current;
+      position = active.position;
+      while (segmentFiles.size() > maxSegments) {
+        expired.add(segmentFiles.removeFirst());
+      }
+    } finally {
+      lock.unlock();
+    }
+    for (Segment segment : rolled) {
+      segment.force(segment.position);
+      segment.close();
+    }
+    active.force(position);
+    for (Path path : expired) {
+      try {
+        Files.deleteIfExists(path);
+      } catch (IOException e) {
+        LOG.warn("Could not delete expired journal segment {}: {}", path, e.getMessage());
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    } finally {
+      lock.unlock();
+    }
+    running = false;
+    LockSupport.unpark(flusher);
+    try {
+      flusher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+    current.close();
+  }
+
+  private void runFlusher() {
+    while (running) {
+      LockSupport.parkNanos(this, flushIntervalNanos);
+      try {
+        flush();
+      } catch (RuntimeException e) {
+        LOG.error("Failed to flush payment journal", e);
+      }
+    }
+  }
+
+  private Segment createSegment() throws IOException {
+    Path path = directory.resolve(String.format("%020d%s", nextSegmentId++, SEGMENT_SUFFIX));
+    segmentFiles.add(path);
+    return Segment.create(path, segmentSize);
+  }
+
+  private List<Path> listSegments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+          .sorted()
+          .toList();
+    }
+  }
+
+  // Segments without the header predate it and hold version 1 records.
+  private static int formatVersion(Path path) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      channel.read(header, 0);
+    }
+    if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+      return LEGACY_VERSION;
+    }
+    int version = header.getInt(4);
+    if (version != VERSION) {
+      throw new IOException("Journal segment " + path + " has format version " + version
+          + ", but only versions " + LEGACY_VERSION + " and " + VERSION + " can be read");
+    }
+    return version;
+  }
+
+  private static long segmentId(Path path) {
+    String name = path.getFileName().toString();
+    return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  static byte[] encode(PostPaymentResponse payment, long createdAtMillis) {
+    ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    UUID id = payment.getId();
+    record.putLong(4, id.getMostSignificantBits());
+    record.putLong(12, id.getLeastSignificantBits());
+    record.putInt(20, payment.getAmount());
+    record.putInt(24, StripedPaymentStore.packAscii(payment.getCurrency(), 3));
+    record.putInt(28, StripedPaymentStore.packAscii(payment.getCardNumberLastFour(), 4));
+    record.putInt(32, payment.getExpiryYear() << 8 | (payment.getExpiryMonth() & 0xFF));
+    record.put(36, payment.getStatus() == null ? -1 : (byte) payment.getStatus().ordinal());
+    record.putLong(40, createdAtMillis);
+    CRC32C crc = new CRC32C();
+    crc.update(record.array(), 4, RECORD_SIZE - 4);
+    record.putInt(0, (int) crc.getValue());
+    return record.array();
+  }
+
+  private static PostPaymentResponse decode(ByteBuffer buffer, int position) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(new UUID(buffer.getLong(position + 4), buffer.getLong(position + 12)));
+    payment.setAmount(buffer.getInt(position + 20));
+    payment.setCurrency(StripedPaymentStore.unpackAscii(buffer.getInt(position + 24)));
+    payment.setCardNumberLastFour(StripedPaymentStore.unpackAscii(buffer.getInt(position + 28)));
+    int expiry = buffer.getInt(position + 32);
+    payment.setExpiryYear(expiry >> 8);
+    payment.setExpiryMonth(expiry & 0xFF);
+    byte status = buffer.get(position + 36);
+    payment.setStatus(status < 0 ? null : STATUSES[status]);
+    return payment;
+  }
+
+  // End of the run of intact records starting at start.
+  private static int validLength(ByteBuffer buffer, int start, int recordSize) {
+    if (buffer.capacity() < start) {
+      return start;
+    }
+    int limit = buffer.capacity() - (buffer.capacity() - start) % recordSize;
+    CRC32C crc = new CRC32C();
+    int position = start;
+    while (position < limit) {
+      crc.reset();
+      crc.update(buffer.slice(position + 4, recordSize - 4));
+      if ((int) crc.getValue() != buffer.getInt(position)) {
+        break;
+      }
+      position += recordSize;
+    }
+    return position;
+  }
+
+  private static final class Segment {
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    // Guarded by the journal lock.
+    private int position;
+    // Only touched by the flushing thread.
+    private int forced;
+
+    private Segment(FileChannel channel, MappedByteBuffer buffer, int position, int forced) {
+      this.channel = channel;
+      this.buffer = buffer;
+      this.position = position;
+      this.forced = forced;
+    }
+
+    // The header is forced together with the first records.
+    static Segment create(Path path, int size) throws IOException {
+      FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+          StandardOpenOption.READ, StandardOpenOption.WRITE);
+      MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, size);
+      buffer.putInt(0, MAGIC);
+      buffer.putInt(4, VERSION);
+      return new Segment(channel, buffer, HEADER_SIZE, 0);
+    }
+
+    static Segment open(Path path) throws IOException {
+      FileChannel channel = FileChannel.open(path, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+      MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, channel.size());
+      int position = validLength(buffer, HEADER_SIZE, RECORD_SIZE);
+      return new Segment(channel, buffer, position, position);
+    }
+
+    int capacity() {
+      return buffer.capacity() - (buffer.capacity() - HEADER_SIZE) % RECORD_SIZE;
+    }
+
+    void force(int upTo) {
+      if (upTo > forced) {
+        buffer.force(forced, upTo - forced);
+        forced = upTo;
+      }
+    }
+
+    void close() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOG.warn("Failed to close journal segment: {}", e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.checkout.payment.gateway.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * IDs of the payments on one listing page, oldest first. {@code nextCursor} is null once the
+ * listing has reached the newest payment.
+ */
+public record PaymentPage(List<UUID> ids, Long nextCursor) {
+}
@@ -0,0 +1,12 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import java.time.Instant;
+
+/**
+ * One page of a payment listing. Null filters match every payment. Without a cursor the listing
+ * starts at the oldest payment created at or after {@code since}, or at the oldest payment.
+ */
+public record PaymentQuery(String currency, PaymentStatus status, Instant since, Long cursor,
+    int limit) {
+}
@@ -0,0 +1,27 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.util.UUID;
+import org.springframework.lang.Nullable;
+
+/**
+ * Bounded concurrent payment storage keyed on the payment ID. Implementations keep payments in
+ * packed form and materialize a fresh {@link PostPaymentResponse} on every read; once full, the
+ * oldest payment is evicted.
+ */
+public interface PaymentStore {
+
+  /**
+   * Stores the payment, replacing any payment with the same ID. Returns true if the ID was new.
+   */
+  boolean put(PostPaymentResponse payment);
+
+  @Nullable
+  PostPaymentResponse get(UUID id);
+
+  boolean contains(UUID id);
+
+  int capacity();
+
+  int size();
+}
@@ -1,22 +1,93 @@
 package com.checkout.payment.gateway.repository;
 
 import com.checkout.payment.gateway.model.PostPaymentResponse;
-import java.util.HashMap;
-import java.util.Optional;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class PaymentsRepository {
 
-  private final HashMap<UUID, PostPaymentResponse> payments = new HashMap<>();
+  private static final Logger LOG = LoggerFactory.getLogger(PaymentsRepository.class);
+
+  private final PaymentStore payments;
+  private final PaymentJournal journal;
+  private final PaymentArchive archive;
+  private final PaymentIndex index;
+
+  public PaymentsRepository(PaymentStore payments) {
+    this(payments, null, null);
+  }
+
+  public PaymentsRepository(PaymentStore payments, @Nullable PaymentJournal journal) {
+    this(payments, journal, null);
+  }
+
+  @Autowired
+  public PaymentsRepository(PaymentStore payments, @Nullable PaymentJournal journal,
+      @Nullable PaymentArchive archive) {
+    this.payments = payments;
+    this.journal = journal;
+    this.archive = archive;
+    this.index = new PaymentIndex(payments.capacity());
+    if (journal != null) {
+      long start = System.nanoTime();
+      try {
+        int replayed = journal.replay(this::store);
+        LOG.info("Replayed {} journaled payments in {} ms", replayed,
+            (System.nanoTime() - start) / 1_000_000);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to replay payment journal", e);
+      }
+    }
+  }
 
   public void add(PostPaymentResponse payment) {
-    payments.put(payment.getId(), payment);
+    long createdAt = System.currentTimeMillis();
+    if (journal != null) {
+      journal.append(payment, createdAt);
+    }
+    store(payment, createdAt);
+    // The payment is already stored, so a full or closed archive only logs and counts it.
+    if (archive != null) {
+      archive.offer(payment);
+    }
   }
 
-  public Optional<PostPaymentResponse> get(UUID id) {
-    return Optional.ofNullable(payments.get(id));
+  /** Looks in memory first, then in the archive for payments that have been evicted. */
+  @Nullable
+  public PostPaymentResponse find(UUID id) {
+    PostPaymentResponse payment = payments.get(id);
+    if (payment == null && archive != null) {
+      payment = archive.find(id);
+    }
+    return payment;
   }
 
+  public boolean contains(UUID id) {
+    return payments.contains(id) || archive != null && archive.find(id) != null;
+  }
+
+  /**
+   * Returns the IDs of the next page of payments in insertion order. Payments replayed from the
+   * journal keep the creation time recorded there, so {@code since} still applies to them.
+   */
+  public PaymentPage list(PaymentQuery query) {
+    return index.page(query);
+  }
+
+  public int size() {
+    return payments.size();
+  }
+
+  private void store(PostPaymentResponse payment, long createdAtMillis) {
+    if (payments.put(payment)) {
+      index.add(payment, createdAtMillis);
+    }
+  }
 }
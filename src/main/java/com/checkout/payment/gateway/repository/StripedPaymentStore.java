@@ -0,0 +1,358 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Bounded concurrent payment store keyed on the two halves of the payment UUID.
+ *
+ * <p>Entries are spread over lock-striped segments. Each segment keeps its payments in
+ * insertion-ordered primitive columns and an open-addressing index into them, so no boxed key or
+ * bean is retained per payment. Reads are optimistic and never block writers. When a segment is
+ * full its oldest payment is evicted.
+ */
+public class StripedPaymentStore implements PaymentStore {
+
+  private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+  private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+  private final Segment[] segments;
+  private final int segmentMask;
+  private final int capacity;
+
+  public StripedPaymentStore(int capacity, int concurrency) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(concurrency, capacity)) * 2 - 1);
+    int segmentCapacity = (capacity + segmentCount - 1) / segmentCount;
+    this.segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(segmentCapacity);
+    }
+    this.segmentMask = segmentCount - 1;
+    this.capacity = segmentCapacity * segmentCount;
+  }
+
+  @Override
+  public boolean put(PostPaymentResponse payment) {
+    UUID id = payment.getId();
+    long hi = id.getMostSignificantBits();
+    long lo = id.getLeastSignificantBits();
+    long hash = hash(hi, lo);
+    return segmentFor(hash).put(hi, lo, (int) hash, payment);
+  }
+
+  @Override
+  public PostPaymentResponse get(UUID id) {
+    return get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+  }
+
+  public PostPaymentResponse get(long hi, long lo) {
+    long hash = hash(hi, lo);
+    return segmentFor(hash).get(hi, lo, (int) hash);
+  }
+
+  @Override
+  public boolean contains(UUID id) {
+    long hi = id.getMostSignificantBits();
+    long lo = id.getLeastSignificantBits();
+    long hash = hash(hi, lo);
+    return segmentFor(hash).contains(hi, lo, (int) hash);
+  }
+
+  @Override
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  private Segment segmentFor(long hash) {
+    return segments[(int) (hash >>> 32) & segmentMask];
+  }
+
+  // MurmurHash3 fmix64 over the folded UUID halves; the low word picks the index slot and the
+  // high word the segment, so the two stay independent.
+  static long hash(long hi, long lo) {
+    long h = hi ^ Long.rotateLeft(lo, 32);
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  // Packs up to four characters below U+0100 into an int; 0 stands for null.
+  static int packAscii(String value, int maxLength) {
+    if (value == null) {
+      return 0;
+    }
+    int length = value.length();
+    if (length > maxLength) {
+      throw new IllegalArgumentException("Value longer than " + maxLength + " characters");
+    }
+    int packed = 0;
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c == 0 || c > 0xFF) {
+        throw new IllegalArgumentException("Unsupported character in stored value");
+      }
+      packed |= c << (24 - 8 * i);
+    }
+    return packed;
+  }
+
+  static String unpackAscii(int packed) {
+    if (packed == 0) {
+      return null;
+    }
+    char[] chars = new char[4];
+    int length = 0;
+    while (length < 4) {
+      char c = (char) ((packed >>> (24 - 8 * length)) & 0xFF);
+      if (c == 0) {
+        break;
+      }
+      chars[length++] = c;
+    }
+    return new String(chars, 0, length);
+  }
+
+  private static final class Segment {
+
+    private final StampedLock lock = new StampedLock();
+    private final int maxEntries;
+    private Table table;
+    // Once the table is full, head is the oldest entry and the next one to be evicted.
+    private int head;
+    private int count;
+
+    Segment(int maxEntries) {
+      this.maxEntries = maxEntries;
+      this.table = new Table(Math.min(INITIAL_SEGMENT_CAPACITY, maxEntries));
+    }
+
+    PostPaymentResponse get(long hi, long lo, int hash) {
+      long stamp = lock.tryOptimisticRead();
+      if (stamp != 0) {
+        Table table = this.table;
+        int position = table.find(hi, lo, hash);
+        if (position < 0) {
+          if (lock.validate(stamp)) {
+            return null;
+          }
+        } else {
+          int amount = table.amounts[position];
+          int currency = table.currencies[position];
+          int lastFour = table.lastFours[position];
+          int expiry = table.expiries[position];
+          byte status = table.statuses[position];
+          if (lock.validate(stamp)) {
+            return materialize(hi, lo, amount, currency, lastFour, expiry, status);
+          }
+        }
+      }
+      stamp = lock.readLock();
+      try {
+        Table table = this.table;
+        int position = table.find(hi, lo, hash);
+        if (position < 0) {
+          return null;
+        }
+        return materialize(hi, lo, table.amounts[position], table.currencies[position],
+            table.lastFours[position], table.expiries[position], table.statuses[position]);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    boolean contains(long hi, long lo, int hash) {
+      long stamp = lock.tryOptimisticRead();
+      if (stamp != 0) {
+        boolean found = table.find(hi, lo, hash) >= 0;
+        if (lock.validate(stamp)) {
+          return found;
+        }
+      }
+      stamp = lock.readLock();
+      try {
+        return table.find(hi, lo, hash) >= 0;
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    boolean put(long hi, long lo, int hash, PostPaymentResponse payment) {
+      int currency = packAscii(payment.getCurrency(), 3);
+      int lastFour = packAscii(payment.getCardNumberLastFour(), 4);
+      int expiry = payment.getExpiryYear() << 8 | (payment.getExpiryMonth() & 0xFF);
+      byte status = payment.getStatus() == null ? -1 : (byte) payment.getStatus().ordinal();
+
+      long stamp = lock.writeLock();
+      try {
+        int position = table.find(hi, lo, hash);
+        boolean inserted = position < 0;
+        if (inserted) {
+          position = claimPosition();
+          table.his[position] = hi;
+          table.los[position] = lo;
+          table.insertIntoIndex(position, hash);
+        }
+        table.amounts[position] = payment.getAmount();
+        table.currencies[position] = currency;
+        table.lastFours[position] = lastFour;
+        table.expiries[position] = expiry;
+        table.statuses[position] = status;
+        return inserted;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    int size() {
+      long stamp = lock.tryOptimisticRead();
+      int size = count;
+      if (!lock.validate(stamp)) {
+        stamp = lock.readLock();
+        try {
+          size = count;
+        } finally {
+          lock.unlockRead(stamp);
+        }
+      }
+      return size;
+    }
+
+    private int claimPosition() {
+      int capacity = table.capacity();
+      if (count < capacity) {
+        return (head + count++) % capacity;
+      }
+      if (capacity < maxEntries) {
+        // Growth only happens before the first eviction, so head is still 0.
+        table = table.resize(Math.min(capacity * 2, maxEntries), count);
+        return count++;
+      }
+      int evicted = head;
+      table.removeFromIndex(evicted);
+      head = (head + 1) % capacity;
+      return evicted;
+    }
+
+    private static PostPaymentResponse materialize(long hi, long lo, int amount, int currency,
+        int lastFour, int expiry, byte status) {
+      PostPaymentResponse payment = new PostPaymentResponse();
+      payment.setId(new UUID(hi, lo));
+      payment.setAmount(amount);
+      payment.setCurrency(unpackAscii(currency));
+      payment.setCardNumberLastFour(unpackAscii(lastFour));
+      payment.setExpiryYear(expiry >> 8);
+      payment.setExpiryMonth(expiry & 0xFF);
+      payment.setStatus(status < 0 ? null : STATUSES[status]);
+      return payment;
+    }
+  }
+
+  // Primitive columns plus a linear-probing index holding column position + 1 (0 is empty).
+  // A segment swaps in a new table when it grows, so optimistic readers always see one
+  // consistent set of arrays.
+  private static final class Table {
+
+    private final long[] his;
+    private final long[] los;
+    private final int[] amounts;
+    private final int[] currencies;
+    private final int[] lastFours;
+    private final int[] expiries;
+    private final byte[] statuses;
+    private final int[] index;
+
+    Table(int capacity) {
+      this.his = new long[capacity];
+      this.los = new long[capacity];
+      this.amounts = new int[capacity];
+      this.currencies = new int[capacity];
+      this.lastFours = new int[capacity];
+      this.expiries = new int[capacity];
+      this.statuses = new byte[capacity];
+      this.index = new int[Integer.highestOneBit(capacity * 2 - 1) * 2];
+    }
+
+    int capacity() {
+      return his.length;
+    }
+
+    Table resize(int capacity, int count) {
+      Table resized = new Table(capacity);
+      System.arraycopy(his, 0, resized.his, 0, count);
+      System.arraycopy(los, 0, resized.los, 0, count);
+      System.arraycopy(amounts, 0, resized.amounts, 0, count);
+      System.arraycopy(currencies, 0, resized.currencies, 0, count);
+      System.arraycopy(lastFours, 0, resized.lastFours, 0, count);
+      System.arraycopy(expiries, 0, resized.expiries, 0, count);
+      System.arraycopy(statuses, 0, resized.statuses, 0, count);
+      for (int position = 0; position < count; position++) {
+        resized.insertIntoIndex(position, (int) hash(his[position], los[position]));
+      }
+      return resized;
+    }
+
+    // Safe against torn state during optimistic reads: probing is capped at the table size.
+    int find(long hi, long lo, int hash) {
+      int mask = index.length - 1;
+      int slot = hash & mask;
+      for (int probes = 0; probes <= mask; probes++) {
+        int entry = index[slot];
+        if (entry == 0) {
+          return -1;
+        }
+        int position = entry - 1;
+        if (his[position] == hi && los[position] == lo) {
+          return position;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return -1;
+    }
+
+    void insertIntoIndex(int position, int hash) {
+      int mask = index.length - 1;
+      int slot = hash & mask;
+      while (index[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      index[slot] = position + 1;
+    }
+
+    // Backward-shift deletion keeps probe sequences intact without tombstones.
+    void removeFromIndex(int position) {
+      int mask = index.length - 1;
+      int hole = (int) hash(his[position], los[position]) & mask;
+      while (index[hole] != position + 1) {
+        hole = (hole + 1) & mask;
+      }
+      int next = (hole + 1) & mask;
+      while (index[next] != 0) {
+        int moved = index[next] - 1;
+        int ideal = (int) hash(his[moved], los[moved]) & mask;
+        if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+          index[hole] = index[next];
+          hole = next;
+        }
+        next = (next + 1) & mask;
+      }
+      index[hole] = 0;
+    }
+  }
+}
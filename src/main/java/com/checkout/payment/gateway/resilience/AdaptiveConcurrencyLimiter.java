@@ -0,0 +1,104 @@
+package com.checkout.payment.gateway.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows downstream latency, for shedding load before it queues.
+ *
+ * <p>Each latency sample is compared with a long-term average. While samples stay close to the
+ * average the limit grows by about its square root per sample; when they rise above it the limit
+ * shrinks in proportion, down to half per sample, and a dropped call (a timeout or I/O failure)
+ * cuts it by a tenth. The limit only grows while at least half of it is in use, so an idle
+ * service does not drift to the maximum. This follows the gradient algorithm of Netflix's
+ * concurrency-limits library.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  private static final double RTT_TOLERANCE = 1.5;
+  private static final double SMOOTHING = 0.2;
+  private static final double LONG_RTT_ALPHA = 2.0 / (100 + 1);
+  private static final double DROP_BACKOFF = 0.9;
+
+  private final String name;
+  private final int minLimit;
+  private final int maxLimit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final LongAdder rejectedCalls = new LongAdder();
+  private volatile int limit;
+  // Guarded by this.
+  private double estimatedLimit;
+  private double longRttNanos;
+
+  public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit) {
+    if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+      throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+    }
+    this.name = name;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limit = initialLimit;
+    this.estimatedLimit = initialLimit;
+  }
+
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= limit) {
+        rejectedCalls.increment();
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  public void release() {
+    inFlight.decrementAndGet();
+  }
+
+  /**
+   * Records how long a downstream call took, and whether it was dropped rather than answered.
+   */
+  public synchronized void onSample(long rttNanos, boolean dropped) {
+    if (dropped) {
+      setEstimatedLimit(estimatedLimit * DROP_BACKOFF);
+      return;
+    }
+    double shortRtt = Math.max(1, rttNanos);
+    longRttNanos = longRttNanos == 0
+        ? shortRtt : longRttNanos + LONG_RTT_ALPHA * (shortRtt - longRttNanos);
+    // Lets the baseline recover quickly once a latency spike is over.
+    if (longRttNanos / shortRtt > 2) {
+      longRttNanos *= 0.95;
+    }
+    if (inFlight.get() < estimatedLimit / 2) {
+      return;
+    }
+    double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / shortRtt));
+    double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+    setEstimatedLimit(estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  public long getRejectedCalls() {
+    return rejectedCalls.sum();
+  }
+
+  private void setEstimatedLimit(double value) {
+    estimatedLimit = Math.max(minLimit, Math.min(maxLimit, value));
+    limit = (int) estimatedLimit;
+  }
+}
@@ -0,0 +1,40 @@
+package com.checkout.payment.gateway.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+public class AdmissionMetrics implements MeterBinder {
+
+  private final TokenBucketRateLimiter rateLimiter;
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+  public AdmissionMetrics(TokenBucketRateLimiter rateLimiter,
+      AdaptiveConcurrencyLimiter concurrencyLimiter) {
+    this.rateLimiter = rateLimiter;
+    this.concurrencyLimiter = concurrencyLimiter;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("rate.limiter.rejected", rateLimiter,
+            TokenBucketRateLimiter::getRejectedRequests)
+        .register(registry);
+    Gauge.builder("rate.limiter.clients", rateLimiter, TokenBucketRateLimiter::getTrackedClients)
+        .register(registry);
+
+    String name = concurrencyLimiter.getName();
+    Gauge.builder("concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+        .tag("name", name)
+        .register(registry);
+    Gauge.builder("concurrency.in.flight", concurrencyLimiter,
+            AdaptiveConcurrencyLimiter::getInFlight)
+        .tag("name", name)
+        .register(registry);
+    FunctionCounter.builder("concurrency.rejected", concurrencyLimiter,
+            AdaptiveConcurrencyLimiter::getRejectedCalls)
+        .tag("name", name)
+        .register(registry);
+  }
+}
@@ -0,0 +1,46 @@
+package com.checkout.payment.gateway.resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of concurrent calls. Callers over the limit are turned away immediately rather
+ * than queued.
+ */
+public class Bulkhead {
+
+  private final String name;
+  private final int maxConcurrentCalls;
+  private final Semaphore permits;
+  private final LongAdder rejectedCalls = new LongAdder();
+
+  public Bulkhead(String name, int maxConcurrentCalls) {
+    this.name = name;
+    this.maxConcurrentCalls = maxConcurrentCalls;
+    this.permits = new Semaphore(maxConcurrentCalls);
+  }
+
+  public boolean tryAcquire() {
+    if (permits.tryAcquire()) {
+      return true;
+    }
+    rejectedCalls.increment();
+    return false;
+  }
+
+  public void release() {
+    permits.release();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getInFlight() {
+    return maxConcurrentCalls - permits.availablePermits();
+  }
+
+  public long getRejectedCalls() {
+    return rejectedCalls.sum();
+  }
+}
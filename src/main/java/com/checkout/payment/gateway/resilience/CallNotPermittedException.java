@@ -0,0 +1,9 @@
+package com.checkout.payment.gateway.resilience;
+
+public class CallNotPermittedException extends RuntimeException {
+
+  public CallNotPermittedException(String message) {
+    // Thrown on every rejected call while the bank is unhealthy, so skip the stack trace.
+    super(message, null, false, false);
+  }
+}
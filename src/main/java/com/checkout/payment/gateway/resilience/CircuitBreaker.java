@@ -0,0 +1,169 @@
+package com.checkout.payment.gateway.resilience;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lock-free circuit breaker. Opens after {@code failureThreshold} consecutive failures, rejects
+ * calls for {@code openDuration}, then lets up to {@code halfOpenProbes} trial calls through. A
+ * successful probe closes the circuit and a failed one opens it again.
+ *
+ * <p>Like a {@link java.util.concurrent.locks.StampedLock} stamp, {@link #tryAcquirePermission}
+ * returns a stamp to pass back with the call's outcome. Stamps name the period between two
+ * openings, so the outcome of a call permitted before the circuit last opened, which can
+ * complete at any time, is ignored; only the probes let through since can close the circuit.
+ */
+public class CircuitBreaker {
+
+  public enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  public interface TransitionListener {
+
+    void onTransition(State from, State to);
+  }
+
+  /** Returned by {@link #tryAcquirePermission} when the call must not be made. */
+  public static final long NOT_PERMITTED = 0;
+
+  private static final Logger LOG = LoggerFactory.getLogger(CircuitBreaker.class);
+  private static final State[] STATES = State.values();
+  // The control word packs the state in the low 2 bits, the probes taken while half open in the
+  // next 30 and the epoch, incremented every time the circuit opens, in the high 32.
+  private static final int PROBES_SHIFT = 2;
+  private static final int EPOCH_SHIFT = 32;
+  private static final long ONE_PROBE = 1L << PROBES_SHIFT;
+  private static final int PROBES_MASK = (1 << EPOCH_SHIFT - PROBES_SHIFT) - 1;
+
+  private final String name;
+  private final int failureThreshold;
+  private final long openDurationNanos;
+  private final int halfOpenProbes;
+  private final AtomicLong control = new AtomicLong(pack(1, State.CLOSED));
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private final LongAdder notPermittedCalls = new LongAdder();
+  private final List<TransitionListener> listeners = new CopyOnWriteArrayList<>();
+  private volatile long openedAt;
+
+  public CircuitBreaker(String name, int failureThreshold, Duration openDuration,
+      int halfOpenProbes) {
+    this.name = name;
+    this.failureThreshold = failureThreshold;
+    this.openDurationNanos = openDuration.toNanos();
+    this.halfOpenProbes = halfOpenProbes;
+  }
+
+  /**
+   * Returns a stamp to pass to {@link #onSuccess} or {@link #onFailure} once the call completes,
+   * or {@link #NOT_PERMITTED} when the call must not be made.
+   */
+  public long tryAcquirePermission() {
+    while (true) {
+      long current = control.get();
+      State state = state(current);
+      if (state == State.CLOSED) {
+        return epoch(current);
+      }
+      if (state == State.OPEN) {
+        if (System.nanoTime() - openedAt < openDurationNanos) {
+          notPermittedCalls.increment();
+          return NOT_PERMITTED;
+        }
+        transition(current, pack(epoch(current), State.HALF_OPEN));
+      } else if (probes(current) >= halfOpenProbes) {
+        notPermittedCalls.increment();
+        return NOT_PERMITTED;
+      } else if (control.compareAndSet(current, current + ONE_PROBE)) {
+        return epoch(current);
+      }
+    }
+  }
+
+  public void onSuccess(long stamp) {
+    long current = control.get();
+    if (epoch(current) != stamp) {
+      return;
+    }
+    State state = state(current);
+    if (state == State.HALF_OPEN) {
+      if (transition(current, pack(stamp, State.CLOSED))) {
+        consecutiveFailures.set(0);
+      }
+    } else if (state == State.CLOSED && consecutiveFailures.get() != 0) {
+      consecutiveFailures.set(0);
+    }
+  }
+
+  public void onFailure(long stamp) {
+    long current = control.get();
+    if (epoch(current) != stamp) {
+      return;
+    }
+    State state = state(current);
+    if (state == State.HALF_OPEN) {
+      open(current);
+    } else if (state == State.CLOSED
+        && consecutiveFailures.incrementAndGet() >= failureThreshold) {
+      open(current);
+    }
+  }
+
+  public State getState() {
+    return state(control.get());
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getNotPermittedCalls() {
+    return notPermittedCalls.sum();
+  }
+
+  public void addListener(TransitionListener listener) {
+    listeners.add(listener);
+  }
+
+  // openedAt is written before the state flips so that no caller observes OPEN with a stale
+  // timestamp. Opening starts a new epoch with no probes taken.
+  private void open(long from) {
+    openedAt = System.nanoTime();
+    transition(from, pack(epoch(from) + 1, State.OPEN));
+  }
+
+  private boolean transition(long from, long to) {
+    if (!control.compareAndSet(from, to)) {
+      return false;
+    }
+    State fromState = state(from);
+    State toState = state(to);
+    LOG.warn("Circuit breaker {} moved from {} to {}", name, fromState, toState);
+    for (TransitionListener listener : listeners) {
+      listener.onTransition(fromState, toState);
+    }
+    return true;
+  }
+
+  private static long pack(long epoch, State state) {
+    return epoch << EPOCH_SHIFT | state.ordinal();
+  }
+
+  private static long epoch(long control) {
+    return control >>> EPOCH_SHIFT;
+  }
+
+  private static int probes(long control) {
+    return (int) (control >>> PROBES_SHIFT) & PROBES_MASK;
+  }
+
+  private static State state(long control) {
+    return STATES[(int) (control & 3)];
+  }
+}
@@ -0,0 +1,57 @@
+package com.checkout.payment.gateway.resilience;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks a latency percentile over the most recent {@code window} samples. Samples go into a
+ * ring; the percentile is recomputed by whichever thread records every eighth of a window, so
+ * reads are a volatile load. Until a full window has been seen it reports {@code floor}, which
+ * also bounds it from below.
+ */
+public class LatencyPercentile {
+
+  private final double percentile;
+  private final long floorNanos;
+  private final AtomicLongArray samples;
+  private final AtomicInteger count = new AtomicInteger();
+  private final int recomputeEvery;
+  private volatile long valueNanos;
+
+  public LatencyPercentile(double percentile, int window, Duration floor) {
+    if (percentile <= 0 || percentile >= 1) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 1: " + percentile);
+    }
+    this.percentile = percentile;
+    this.floorNanos = floor.toNanos();
+    this.samples = new AtomicLongArray(Math.max(8, window));
+    this.recomputeEvery = samples.length() / 8;
+    this.valueNanos = floorNanos;
+  }
+
+  public void record(long nanos) {
+    int n = count.getAndIncrement() & Integer.MAX_VALUE;
+    samples.set(n % samples.length(), nanos);
+    int recorded = n + 1;
+    if (recorded == samples.length()
+        || recorded > samples.length() && recorded % recomputeEvery == 0) {
+      recompute();
+    }
+  }
+
+  public long getNanos() {
+    return valueNanos;
+  }
+
+  private void recompute() {
+    long[] sorted = new long[samples.length()];
+    for (int i = 0; i < sorted.length; i++) {
+      sorted[i] = samples.get(i);
+    }
+    Arrays.sort(sorted);
+    long value = sorted[(int) (percentile * (sorted.length - 1))];
+    valueNanos = Math.max(floorNanos, value);
+  }
+}
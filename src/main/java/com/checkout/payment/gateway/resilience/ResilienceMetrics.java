@@ -0,0 +1,46 @@
+package com.checkout.payment.gateway.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Locale;
+
+public class ResilienceMetrics implements MeterBinder {
+
+  private final CircuitBreaker circuitBreaker;
+  private final Bulkhead bulkhead;
+
+  public ResilienceMetrics(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+    this.circuitBreaker = circuitBreaker;
+    this.bulkhead = bulkhead;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    String breakerName = circuitBreaker.getName();
+    for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+      Gauge.builder("circuit.breaker.state", circuitBreaker, b -> b.getState() == state ? 1 : 0)
+          .tag("name", breakerName)
+          .tag("state", tagValue(state))
+          .register(registry);
+    }
+    circuitBreaker.addListener((from, to) -> registry.counter("circuit.breaker.transitions",
+        "name", breakerName, "from", tagValue(from), "to", tagValue(to)).increment());
+    FunctionCounter.builder("circuit.breaker.not.permitted", circuitBreaker,
+            CircuitBreaker::getNotPermittedCalls)
+        .tag("name", breakerName)
+        .register(registry);
+
+    Gauge.builder("bulkhead.in.flight", bulkhead, Bulkhead::getInFlight)
+        .tag("name", bulkhead.getName())
+        .register(registry);
+    FunctionCounter.builder("bulkhead.rejected", bulkhead, Bulkhead::getRejectedCalls)
+        .tag("name", bulkhead.getName())
+        .register(registry);
+  }
+
+  private static String tagValue(CircuitBreaker.State state) {
+    return state.name().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,55 @@
+package com.checkout.payment.gateway.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bounds retries by attempt count and by an overall deadline, backing off exponentially with
+ * full jitter: the wait before attempt {@code n + 1} is uniform in
+ * {@code [0, min(maxBackoff, initialBackoff * 2^(n - 1))]}, so clients that failed together do not
+ * retry together.
+ */
+public class RetryPolicy {
+
+  private final int maxAttempts;
+  private final long initialBackoffNanos;
+  private final long maxBackoffNanos;
+  private final long deadlineNanos;
+
+  public RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff,
+      Duration deadline) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("Max attempts must be at least 1: " + maxAttempts);
+    }
+    if (deadline.isNegative() || deadline.isZero()) {
+      throw new IllegalArgumentException("Deadline must be positive: " + deadline);
+    }
+    this.maxAttempts = maxAttempts;
+    this.initialBackoffNanos = initialBackoff.toNanos();
+    this.maxBackoffNanos = Math.max(initialBackoffNanos, maxBackoff.toNanos());
+    this.deadlineNanos = deadline.toNanos();
+  }
+
+  /**
+   * Returns the wait before the attempt after {@code attempt}, or -1 if there should be none
+   * because attempts are used up or the wait would run past {@code remainingNanos}.
+   */
+  public long backoffNanos(int attempt, long remainingNanos) {
+    if (attempt >= maxAttempts) {
+      return -1;
+    }
+    int shift = Math.min(attempt - 1, 62);
+    long ceiling = initialBackoffNanos > maxBackoffNanos >> shift
+        ? maxBackoffNanos : initialBackoffNanos << shift;
+    long backoff = ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    return backoff < remainingNanos ? backoff : -1;
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public long getDeadlineNanos() {
+    return deadlineNanos;
+  }
+}
@@ -0,0 +1,91 @@
+package com.checkout.payment.gateway.resilience;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets, lock-free.
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding the time its next token would be due
+ * (the generic cell rate algorithm), so a permit is one compare-and-set and no thread ever
+ * refills buckets. A bucket whose due time has passed is full and can be dropped without changing
+ * behaviour, which is how the number of tracked clients is kept near {@code maxClients}.
+ */
+public class TokenBucketRateLimiter {
+
+  private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+  private final long intervalNanos;
+  private final long burstNanos;
+  private final int maxClients;
+  private final LongSupplier nanoClock;
+  private final AtomicLong nextSweep;
+  private final LongAdder rejectedRequests = new LongAdder();
+
+  public TokenBucketRateLimiter(double permitsPerSecond, int burst, int maxClients) {
+    this(permitsPerSecond, burst, maxClients, System::nanoTime);
+  }
+
+  TokenBucketRateLimiter(double permitsPerSecond, int burst, int maxClients,
+      LongSupplier nanoClock) {
+    if (permitsPerSecond <= 0 || burst < 1) {
+      throw new IllegalArgumentException("Rate and burst must be positive");
+    }
+    this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+    this.burstNanos = intervalNanos * burst;
+    this.maxClients = maxClients;
+    this.nanoClock = nanoClock;
+    this.nextSweep = new AtomicLong(nanoClock.getAsLong());
+  }
+
+  /**
+   * Takes a token from the client's bucket. Returns 0 if one was available, otherwise how many
+   * nanoseconds until one will be.
+   */
+  public long tryAcquire(String clientKey) {
+    long now = nanoClock.getAsLong();
+    AtomicLong bucket = buckets.get(clientKey);
+    if (bucket == null) {
+      sweepIfFull(now);
+      AtomicLong created = new AtomicLong(now);
+      bucket = buckets.putIfAbsent(clientKey, created);
+      if (bucket == null) {
+        bucket = created;
+      }
+    }
+    while (true) {
+      long due = bucket.get();
+      long next = (due - now > 0 ? due : now) + intervalNanos;
+      long wait = next - now - burstNanos;
+      if (wait > 0) {
+        rejectedRequests.increment();
+        return wait;
+      }
+      if (bucket.compareAndSet(due, next)) {
+        return 0;
+      }
+    }
+  }
+
+  public int getTrackedClients() {
+    return buckets.size();
+  }
+
+  public long getRejectedRequests() {
+    return rejectedRequests.sum();
+  }
+
+  // At most once a second, and only when over maxClients, drops the buckets that are full again.
+  private void sweepIfFull(long now) {
+    long sweepAt = nextSweep.get();
+    if (buckets.size() < maxClients || now - sweepAt < 0
+        || !nextSweep.compareAndSet(sweepAt, now + SWEEP_INTERVAL_NANOS)) {
+      return;
+    }
+    buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+  }
+}
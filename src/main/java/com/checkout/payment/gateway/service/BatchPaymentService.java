@@ -0,0 +1,181 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.exception.EventProcessingException;
+import com.checkout.payment.gateway.model.BatchItemResult;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import static com.checkout.payment.gateway.enums.PaymentStatus.AUTHORIZED;
+import static com.checkout.payment.gateway.enums.PaymentStatus.DECLINED;
+
+/**
+ * Authorizes a stream of payments with a bounded number of bank calls in flight. Results are
+ * handed to the sink as they complete, so they are not in submission order.
+ */
+@Service
+public class BatchPaymentService {
+
+  public interface ResultSink {
+
+    void accept(BatchItemResult result) throws IOException;
+  }
+
+  private static final Logger LOG = LoggerFactory.getLogger(BatchPaymentService.class);
+  private static final BatchItemResult END_OF_ITEMS = BatchItemResult.rejected(-1, List.of());
+
+  private final PaymentGatewayService paymentGatewayService;
+  private final Validator validator;
+  private final int maxInFlight;
+  private final int maxItems;
+
+  public BatchPaymentService(PaymentGatewayService paymentGatewayService, Validator validator,
+      @Value("${payments.batch.max-in-flight:256}") int maxInFlight,
+      @Value("${payments.batch.max-items:10000}") int maxItems) {
+    this.paymentGatewayService = paymentGatewayService;
+    this.validator = validator;
+    this.maxInFlight = maxInFlight;
+    this.maxItems = maxItems;
+  }
+
+  /**
+   * Reads and submits items on a virtual thread while the calling thread hands each result to
+   * the sink as soon as it is decided, so a slow request body or a full window does not hold back
+   * results that are already known. Returns the number of items read.
+   */
+  public int process(Iterator<PostPaymentRequest> items, ResultSink sink)
+      throws IOException, InterruptedException {
+    BlockingQueue<BatchItemResult> results = new LinkedBlockingQueue<>();
+    BatchReader reader = new BatchReader(items, results);
+    Thread thread = Thread.ofVirtual().name("payment-batch-reader").start(reader);
+    int written = 0;
+    try {
+      while (!reader.done || written < reader.submitted) {
+        BatchItemResult result = results.take();
+        if (result != END_OF_ITEMS) {
+          sink.accept(result);
+          written++;
+        }
+      }
+    } finally {
+      thread.interrupt();
+    }
+    if (reader.failure != null) {
+      throw reader.failure;
+    }
+    return reader.read;
+  }
+
+  private final class BatchReader implements Runnable {
+
+    private final Iterator<PostPaymentRequest> items;
+    private final BlockingQueue<BatchItemResult> results;
+    private final Semaphore window = new Semaphore(maxInFlight);
+    private int read;
+    private int submitted;
+    private RuntimeException failure;
+    private volatile boolean done;
+
+    BatchReader(Iterator<PostPaymentRequest> items, BlockingQueue<BatchItemResult> results) {
+      this.items = items;
+      this.results = results;
+    }
+
+    @Override
+    public void run() {
+      try {
+        readItems();
+      } catch (InterruptedException e) {
+        LOG.debug("Batch abandoned after {} items", read);
+      } catch (RuntimeException e) {
+        failure = e;
+      } finally {
+        done = true;
+        results.add(END_OF_ITEMS);
+      }
+    }
+
+    private void readItems() throws InterruptedException {
+      while (true) {
+        PostPaymentRequest item;
+        try {
+          if (!items.hasNext()) {
+            return;
+          }
+          item = items.next();
+        } catch (RuntimeException e) {
+          LOG.warn("Malformed batch item at index {}: {}", read, e.getMessage());
+          reject(List.of("Malformed payment request"));
+          return;
+        }
+        if (read >= maxItems) {
+          reject(List.of("Batch exceeds " + maxItems + " payments"));
+          return;
+        }
+
+        List<String> errors = validate(item);
+        if (!errors.isEmpty()) {
+          reject(errors);
+        } else {
+          window.acquire();
+          submitted++;
+          authorize(read, item).thenAccept(result -> {
+            results.add(result);
+            window.release();
+          });
+        }
+        read++;
+      }
+    }
+
+    private void reject(List<String> errors) {
+      submitted++;
+      results.add(BatchItemResult.rejected(read, errors));
+    }
+  }
+
+  private List<String> validate(PostPaymentRequest item) {
+    if (item == null) {
+      return List.of("Payment request is required");
+    }
+    List<String> errors = new ArrayList<>();
+    for (ConstraintViolation<PostPaymentRequest> violation : validator.validate(item)) {
+      errors.add(violation.getMessage());
+    }
+    errors.sort(null);
+    return errors;
+  }
+
+  private CompletableFuture<BatchItemResult> authorize(int index, PostPaymentRequest item) {
+    CompletableFuture<UUID> authorization;
+    try {
+      authorization = paymentGatewayService.processPaymentAsync(item);
+    } catch (RuntimeException e) {
+      authorization = CompletableFuture.failedFuture(e);
+    }
+    return authorization.handle((id, failure) -> {
+      if (failure == null) {
+        return new BatchItemResult(index, id == null ? DECLINED : AUTHORIZED, id, null);
+      }
+      Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+          ? failure.getCause() : failure;
+      String message = cause instanceof EventProcessingException
+          ? cause.getMessage() : "Payment could not be processed";
+      return BatchItemResult.rejected(index, List.of(message));
+    });
+  }
+}
@@ -0,0 +1,161 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.exception.IdempotencyKeyReusedException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-evicting cache of results keyed by client-supplied idempotency keys.
+ *
+ * <p>Concurrent callers with the same key share one in-flight computation, and later callers
+ * get the completed result until it expires. Each entry remembers a fingerprint of the request
+ * that created it, and reusing its key for a different request is rejected. Failed computations
+ * are not cached, so a retry after an error runs again.
+ *
+ * <p>Entries are kept in a linked list in insertion order, which is also expiry order since
+ * every entry lives for the same TTL. Eviction walks it from the oldest end and skips entries
+ * that are still in flight: evicting one would let a retry call the bank a second time. The
+ * cache can therefore briefly hold more than its capacity while that many keys are in flight.
+ */
+public class IdempotencyCache<V> {
+
+  private final ConcurrentHashMap<String, Entry<V>> entries = new ConcurrentHashMap<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  // Sentinel of the circular insertion-order list, guarded by lock.
+  private final Entry<V> head = new Entry<>(null, null, 0);
+  private volatile int size;
+  private final int maxEntries;
+  private final long ttlNanos;
+
+  public IdempotencyCache(int maxEntries, Duration ttl) {
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttl.toNanos();
+    head.prev = head;
+    head.next = head;
+  }
+
+  /**
+   * Returns the result cached for {@code key}, or computes it. Throws
+   * {@link IdempotencyKeyReusedException} when the key is live but was first used with a
+   * request of a different {@code fingerprint}.
+   */
+  public CompletableFuture<V> getOrCompute(String key, byte[] fingerprint,
+      Supplier<CompletableFuture<V>> supplier) {
+    long now = System.nanoTime();
+    while (true) {
+      Entry<V> existing = entries.get(key);
+      if (existing != null && !existing.isExpired(now)) {
+        if (!MessageDigest.isEqual(existing.fingerprint, fingerprint)) {
+          throw new IdempotencyKeyReusedException(
+              "Idempotency key was already used with a different request");
+        }
+        return existing.result;
+      }
+      Entry<V> created = new Entry<>(key, fingerprint, now + ttlNanos);
+      boolean installed = existing == null
+          ? entries.putIfAbsent(key, created) == null
+          : entries.replace(key, existing, created);
+      if (installed) {
+        lock.lock();
+        try {
+          if (existing != null) {
+            unlink(existing);
+          }
+          linkLast(created);
+          evict(now);
+        } finally {
+          lock.unlock();
+        }
+        compute(created, supplier);
+        return created.result;
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private void compute(Entry<V> entry, Supplier<CompletableFuture<V>> supplier) {
+    CompletableFuture<V> computation;
+    try {
+      computation = supplier.get();
+    } catch (RuntimeException e) {
+      computation = CompletableFuture.failedFuture(e);
+    }
+    computation.whenComplete((value, failure) -> {
+      if (failure != null) {
+        remove(entry);
+        entry.result.completeExceptionally(failure);
+      } else {
+        entry.result.complete(value);
+      }
+    });
+  }
+
+  private void remove(Entry<V> entry) {
+    lock.lock();
+    try {
+      unlink(entry);
+      entries.remove(entry.key, entry);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void evict(long now) {
+    Entry<V> entry = head.next;
+    while (entry != head && (size > maxEntries || entry.isExpired(now))) {
+      Entry<V> next = entry.next;
+      if (entry.result.isDone()) {
+        unlink(entry);
+        entries.remove(entry.key, entry);
+      }
+      entry = next;
+    }
+  }
+
+  private void linkLast(Entry<V> entry) {
+    entry.prev = head.prev;
+    entry.next = head;
+    head.prev.next = entry;
+    head.prev = entry;
+    size++;
+  }
+
+  private void unlink(Entry<V> entry) {
+    if (entry.next == null) {
+      return;
+    }
+    entry.prev.next = entry.next;
+    entry.next.prev = entry.prev;
+    entry.prev = null;
+    entry.next = null;
+    size--;
+  }
+
+  private static final class Entry<V> {
+
+    private final String key;
+    private final byte[] fingerprint;
+    private final long expiresAt;
+    private final CompletableFuture<V> result = new CompletableFuture<>();
+    private Entry<V> prev;
+    private Entry<V> next;
+
+    Entry(String key, byte[] fingerprint, long expiresAt) {
+      this.key = key;
+      this.fingerprint = fingerprint;
+      this.expiresAt = expiresAt;
+    }
+
+    // In-flight computations never expire, so late duplicates still coalesce onto them.
+    boolean isExpired(long now) {
+      return result.isDone() && now - expiresAt >= 0;
+    }
+  }
+}
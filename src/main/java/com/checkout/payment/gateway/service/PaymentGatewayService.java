@@ -1,22 +1,30 @@
 package com.checkout.payment.gateway.service;
 
-import com.checkout.payment.gateway.enums.Currency;
-import com.checkout.payment.gateway.exception.EventProcessingException;
+import com.checkout.payment.gateway.client.BankClient;
+import com.checkout.payment.gateway.client.RetryingBankClient;
+import com.checkout.payment.gateway.enums.RejectionReason;
+import com.checkout.payment.gateway.exception.BankTimeoutException;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
 import com.checkout.payment.gateway.model.PostAuthResponse;
 import com.checkout.payment.gateway.model.PostPaymentRequest;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
-import java.time.LocalDate;
+import com.checkout.payment.gateway.resilience.CallNotPermittedException;
+import com.checkout.payment.gateway.service.PaymentResponseCache.SerializedPayment;
+import com.checkout.payment.gateway.validation.PaymentRequestValidator;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.io.InterruptedIOException;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpServerErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Mono;
 
 import static com.checkout.payment.gateway.enums.PaymentStatus.AUTHORIZED;
 import static com.checkout.payment.gateway.enums.PaymentStatus.DECLINED;
@@ -25,14 +33,24 @@ import static com.checkout.payment.gateway.enums.PaymentStatus.DECLINED;
 public class PaymentGatewayService {
 
   private static final Logger LOG = LoggerFactory.getLogger(PaymentGatewayService.class);
-  private static final String BANK_URL = "http://localhost:8080/payments";
 
   private final PaymentsRepository paymentsRepository;
-  private final RestTemplate restTemplate;
-
-  public PaymentGatewayService(PaymentsRepository paymentsRepository, RestTemplate restTemplate) {
+  private final BankClient bankClient;
+  private final PaymentMetrics paymentMetrics;
+  private final ObservationRegistry observationRegistry;
+  private final PaymentRequestValidator paymentRequestValidator;
+  private final PaymentResponseCache paymentResponseCache;
+
+  public PaymentGatewayService(PaymentsRepository paymentsRepository, BankClient bankClient,
+      PaymentMetrics paymentMetrics, ObservationRegistry observationRegistry,
+      PaymentRequestValidator paymentRequestValidator,
+      PaymentResponseCache paymentResponseCache) {
     this.paymentsRepository = paymentsRepository;
-    this.restTemplate = restTemplate;
+    this.bankClient = bankClient;
+    this.paymentMetrics = paymentMetrics;
+    this.observationRegistry = observationRegistry;
+    this.paymentRequestValidator = paymentRequestValidator;
+    this.paymentResponseCache = paymentResponseCache;
   }
 
   private static PostPaymentResponse getPostPaymentResponse(PostPaymentRequest paymentRequest,
@@ -48,61 +66,155 @@ public class PaymentGatewayService {
     return postPaymentResponse;
   }
 
-  public PostPaymentResponse getPaymentById(UUID id) {
-    LOG.debug("Requesting access to to payment with ID {}", id);
-    return paymentsRepository.get(id).orElseThrow(() -> new EventProcessingException("Invalid ID"));
+  /**
+   * Returns the payment's serialized response, or null if there is no such payment. Bodies are
+   * cached, and a cache hit only checks the payment has not since been evicted from the store.
+   */
+  public SerializedPayment getSerializedPayment(UUID id) {
+    long start = System.nanoTime();
+    SerializedPayment cached = paymentResponseCache.get(id);
+    if (cached != null) {
+      boolean stored = paymentsRepository.contains(id);
+      paymentMetrics.recordRepositoryGet(System.nanoTime() - start);
+      return stored ? cached : null;
+    }
+    PostPaymentResponse payment = paymentsRepository.find(id);
+    paymentMetrics.recordRepositoryGet(System.nanoTime() - start);
+    if (payment == null) {
+      LOG.debug("Payment {} not found", id);
+      return null;
+    }
+    return paymentResponseCache.put(payment);
   }
 
   public UUID processPayment(PostPaymentRequest paymentRequest) {
+    try {
+      return processPaymentAsync(paymentRequest).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
 
-    UUID uuid = null;
-    LocalDate currentDate = LocalDate.now();
+  /**
+   * {@link #processPaymentAsync} for the reactive stack; empty when the payment is declined.
+   */
+  public Mono<UUID> processPaymentMono(PostPaymentRequest paymentRequest) {
+    return Mono.fromFuture(() -> processPaymentAsync(paymentRequest));
+  }
 
-    if (currentDate.getYear() > paymentRequest.getExpiryYear()) {
-      LOG.warn("Invalid year {}", paymentRequest);
-      return uuid;
-    }
-    if (currentDate.getMonthValue() > paymentRequest.getExpiryMonth()) {
-      LOG.warn("Invalid month {}", paymentRequest);
-      return uuid;
+  public CompletableFuture<UUID> processPaymentAsync(PostPaymentRequest paymentRequest) {
+    Observation observation = Observation.start("payment.process", observationRegistry);
+    CompletableFuture<UUID> result;
+    try (Observation.Scope scope = observation.openScope()) {
+      result = process(paymentRequest, observation);
+    } catch (RuntimeException e) {
+      observation.error(e);
+      observation.stop();
+      throw e;
     }
+    return result.whenComplete((id, failure) -> {
+      if (failure != null) {
+        observation.error(failure);
+      }
+      observation.stop();
+    });
+  }
 
-    if (!paymentRequest.getCurrency().equals(Currency.EUR.toString())
-        && !paymentRequest.getCurrency().equals(Currency.USD.toString())
-        && !paymentRequest.getCurrency().equals(Currency.GBP.toString())) {
-      LOG.warn("Invalid currency {}", paymentRequest);
-      return uuid;
+  private CompletableFuture<UUID> process(PostPaymentRequest paymentRequest,
+      Observation parent) {
+    RejectionReason rejection = Observation.createNotStarted("payment.check", observationRegistry)
+        .observe(() -> paymentRequestValidator.checkAuthorizable(paymentRequest));
+    if (rejection != null) {
+      LOG.warn("Payment rejected ({}) {}", rejection, paymentRequest);
+      paymentMetrics.recordRejection(rejection);
+      return CompletableFuture.completedFuture(null);
     }
 
-    HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.APPLICATION_JSON);
-    HttpEntity<PostPaymentRequest> requestEntity = new HttpEntity<>(paymentRequest, headers);
-
-    try {
-      ResponseEntity<PostAuthResponse> response = restTemplate.postForEntity(
-          BANK_URL, requestEntity, PostAuthResponse.class
-      );
-
-      if (response != null
-          && response.getStatusCode().is2xxSuccessful()
-          && response.getBody() != null
-          && !response.getBody().getAuthorization_code().isEmpty()) {
-
-        uuid = UUID.fromString(response.getBody().getAuthorization_code());
-        paymentRequest.setCardNumberLastFour(
-            paymentRequest.getCardNumberLastFour()
-                .substring(paymentRequest.getCardNumberLastFour().length() - 4)
-        );
-        PostPaymentResponse postPaymentResponse = getPostPaymentResponse(paymentRequest, uuid);
-        LOG.info("Saving payment with ID {}", uuid);
-        paymentsRepository.add(postPaymentResponse);
+    Observation bankObservation =
+        Observation.start("payment.bank.authorize", observationRegistry);
+    CompletableFuture<PostAuthResponse> authorization;
+    try (Observation.Scope scope = bankObservation.openScope()) {
+      authorization = bankClient.authorize(paymentRequest);
+    } catch (RuntimeException e) {
+      bankObservation.error(e);
+      bankObservation.stop();
+      throw e;
+    }
+    return authorization.handle((response, failure) -> {
+      if (failure != null) {
+        bankObservation.error(failure);
+        bankObservation.stop();
+        throw translateBankFailure(failure);
       }
+      bankObservation.stop();
+      return onBankResponse(paymentRequest, response, parent);
+    });
+  }
 
-    } catch (HttpServerErrorException e) {
-      LOG.error("Bank simulator returned a server error: {}", e.getMessage());
-      throw new EventProcessingException("Bank service unavailable");
+  private UUID onBankResponse(PostPaymentRequest paymentRequest, PostAuthResponse response,
+      Observation parent) {
+    if (response == null
+        || response.getAuthorization_code() == null
+        || response.getAuthorization_code().isEmpty()) {
+      return null;
     }
 
+    UUID uuid = UUID.fromString(response.getAuthorization_code());
+    paymentRequest.setCardNumberLastFour(
+        paymentRequest.getCardNumberLastFour()
+            .substring(paymentRequest.getCardNumberLastFour().length() - 4)
+    );
+    PostPaymentResponse postPaymentResponse = getPostPaymentResponse(paymentRequest, uuid);
+    LOG.info("Saving payment with ID {}", uuid);
+    Observation.createNotStarted("payment.store", observationRegistry)
+        .parentObservation(parent)
+        .observe(() -> {
+          long start = System.nanoTime();
+          paymentsRepository.add(postPaymentResponse);
+          paymentMetrics.recordRepositoryAdd(System.nanoTime() - start);
+        });
     return uuid;
   }
+
+  private static RuntimeException translateBankFailure(Throwable failure) {
+    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause() : failure;
+    // Checked first, since some connect timeouts are also InterruptedIOExceptions.
+    if (RetryingBankClient.isConnectFailure(cause)) {
+      LOG.error("Bank simulator could not be reached: {}", cause.getMessage());
+      return new BankUnavailableException("Bank service unavailable");
+    }
+    if (isTimeout(cause)) {
+      LOG.error("Bank simulator did not respond in time: {}", cause.getMessage());
+      return new BankTimeoutException("Bank service timed out");
+    }
+    if (cause instanceof HttpServerErrorException) {
+      LOG.error("Bank simulator returned a server error: {}", cause.getMessage());
+      return new BankUnavailableException("Bank service unavailable");
+    }
+    if (cause instanceof ResourceAccessException) {
+      LOG.error("Bank simulator could not be reached: {}", cause.getMessage());
+      return new BankUnavailableException("Bank service unavailable");
+    }
+    if (cause instanceof CallNotPermittedException) {
+      LOG.warn("Bank call rejected: {}", cause.getMessage());
+      return new BankUnavailableException("Bank service unavailable");
+    }
+    if (cause instanceof RuntimeException runtimeException) {
+      return runtimeException;
+    }
+    return new CompletionException(cause);
+  }
+
+  private static boolean isTimeout(Throwable failure) {
+    for (Throwable t = failure; t != null; t = t.getCause()) {
+      if (t instanceof TimeoutException || t instanceof InterruptedIOException) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
@@ -0,0 +1,49 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.enums.RejectionReason;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PaymentMetrics {
+
+  private final Map<RejectionReason, Counter> rejections = new EnumMap<>(RejectionReason.class);
+  private final Timer repositoryAdd;
+  private final Timer repositoryGet;
+
+  public PaymentMetrics(MeterRegistry registry, PaymentsRepository paymentsRepository) {
+    for (RejectionReason reason : RejectionReason.values()) {
+      rejections.put(reason, Counter.builder("payments.rejected")
+          .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+          .register(registry));
+    }
+    repositoryAdd = Timer.builder("payments.repository")
+        .tag("operation", "add")
+        .register(registry);
+    repositoryGet = Timer.builder("payments.repository")
+        .tag("operation", "get")
+        .register(registry);
+    Gauge.builder("payments.repository.size", paymentsRepository, PaymentsRepository::size)
+        .register(registry);
+  }
+
+  public void recordRejection(RejectionReason reason) {
+    rejections.get(reason).increment();
+  }
+
+  public void recordRepositoryAdd(long nanos) {
+    repositoryAdd.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordRepositoryGet(long nanos) {
+    repositoryGet.record(nanos, TimeUnit.NANOSECONDS);
+  }
+}
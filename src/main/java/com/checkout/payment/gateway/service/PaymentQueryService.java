@@ -0,0 +1,69 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.PaymentPage;
+import com.checkout.payment.gateway.repository.PaymentQuery;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import java.io.IOException;
+import java.util.UUID;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bulk reads for reconciliation: lookups by ID and paged listings. Payments are handed to the
+ * sink one at a time as they are read from the store, so callers can stream them.
+ */
+@Service
+public class PaymentQueryService {
+
+  public interface PaymentSink {
+
+    void accept(PostPaymentResponse payment) throws IOException;
+  }
+
+  private final PaymentsRepository paymentsRepository;
+  private final PaymentMetrics paymentMetrics;
+
+  public PaymentQueryService(PaymentsRepository paymentsRepository,
+      PaymentMetrics paymentMetrics) {
+    this.paymentsRepository = paymentsRepository;
+    this.paymentMetrics = paymentMetrics;
+  }
+
+  /**
+   * Passes every stored payment among {@code ids} to the sink, in request order, and returns how
+   * many were found. Unknown IDs are skipped.
+   */
+  public int lookup(Iterable<UUID> ids, PaymentSink sink) throws IOException {
+    int found = 0;
+    for (UUID id : ids) {
+      if (emit(id, sink)) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Passes the payments on the requested page to the sink and returns the cursor of the next
+   * page, or null when there are no more payments.
+   */
+  public Long list(PaymentQuery query, PaymentSink sink) throws IOException {
+    PaymentPage page = paymentsRepository.list(query);
+    for (UUID id : page.ids()) {
+      // Skips payments evicted from the store since the page was read.
+      emit(id, sink);
+    }
+    return page.nextCursor();
+  }
+
+  private boolean emit(UUID id, PaymentSink sink) throws IOException {
+    long start = System.nanoTime();
+    PostPaymentResponse payment = paymentsRepository.find(id);
+    paymentMetrics.recordRepositoryGet(System.nanoTime() - start);
+    if (payment == null) {
+      return false;
+    }
+    sink.accept(payment);
+    return true;
+  }
+}
@@ -0,0 +1,61 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Serialized payment responses and their strong ETags, keyed by payment ID.
+ *
+ * <p>Payments never change once stored, so a response body can be serialized once and served
+ * as-is on every later read. The cache is direct-mapped: each ID hashes to one slot, and a new
+ * entry simply replaces whatever held the slot, so it is bounded and lock-free and a collision
+ * only costs a re-serialization.
+ */
+public class PaymentResponseCache {
+
+  private final ObjectWriter writer;
+  private final AtomicReferenceArray<SerializedPayment> slots;
+  private final int mask;
+
+  public PaymentResponseCache(ObjectWriter writer, int size) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Size must be positive: " + size);
+    }
+    this.writer = writer.forType(PostPaymentResponse.class);
+    this.slots = new AtomicReferenceArray<>(Integer.highestOneBit(size * 2 - 1));
+    this.mask = slots.length() - 1;
+  }
+
+  public SerializedPayment get(UUID id) {
+    SerializedPayment cached = slots.get(slot(id));
+    return cached != null && cached.id().equals(id) ? cached : null;
+  }
+
+  public SerializedPayment put(PostPaymentResponse payment) {
+    byte[] body;
+    try {
+      body = writer.writeValueAsBytes(payment);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException("Failed to serialize payment " + payment.getId(), e);
+    }
+    // Same format as Spring's ShallowEtagHeaderFilter.
+    String etag = "\"0" + DigestUtils.md5DigestAsHex(body) + '"';
+    SerializedPayment serialized = new SerializedPayment(payment.getId(), body, etag);
+    slots.lazySet(slot(payment.getId()), serialized);
+    return serialized;
+  }
+
+  private int slot(UUID id) {
+    long bits = id.getMostSignificantBits() ^ id.getLeastSignificantBits();
+    int hash = (int) (bits ^ bits >>> 32);
+    return (hash ^ hash >>> 16) & mask;
+  }
+
+  public record SerializedPayment(UUID id, byte[] body, String etag) {
+  }
+}
@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.tracing;
+
+import java.util.Map;
+
+public record FinishedSpan(String traceId, String spanId, String parentId, String name,
+    long startMicros, long durationMicros, String error, Map<String, String> tags) {
+}
@@ -0,0 +1,91 @@
+package com.checkout.payment.gateway.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.lang.reflect.Type;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+/**
+ * Wraps reading of {@code @RequestBody} arguments (Jackson binding) in an
+ * {@code http.request.read} observation. The interceptor side stops the observation if the body
+ * could not be read, since no advice callback runs in that case.
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ObservedRequestBodyAdvice extends RequestBodyAdviceAdapter
+    implements HandlerInterceptor {
+
+  private static final String OBSERVATION_ATTRIBUTE =
+      ObservedRequestBodyAdvice.class.getName() + ".observation";
+
+  private final ObservationRegistry observationRegistry;
+
+  public ObservedRequestBodyAdvice(ObjectProvider<ObservationRegistry> observationRegistry) {
+    this.observationRegistry = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+  }
+
+  @Override
+  public boolean supports(MethodParameter methodParameter, Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    return !observationRegistry.isNoop();
+  }
+
+  @Override
+  public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter,
+      Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+    Observation observation = Observation.createNotStarted("http.request.read", observationRegistry)
+        .lowCardinalityKeyValue("type", parameter.getParameterType().getSimpleName())
+        .start();
+    RequestContextHolder.currentRequestAttributes()
+        .setAttribute(OBSERVATION_ATTRIBUTE, observation, RequestAttributes.SCOPE_REQUEST);
+    return inputMessage;
+  }
+
+  @Override
+  public Object afterBodyRead(Object body, HttpInputMessage inputMessage,
+      MethodParameter parameter, Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    stop(RequestContextHolder.currentRequestAttributes());
+    return body;
+  }
+
+  @Override
+  public Object handleEmptyBody(Object body, HttpInputMessage inputMessage,
+      MethodParameter parameter, Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    stop(RequestContextHolder.currentRequestAttributes());
+    return body;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+      Object handler, Exception ex) {
+    if (request.getAttribute(OBSERVATION_ATTRIBUTE) instanceof Observation observation) {
+      request.removeAttribute(OBSERVATION_ATTRIBUTE);
+      if (ex != null) {
+        observation.error(ex);
+      }
+      observation.stop();
+    }
+  }
+
+  private static void stop(RequestAttributes attributes) {
+    Object observation =
+        attributes.getAttribute(OBSERVATION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (observation instanceof Observation started) {
+      attributes.removeAttribute(OBSERVATION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+      started.stop();
+    }
+  }
+}
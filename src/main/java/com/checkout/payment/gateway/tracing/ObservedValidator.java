@@ -0,0 +1,40 @@
+package com.checkout.payment.gateway.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+/**
+ * Runs bean validation of request bodies inside an {@code http.request.validate} observation.
+ */
+public class ObservedValidator implements SmartValidator {
+
+  private final SmartValidator delegate;
+  private final ObservationRegistry observationRegistry;
+
+  public ObservedValidator(SmartValidator delegate, ObservationRegistry observationRegistry) {
+    this.delegate = delegate;
+    this.observationRegistry = observationRegistry;
+  }
+
+  @Override
+  public boolean supports(Class<?> clazz) {
+    return delegate.supports(clazz);
+  }
+
+  @Override
+  public void validate(Object target, Errors errors) {
+    observation(target).observe(() -> delegate.validate(target, errors));
+  }
+
+  @Override
+  public void validate(Object target, Errors errors, Object... validationHints) {
+    observation(target).observe(() -> delegate.validate(target, errors, validationHints));
+  }
+
+  private Observation observation(Object target) {
+    return Observation.createNotStarted("http.request.validate", observationRegistry)
+        .lowCardinalityKeyValue("type", target.getClass().getSimpleName());
+  }
+}
@@ -0,0 +1,145 @@
+package com.checkout.payment.gateway.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-process span exporter. Keeps the most recent finished spans in a fixed-size ring that
+ * writers overwrite without locking, and optionally appends them as JSON lines to a local file
+ * from a background thread. Spans that are overwritten before the file writer reaches them are
+ * counted as dropped.
+ */
+public class SpanRecorder extends SpanHandler implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SpanRecorder.class);
+
+  private final AtomicReferenceArray<FinishedSpan> spans;
+  private final int mask;
+  private final AtomicLong sequence = new AtomicLong();
+  private final AtomicLong droppedSpans = new AtomicLong();
+
+  private final ObjectWriter writer;
+  private final Path exportFile;
+  private final long exportIntervalNanos;
+  private Thread exporter;
+  private volatile boolean running;
+
+  public SpanRecorder(int bufferSize, ObjectWriter writer, Path exportFile,
+      Duration exportInterval) {
+    int size = Integer.highestOneBit(Math.max(1, bufferSize) * 2 - 1);
+    this.spans = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+    this.writer = writer;
+    this.exportFile = exportFile;
+    this.exportIntervalNanos = exportInterval.toNanos();
+    if (exportFile != null) {
+      running = true;
+      exporter = new Thread(this::runExporter, "span-exporter");
+      exporter.setDaemon(true);
+      exporter.start();
+    }
+  }
+
+  @Override
+  public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+    if (cause != Cause.FINISHED) {
+      return true;
+    }
+    Map<String, String> tags = span.tagCount() == 0
+        ? Collections.emptyMap() : new LinkedHashMap<>(span.tagCount());
+    span.forEachTag(Map::put, tags);
+    String error = span.error() != null ? span.error().getClass().getSimpleName() : null;
+    FinishedSpan finished = new FinishedSpan(span.traceId(), span.id(), span.parentId(),
+        span.name(), span.startTimestamp(), span.finishTimestamp() - span.startTimestamp(), error,
+        tags);
+    long position = sequence.getAndIncrement();
+    spans.setRelease((int) position & mask, finished);
+    return true;
+  }
+
+  /**
+   * Returns up to {@code limit} of the most recently finished spans, newest first, or none when
+   * {@code limit} is not positive.
+   */
+  public List<FinishedSpan> recent(int limit) {
+    if (limit <= 0) {
+      return List.of();
+    }
+    long end = sequence.get();
+    long start = Math.max(0, end - Math.min(limit, mask + 1));
+    List<FinishedSpan> recent = new ArrayList<>((int) (end - start));
+    for (long position = end - 1; position >= start; position--) {
+      FinishedSpan span = spans.getAcquire((int) position & mask);
+      if (span != null) {
+        recent.add(span);
+      }
+    }
+    return recent;
+  }
+
+  public long getDroppedSpans() {
+    return droppedSpans.get();
+  }
+
+  private void runExporter() {
+    long exported = 0;
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(exportFile,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+      while (running) {
+        LockSupport.parkNanos(this, exportIntervalNanos);
+        exported = export(out, exported);
+      }
+      export(out, exported);
+    } catch (IOException e) {
+      LOG.error("Span export to {} stopped", exportFile, e);
+    }
+  }
+
+  private long export(OutputStream out, long from) throws IOException {
+    long end = sequence.get();
+    long start = Math.max(from, end - (mask + 1));
+    droppedSpans.addAndGet(start - from);
+    for (long position = start; position < end; position++) {
+      FinishedSpan span = spans.getAcquire((int) position & mask);
+      if (span != null) {
+        out.write(writer.writeValueAsBytes(span));
+        out.write('\n');
+      }
+    }
+    out.flush();
+    return end;
+  }
+
+  @Override
+  public void close() {
+    if (exporter == null) {
+      return;
+    }
+    running = false;
+    LockSupport.unpark(exporter);
+    try {
+      exporter.join(1000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
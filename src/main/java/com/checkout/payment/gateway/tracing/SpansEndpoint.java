@@ -0,0 +1,23 @@
+package com.checkout.payment.gateway.tracing;
+
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+@Endpoint(id = "spans")
+public class SpansEndpoint {
+
+  private static final int DEFAULT_LIMIT = 100;
+
+  private final SpanRecorder spanRecorder;
+
+  public SpansEndpoint(SpanRecorder spanRecorder) {
+    this.spanRecorder = spanRecorder;
+  }
+
+  @ReadOperation
+  public List<FinishedSpan> spans(@Nullable Integer limit) {
+    return spanRecorder.recent(limit == null ? DEFAULT_LIMIT : limit);
+  }
+}
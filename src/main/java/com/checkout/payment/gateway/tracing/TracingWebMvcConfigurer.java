@@ -0,0 +1,42 @@
+package com.checkout.payment.gateway.tracing;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TracingWebMvcConfigurer implements WebMvcConfigurer {
+
+  private final ObjectProvider<ObservationRegistry> observationRegistry;
+  private final ObjectProvider<jakarta.validation.Validator> validator;
+  private final ObservedRequestBodyAdvice requestBodyAdvice;
+
+  public TracingWebMvcConfigurer(ObjectProvider<ObservationRegistry> observationRegistry,
+      ObjectProvider<jakarta.validation.Validator> validator,
+      ObservedRequestBodyAdvice requestBodyAdvice) {
+    this.observationRegistry = observationRegistry;
+    this.validator = validator;
+    this.requestBodyAdvice = requestBodyAdvice;
+  }
+
+  @Override
+  public Validator getValidator() {
+    ObservationRegistry registry = observationRegistry.getIfAvailable();
+    jakarta.validation.Validator beanValidator = validator.getIfAvailable();
+    if (registry == null || registry.isNoop() || beanValidator == null) {
+      return null;
+    }
+    return new ObservedValidator(new SpringValidatorAdapter(beanValidator), registry);
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(requestBodyAdvice);
+  }
+}
@@ -0,0 +1,26 @@
+package com.checkout.payment.gateway.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated string must be 14 to 19 ASCII digits and, when
+ * {@code payments.validation.luhn=true}, pass the Luhn check. Null values are valid.
+ */
+@Documented
+@Constraint(validatedBy = CardNumberValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CardNumber {
+
+  String message() default "Card number is not valid";
+
+  Class<?>[] groups() default {};
+
+  Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,29 @@
+package com.checkout.payment.gateway.validation;
+
+import com.checkout.payment.gateway.enums.RejectionReason;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import java.util.EnumSet;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class CardNumberValidator implements ConstraintValidator<CardNumber, String> {
+
+  private final PaymentRequestValidator validator;
+
+  public CardNumberValidator() {
+    this.validator = PaymentRequestValidator.DEFAULT;
+  }
+
+  @Autowired
+  public CardNumberValidator(ObjectProvider<PaymentRequestValidator> validator) {
+    this.validator = validator.getIfAvailable(() -> PaymentRequestValidator.DEFAULT);
+  }
+
+  @Override
+  public boolean isValid(String value, ConstraintValidatorContext context) {
+    EnumSet<RejectionReason> reasons = EnumSet.noneOf(RejectionReason.class);
+    validator.addCardNumberReasons(value, reasons);
+    return RejectionReasons.report(reasons, context);
+  }
+}
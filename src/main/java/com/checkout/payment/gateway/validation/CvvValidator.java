@@ -0,0 +1,16 @@
+package com.checkout.payment.gateway.validation;
+
+import com.checkout.payment.gateway.enums.RejectionReason;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import java.util.EnumSet;
+
+public class CvvValidator implements ConstraintValidator<Cvv, String> {
+
+  @Override
+  public boolean isValid(String value, ConstraintValidatorContext context) {
+    EnumSet<RejectionReason> reasons = EnumSet.noneOf(RejectionReason.class);
+    PaymentRequestValidator.DEFAULT.addCvvReasons(value, reasons);
+    return RejectionReasons.report(reasons, context);
+  }
+}
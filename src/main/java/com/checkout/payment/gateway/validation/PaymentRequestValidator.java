@@ -0,0 +1,167 @@
+package com.checkout.payment.gateway.validation;
+
+import com.checkout.payment.gateway.enums.Currency;
+import com.checkout.payment.gateway.enums.RejectionReason;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Payment request checks without regular expressions or per-request date lookups.
+ *
+ * <p>Card numbers and CVVs are checked by scanning their characters, with an optional Luhn
+ * check. Currencies are matched with a switch on the {@link Currency} codes. Expiry dates are
+ * compared with the current year and month, cached and refreshed at most once per second.
+ */
+public class PaymentRequestValidator {
+
+  public static final PaymentRequestValidator DEFAULT =
+      new PaymentRequestValidator(Clock.systemDefaultZone(), false);
+
+  private static final int MIN_CARD_DIGITS = 14;
+  private static final int MAX_CARD_DIGITS = 19;
+  private static final int MIN_CVV_DIGITS = 3;
+  private static final int MAX_CVV_DIGITS = 4;
+  private static final long REFRESH_MILLIS = 1000;
+
+  private final Clock clock;
+  private final boolean luhnCheckEnabled;
+  private volatile CurrentMonth currentMonth;
+
+  public PaymentRequestValidator(Clock clock, boolean luhnCheckEnabled) {
+    this.clock = clock;
+    this.luhnCheckEnabled = luhnCheckEnabled;
+    this.currentMonth = CurrentMonth.at(clock);
+  }
+
+  /**
+   * Returns every reason the request would be rejected for, or an empty set.
+   */
+  public EnumSet<RejectionReason> validate(PostPaymentRequest request) {
+    EnumSet<RejectionReason> reasons = EnumSet.noneOf(RejectionReason.class);
+    addCardNumberReasons(request.getCardNumberLastFour(), reasons);
+    addCvvReasons(request.getCvv(), reasons);
+    RejectionReason expiry = checkExpiry(request.getExpiryYear(), request.getExpiryMonth());
+    if (expiry != null) {
+      reasons.add(expiry);
+    }
+    if (checkCurrency(request.getCurrency()) != null) {
+      reasons.add(RejectionReason.CURRENCY);
+    }
+    return reasons;
+  }
+
+  /**
+   * Checks the rules that decide whether a well-formed request may be sent to the bank: the card
+   * must not have expired and the currency must be supported. Returns null when both hold.
+   */
+  public RejectionReason checkAuthorizable(PostPaymentRequest request) {
+    RejectionReason expiry = checkExpiry(request.getExpiryYear(), request.getExpiryMonth());
+    return expiry != null ? expiry : checkCurrency(request.getCurrency());
+  }
+
+  public void addCardNumberReasons(String cardNumber, Set<RejectionReason> reasons) {
+    if (cardNumber == null) {
+      return;
+    }
+    int length = cardNumber.length();
+    boolean lengthValid = length >= MIN_CARD_DIGITS && length <= MAX_CARD_DIGITS;
+    boolean digits = isDigits(cardNumber);
+    if (!lengthValid) {
+      reasons.add(RejectionReason.CARD_NUMBER_LENGTH);
+    }
+    if (!digits) {
+      reasons.add(RejectionReason.CARD_NUMBER_DIGITS);
+    }
+    if (luhnCheckEnabled && lengthValid && digits && !isLuhnValid(cardNumber)) {
+      reasons.add(RejectionReason.CARD_NUMBER_LUHN);
+    }
+  }
+
+  public void addCvvReasons(String cvv, Set<RejectionReason> reasons) {
+    if (cvv == null) {
+      return;
+    }
+    if (cvv.length() < MIN_CVV_DIGITS || cvv.length() > MAX_CVV_DIGITS) {
+      reasons.add(RejectionReason.CVV_LENGTH);
+    }
+    if (!isDigits(cvv)) {
+      reasons.add(RejectionReason.CVV_DIGITS);
+    }
+  }
+
+  public RejectionReason checkExpiry(int year, int month) {
+    CurrentMonth now = currentMonth;
+    long millis = clock.millis();
+    if (millis >= now.refreshAt) {
+      now = CurrentMonth.at(clock);
+      currentMonth = now;
+    }
+    if (year < now.year) {
+      return RejectionReason.EXPIRY_YEAR;
+    }
+    if (year == now.year && month < now.month) {
+      return RejectionReason.EXPIRY_MONTH;
+    }
+    return null;
+  }
+
+  public RejectionReason checkCurrency(String code) {
+    return currencyOf(code) != null ? null : RejectionReason.CURRENCY;
+  }
+
+  static Currency currencyOf(String code) {
+    if (code == null || code.length() != 3) {
+      return null;
+    }
+    return switch (code) {
+      case "GBP" -> Currency.GBP;
+      case "USD" -> Currency.USD;
+      case "EUR" -> Currency.EUR;
+      default -> null;
+    };
+  }
+
+  // Matches \d+: non-empty and ASCII digits only.
+  static boolean isDigits(CharSequence value) {
+    int length = value.length();
+    if (length == 0) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static boolean isLuhnValid(CharSequence digits) {
+    int sum = 0;
+    boolean doubled = false;
+    for (int i = digits.length() - 1; i >= 0; i--) {
+      int digit = digits.charAt(i) - '0';
+      if (doubled) {
+        digit *= 2;
+        if (digit > 9) {
+          digit -= 9;
+        }
+      }
+      sum += digit;
+      doubled = !doubled;
+    }
+    return sum % 10 == 0;
+  }
+
+  private record CurrentMonth(int year, int month, long refreshAt) {
+
+    static CurrentMonth at(Clock clock) {
+      long millis = clock.millis();
+      LocalDate today = LocalDate.now(clock);
+      return new CurrentMonth(today.getYear(), today.getMonthValue(), millis + REFRESH_MILLIS);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.checkout.payment.gateway.validation;
+
+import com.checkout.payment.gateway.enums.RejectionReason;
+import jakarta.validation.ConstraintValidatorContext;
+import java.util.Set;
+
+final class RejectionReasons {
+
+  private RejectionReasons() {
+  }
+
+  // Reports one violation per reason, with the reason's message.
+  static boolean report(Set<RejectionReason> reasons, ConstraintValidatorContext context) {
+    if (reasons.isEmpty()) {
+      return true;
+    }
+    context.disableDefaultConstraintViolation();
+    for (RejectionReason reason : reasons) {
+      context.buildConstraintViolationWithTemplate(reason.getMessage()).addConstraintViolation();
+    }
+    return false;
+  }
+}
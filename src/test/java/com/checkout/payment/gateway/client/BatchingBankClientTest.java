@@ -0,0 +1,252 @@
+package com.checkout.payment.gateway.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+class BatchingBankClientTest {
+
+  private final FakeBank bank = new FakeBank();
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+  private BatchingBankClient client;
+
+  @BeforeEach
+  void setUp() {
+    observationRegistry.observationConfig().observationHandler(context -> true);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    client.close();
+  }
+
+  @Test
+  void whenAuthorizationsArriveWithinWindowThenTheyAreSentAsOneBatch() throws Exception {
+    client = client(Duration.ofMillis(200), 100);
+
+    List<CompletableFuture<PostAuthResponse>> results = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      results.add(client.authorize(request("000" + i)));
+    }
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(results.get(i).get(5, TimeUnit.SECONDS).getAuthorization_code())
+          .isEqualTo("000" + i);
+    }
+    assertThat(bank.batches).containsExactly(5);
+    assertThat(registry.summary("bank.batch.size").totalAmount()).isEqualTo(5);
+  }
+
+  @Test
+  void whenBatchIsFullThenItIsSentWithoutWaitingForTheWindow() throws Exception {
+    client = client(Duration.ofMinutes(1), 3);
+
+    List<CompletableFuture<PostAuthResponse>> results = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      results.add(client.authorize(request("000" + i)));
+    }
+
+    CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+    assertThat(bank.batches).containsExactly(3, 3);
+  }
+
+  @Test
+  void whenSingleAuthorizationIsQueuedThenItIsSentAlone() throws Exception {
+    client = client(Duration.ofMillis(1), 100);
+
+    PostAuthResponse response = client.authorize(request("0001")).get(5, TimeUnit.SECONDS);
+
+    assertThat(response.getAuthorization_code()).isEqualTo("0001");
+    assertThat(bank.batches).isEmpty();
+    assertThat(bank.singles).isEqualTo(1);
+  }
+
+  @Test
+  void whenOneAuthorizationInBatchFailsThenOnlyItFails() throws Exception {
+    bank.failingCard = "0002";
+    client = client(Duration.ofMillis(200), 100);
+
+    CompletableFuture<PostAuthResponse> first = client.authorize(request("0001"));
+    CompletableFuture<PostAuthResponse> second = client.authorize(request("0002"));
+    CompletableFuture<PostAuthResponse> third = client.authorize(request("0003"));
+
+    assertThat(first.get(5, TimeUnit.SECONDS).getAuthorization_code()).isEqualTo("0001");
+    assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(HttpServerErrorException.class);
+    assertThat(third.get(5, TimeUnit.SECONDS).getAuthorization_code()).isEqualTo("0003");
+    assertThat(bank.batches).containsExactly(3);
+    assertThat(bank.singles).isZero();
+  }
+
+  @Test
+  void whenBatchCallFailsThenEachAuthorizationIsSentAlone() throws Exception {
+    bank.batchFailure = new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+    bank.failingCard = "0002";
+    client = client(Duration.ofMillis(200), 100);
+
+    CompletableFuture<PostAuthResponse> first = client.authorize(request("0001"));
+    CompletableFuture<PostAuthResponse> second = client.authorize(request("0002"));
+
+    assertThat(first.get(5, TimeUnit.SECONDS).getAuthorization_code()).isEqualTo("0001");
+    assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(HttpServerErrorException.class);
+    assertThat(bank.batches).containsExactly(2);
+    assertThat(bank.singles).isEqualTo(2);
+    assertThat(registry.counter("bank.batch.fallbacks").count()).isEqualTo(1);
+  }
+
+  @Test
+  void whenBatchEndpointIsMissingThenEachAuthorizationIsSentAlone() throws Exception {
+    bank.batchFailure = new HttpClientErrorException(HttpStatus.NOT_FOUND);
+    client = client(Duration.ofMillis(200), 100);
+
+    CompletableFuture<PostAuthResponse> first = client.authorize(request("0001"));
+    CompletableFuture<PostAuthResponse> second = client.authorize(request("0002"));
+
+    assertThat(first.get(5, TimeUnit.SECONDS).getAuthorization_code()).isEqualTo("0001");
+    assertThat(second.get(5, TimeUnit.SECONDS).getAuthorization_code()).isEqualTo("0002");
+    assertThat(bank.singles).isEqualTo(2);
+  }
+
+  @Test
+  void whenBatchCallTimesOutThenNoAuthorizationIsSentAgain() throws Exception {
+    bank.batchFailure = new ResourceAccessException("Read timed out",
+        new SocketTimeoutException("Read timed out"));
+    client = client(Duration.ofMillis(200), 100);
+
+    CompletableFuture<PostAuthResponse> first = client.authorize(request("0001"));
+    CompletableFuture<PostAuthResponse> second = client.authorize(request("0002"));
+
+    assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(ResourceAccessException.class);
+    assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(ResourceAccessException.class);
+    assertThat(bank.batches).containsExactly(2);
+    assertThat(bank.singles).isZero();
+    assertThat(registry.counter("bank.batch.fallbacks").count()).isZero();
+  }
+
+  @Test
+  void whenBankAnswersTooFewAuthorizationsThenEveryAuthorizationFails() throws Exception {
+    bank.dropLast = true;
+    client = client(Duration.ofMillis(200), 100);
+
+    CompletableFuture<PostAuthResponse> first = client.authorize(request("0001"));
+    CompletableFuture<PostAuthResponse> second = client.authorize(request("0002"));
+
+    assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(RestClientException.class);
+    assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(RestClientException.class);
+    assertThat(bank.singles).isZero();
+  }
+
+  @Test
+  void whenBatchIsFullThenLeftoverIsSentByItsDeadline() throws Exception {
+    client = client(Duration.ofSeconds(2), 2);
+
+    CompletableFuture<PostAuthResponse> first = client.authorize(request("0001"));
+    Thread.sleep(1_000);
+    client.authorize(request("0002"));
+    CompletableFuture<PostAuthResponse> leftover = client.authorize(request("0003"));
+
+    // The first batch's deadline is a second away; a fresh window would be two.
+    first.get(5, TimeUnit.SECONDS);
+    assertThat(leftover.get(1_500, TimeUnit.MILLISECONDS).getAuthorization_code())
+        .isEqualTo("0003");
+  }
+
+  @Test
+  void whenAuthorizationIsQueuedThenBankIsCalledInTheCallersObservation() throws Exception {
+    client = client(Duration.ofMillis(1), 100);
+    Observation caller = Observation.start("payment", observationRegistry);
+
+    CompletableFuture<PostAuthResponse> response;
+    try (Observation.Scope scope = caller.openScope()) {
+      response = client.authorize(request("0001"));
+    }
+    response.get(5, TimeUnit.SECONDS);
+    caller.stop();
+
+    assertThat(bank.observations).containsExactly(caller);
+  }
+
+  private BatchingBankClient client(Duration window, int maxBatchSize) {
+    return new BatchingBankClient(bank, window, maxBatchSize, registry, observationRegistry);
+  }
+
+  private static PostPaymentRequest request(String lastFour) {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumberLastFour(lastFour);
+    return request;
+  }
+
+  private final class FakeBank implements BatchBankClient {
+
+    private final List<Integer> batches = new CopyOnWriteArrayList<>();
+    private final List<Observation> observations = new CopyOnWriteArrayList<>();
+    private volatile int singles;
+    private volatile RuntimeException batchFailure;
+    private volatile String failingCard;
+    private volatile boolean dropLast;
+
+    @Override
+    public CompletableFuture<PostAuthResponse> authorize(PostPaymentRequest paymentRequest) {
+      singles++;
+      observations.add(observationRegistry.getCurrentObservation());
+      if (paymentRequest.getCardNumberLastFour().equals(failingCard)) {
+        return CompletableFuture.failedFuture(
+            new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+      }
+      return CompletableFuture.completedFuture(response(paymentRequest));
+    }
+
+    @Override
+    public CompletableFuture<List<BatchOutcome>> authorizeBatch(
+        List<PostPaymentRequest> paymentRequests) {
+      batches.add(paymentRequests.size());
+      if (batchFailure != null) {
+        return CompletableFuture.failedFuture(batchFailure);
+      }
+      List<BatchOutcome> outcomes = new ArrayList<>();
+      for (PostPaymentRequest request : paymentRequests) {
+        outcomes.add(request.getCardNumberLastFour().equals(failingCard)
+            ? BatchOutcome.failed(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE))
+            : BatchOutcome.of(response(request)));
+      }
+      if (dropLast) {
+        outcomes.remove(outcomes.size() - 1);
+      }
+      return CompletableFuture.completedFuture(outcomes);
+    }
+
+    private static PostAuthResponse response(PostPaymentRequest request) {
+      PostAuthResponse response = new PostAuthResponse();
+      response.setAuthorization_code(request.getCardNumberLastFour());
+      return response;
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.checkout.payment.gateway.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+class InstrumentedBankClientTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void whenBankAnswersThenLatencyIsRecordedByAuthorizationOutcome() {
+    authorize(CompletableFuture.completedFuture(authResponse("true")));
+    authorize(CompletableFuture.completedFuture(authResponse("false")));
+    authorize(CompletableFuture.completedFuture(authResponse("false")));
+
+    assertThat(count("authorized")).isEqualTo(1);
+    assertThat(count("declined")).isEqualTo(2);
+  }
+
+  @Test
+  void whenBankCallFailsThenServerErrorsAndTimeoutsAreRecordedSeparately() {
+    authorize(CompletableFuture.failedFuture(
+        HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable",
+            null, null, null)));
+    authorize(CompletableFuture.failedFuture(
+        new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out"))));
+    authorize(CompletableFuture.failedFuture(new ResourceAccessException("Connection refused")));
+
+    assertThat(count("server_error")).isEqualTo(1);
+    assertThat(count("timeout")).isEqualTo(1);
+    assertThat(count("io_error")).isEqualTo(1);
+  }
+
+  private void authorize(CompletableFuture<PostAuthResponse> bankResponse) {
+    new InstrumentedBankClient(request -> bankResponse, registry)
+        .authorize(new PostPaymentRequest())
+        .exceptionally(failure -> null)
+        .join();
+  }
+
+  private long count(String outcome) {
+    return registry.get("bank.authorization").tag("outcome", outcome).timer().count();
+  }
+
+  private static PostAuthResponse authResponse(String authorized) {
+    PostAuthResponse response = new PostAuthResponse();
+    response.setAuthorized(authorized);
+    return response;
+  }
+}
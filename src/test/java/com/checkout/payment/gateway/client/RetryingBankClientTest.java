@@ -0,0 +1,119 @@
+package com.checkout.payment.gateway.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.resilience.LatencyPercentile;
+import com.checkout.payment.gateway.resilience.RetryPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+class RetryingBankClientTest {
+
+  private final BankClient delegate = mock(BankClient.class);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final PostPaymentRequest request = new PostPaymentRequest();
+  private RetryingBankClient client;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    client.close();
+  }
+
+  @Test
+  void whenBankIsUnavailableThenCallIsRetriedUntilItSucceeds() throws Exception {
+    client = client(3, Duration.ofSeconds(5), null);
+    PostAuthResponse authorized = new PostAuthResponse();
+    when(delegate.authorize(any()))
+        .thenReturn(CompletableFuture.failedFuture(serverError(HttpStatus.SERVICE_UNAVAILABLE)))
+        .thenReturn(CompletableFuture.failedFuture(
+            new ResourceAccessException("I/O error", new ConnectException("Connection refused"))))
+        .thenReturn(CompletableFuture.completedFuture(authorized));
+
+    assertThat(client.authorize(request).get(5, TimeUnit.SECONDS)).isSameAs(authorized);
+
+    verify(delegate, times(3)).authorize(request);
+    assertThat(registry.counter("bank.retries").count()).isEqualTo(2);
+  }
+
+  @Test
+  void whenAttemptsAreUsedUpThenLastFailureIsReturned() {
+    client = client(2, Duration.ofSeconds(5), null);
+    when(delegate.authorize(any())).thenAnswer(invocation ->
+        CompletableFuture.failedFuture(serverError(HttpStatus.SERVICE_UNAVAILABLE)));
+
+    assertThatThrownBy(() -> client.authorize(request).get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(HttpServerErrorException.class);
+    verify(delegate, times(2)).authorize(request);
+  }
+
+  @Test
+  void whenFailureMayHaveReachedTheBankThenCallIsNotRetried() {
+    client = client(3, Duration.ofSeconds(5), null);
+    when(delegate.authorize(any()))
+        .thenReturn(CompletableFuture.failedFuture(serverError(HttpStatus.INTERNAL_SERVER_ERROR)))
+        .thenReturn(CompletableFuture.failedFuture(
+            new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out"))));
+
+    assertThatThrownBy(() -> client.authorize(request).get(5, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(HttpServerErrorException.class);
+    assertThatThrownBy(() -> client.authorize(request).get(5, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(ResourceAccessException.class);
+    verify(delegate, times(2)).authorize(request);
+  }
+
+  @Test
+  void whenDeadlinePassesThenCallTimesOut() {
+    client = client(3, Duration.ofMillis(50), null);
+    when(delegate.authorize(any())).thenReturn(new CompletableFuture<>());
+
+    assertThatThrownBy(() -> client.authorize(request).get(5, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(TimeoutException.class);
+  }
+
+  @Test
+  void whenFirstAttemptIsSlowThenHedgedRequestAnswers() throws Exception {
+    client = client(1, Duration.ofSeconds(5),
+        new LatencyPercentile(0.95, 100, Duration.ofMillis(20)));
+    PostAuthResponse authorized = new PostAuthResponse();
+    when(delegate.authorize(any()))
+        .thenReturn(new CompletableFuture<>())
+        .thenReturn(CompletableFuture.completedFuture(authorized));
+
+    assertThat(client.authorize(request).get(5, TimeUnit.SECONDS)).isSameAs(authorized);
+
+    verify(delegate, times(2)).authorize(request);
+    assertThat(registry.counter("bank.hedges").count()).isEqualTo(1);
+  }
+
+  private RetryingBankClient client(int maxAttempts, Duration deadline,
+      LatencyPercentile hedgeDelay) {
+    return new RetryingBankClient(delegate,
+        new RetryPolicy(maxAttempts, Duration.ofMillis(1), Duration.ofMillis(10), deadline),
+        hedgeDelay, Executors.newVirtualThreadPerTaskExecutor(), registry);
+  }
+
+  private static HttpServerErrorException serverError(HttpStatus status) {
+    return HttpServerErrorException.create(status, status.getReasonPhrase(), null, null, null);
+  }
+}
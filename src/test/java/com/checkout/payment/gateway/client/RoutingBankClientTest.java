@@ -0,0 +1,147 @@
+package com.checkout.payment.gateway.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+class RoutingBankClientTest {
+
+  private static final String FIRST = "http://localhost:8081/payments";
+  private static final String SECOND = "http://localhost:8082/payments";
+  private static final String THIRD = "http://localhost:8083/payments";
+
+  private final AtomicLong clock = new AtomicLong();
+  private final Map<String, FakeBank> banks = new LinkedHashMap<>();
+
+  @Test
+  void whenEndpointHasCallsOutstandingThenNextCallGoesElsewhere() {
+    RoutingBankClient client = client(List.of(FIRST, SECOND), Map.of());
+    client.authorize(request("USD"));
+
+    client.authorize(request("USD"));
+
+    assertThat(banks.get(FIRST).calls).hasSize(1);
+    assertThat(banks.get(SECOND).calls).hasSize(1);
+  }
+
+  @Test
+  void whenEndpointIsSlowerThenItReceivesFewerCalls() {
+    RoutingBankClient client = client(List.of(FIRST, SECOND), Map.of());
+    for (int i = 0; i < 100; i++) {
+      client.authorize(request("USD"));
+      long rtt = banks.get(FIRST).calls.size() > banks.get(SECOND).calls.size() ? 50 : 5;
+      clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(rtt));
+      banks.values().forEach(FakeBank::complete);
+    }
+
+    assertThat(banks.get(SECOND).completed).isGreaterThan(banks.get(FIRST).completed * 2);
+  }
+
+  @Test
+  void whenCurrencyHasRouteThenOnlyItsEndpointsAreUsed() {
+    RoutingBankClient client = client(List.of(FIRST, SECOND), Map.of("gbp", List.of(THIRD)));
+
+    for (int i = 0; i < 10; i++) {
+      client.authorize(request("GBP"));
+    }
+    client.authorize(request("USD"));
+
+    assertThat(banks.get(THIRD).calls).hasSize(10);
+    assertThat(banks.get(FIRST).calls.size() + banks.get(SECOND).calls.size()).isEqualTo(1);
+  }
+
+  @Test
+  void whenEndpointKeepsFailingThenItIsEjectedUntilEjectionLapses() {
+    RoutingBankClient client = client(List.of(FIRST, SECOND), Map.of());
+    banks.get(FIRST).failing = true;
+    // Calls left outstanding on the second endpoint keep the failing one competitive.
+    while (banks.get(FIRST).completed < 3) {
+      client.authorize(request("USD"));
+      banks.get(FIRST).complete();
+    }
+    int callsWhenEjected = banks.get(FIRST).completed;
+
+    for (int i = 0; i < 10; i++) {
+      client.authorize(request("USD"));
+    }
+    assertThat(banks.get(FIRST).completed).isEqualTo(callsWhenEjected);
+    assertThat(banks.get(FIRST).calls).isEmpty();
+
+    clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+    banks.get(FIRST).failing = false;
+    client.authorize(request("USD"));
+
+    assertThat(banks.get(FIRST).calls).hasSize(1);
+  }
+
+  @Test
+  void whenEveryEndpointIsEjectedThenCallsStillGoThrough() {
+    RoutingBankClient client = client(List.of(FIRST, SECOND), Map.of());
+    banks.values().forEach(bank -> bank.failing = true);
+    for (int i = 0; i < 20; i++) {
+      client.authorize(request("USD"));
+      banks.values().forEach(FakeBank::complete);
+    }
+    int completed = banks.get(FIRST).completed + banks.get(SECOND).completed;
+
+    client.authorize(request("USD"));
+
+    assertThat(completed).isEqualTo(20);
+    assertThat(banks.get(FIRST).calls.size() + banks.get(SECOND).calls.size()).isEqualTo(1);
+  }
+
+  private RoutingBankClient client(List<String> defaultUrls, Map<String, List<String>> routes) {
+    Map<String, BankClient> clients = new LinkedHashMap<>();
+    for (String url : List.of(FIRST, SECOND, THIRD)) {
+      FakeBank bank = new FakeBank();
+      banks.put(url, bank);
+      clients.put(url, bank);
+    }
+    return new RoutingBankClient(clients, defaultUrls, routes, 3, Duration.ofSeconds(30),
+        Duration.ofSeconds(10), clock::get);
+  }
+
+  private static PostPaymentRequest request(String currency) {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCurrency(currency);
+    return request;
+  }
+
+  private static final class FakeBank implements BankClient {
+
+    private final List<CompletableFuture<PostAuthResponse>> calls = new ArrayList<>();
+    private boolean failing;
+    private int completed;
+
+    @Override
+    public CompletableFuture<PostAuthResponse> authorize(PostPaymentRequest paymentRequest) {
+      CompletableFuture<PostAuthResponse> call = new CompletableFuture<>();
+      calls.add(call);
+      return call;
+    }
+
+    void complete() {
+      for (CompletableFuture<PostAuthResponse> call : calls) {
+        completed++;
+        if (failing) {
+          call.completeExceptionally(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+        } else {
+          call.complete(new PostAuthResponse());
+        }
+      }
+      calls.clear();
+    }
+  }
+}
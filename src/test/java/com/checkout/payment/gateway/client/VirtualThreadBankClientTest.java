@@ -0,0 +1,91 @@
+package com.checkout.payment.gateway.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import io.micrometer.observation.ObservationRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+class VirtualThreadBankClientTest {
+
+  private final PostPaymentRequest request = new PostPaymentRequest();
+
+  @Test
+  void whenLimitIsReachedThenCallerIsRejectedAfterAcquireTimeout() throws Exception {
+    CompletableFuture<PostAuthResponse> slow = new CompletableFuture<>();
+    CountDownLatch called = new CountDownLatch(1);
+    try (VirtualThreadBankClient client = client(paymentRequest -> {
+      called.countDown();
+      return slow;
+    })) {
+      CompletableFuture<PostAuthResponse> first = client.authorize(request);
+      assertThat(called.await(5, TimeUnit.SECONDS)).isTrue();
+
+      assertThatThrownBy(() -> client.authorize(request).get(5, TimeUnit.SECONDS))
+          .hasCauseInstanceOf(ResourceAccessException.class)
+          .hasMessageContaining("Too many bank authorizations in flight");
+
+      slow.complete(new PostAuthResponse());
+      assertThat(first.get(5, TimeUnit.SECONDS)).isNotNull();
+    }
+  }
+
+  @Test
+  void whenBankCallFailsThenPermitIsReleased() throws Exception {
+    BankClient failsOnce = new BankClient() {
+      private boolean failed;
+
+      @Override
+      public CompletableFuture<PostAuthResponse> authorize(PostPaymentRequest paymentRequest) {
+        if (!failed) {
+          failed = true;
+          return CompletableFuture.failedFuture(
+              new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+        }
+        return CompletableFuture.completedFuture(new PostAuthResponse());
+      }
+    };
+    try (VirtualThreadBankClient client = client(failsOnce)) {
+      assertThatThrownBy(() -> client.authorize(request).get(5, TimeUnit.SECONDS))
+          .hasCauseInstanceOf(HttpServerErrorException.class);
+
+      assertThat(client.authorize(request).get(5, TimeUnit.SECONDS)).isNotNull();
+    }
+  }
+
+  @Test
+  void whenBankClientThrowsThenPermitIsReleased() throws Exception {
+    BankClient throwsOnce = new BankClient() {
+      private boolean thrown;
+
+      @Override
+      public CompletableFuture<PostAuthResponse> authorize(PostPaymentRequest paymentRequest) {
+        if (!thrown) {
+          thrown = true;
+          throw new ResourceAccessException("Connection refused");
+        }
+        return CompletableFuture.completedFuture(new PostAuthResponse());
+      }
+    };
+    try (VirtualThreadBankClient client = client(throwsOnce)) {
+      assertThatThrownBy(() -> client.authorize(request).get(5, TimeUnit.SECONDS))
+          .hasCauseInstanceOf(ResourceAccessException.class);
+
+      assertThat(client.authorize(request).get(5, TimeUnit.SECONDS)).isNotNull();
+    }
+  }
+
+  private static VirtualThreadBankClient client(BankClient delegate) {
+    return new VirtualThreadBankClient(delegate, 1, Duration.ofMillis(50),
+        ObservationRegistry.NOOP);
+  }
+}
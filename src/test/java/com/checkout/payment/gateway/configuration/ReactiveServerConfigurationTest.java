@@ -0,0 +1,30 @@
+package com.checkout.payment.gateway.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.web.reactive.ReactiveWebServerFactoryAutoConfiguration;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.reactive.server.ReactiveWebServerFactory;
+
+class ReactiveServerConfigurationTest {
+
+  @Test
+  void whenApplicationIsReactiveThenItRunsOnNettyAlthoughTomcatIsPresent() {
+    new ReactiveWebApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(ReactiveWebServerFactoryAutoConfiguration.class))
+        .withUserConfiguration(ReactiveServerConfiguration.class)
+        .run(context -> assertThat(context.getBean(ReactiveWebServerFactory.class))
+            .isInstanceOf(NettyReactiveWebServerFactory.class));
+  }
+
+  @Test
+  void whenApplicationIsServletThenNoNettyServerIsDeclared() {
+    new WebApplicationContextRunner()
+        .withUserConfiguration(ReactiveServerConfiguration.class)
+        .run(context -> assertThat(context).doesNotHaveBean(NettyReactiveWebServerFactory.class));
+  }
+}
@@ -0,0 +1,32 @@
+package com.checkout.payment.gateway.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+
+class VirtualThreadConfigurationTest {
+
+  private final WebApplicationContextRunner runner = new WebApplicationContextRunner()
+      .withUserConfiguration(VirtualThreadConfiguration.class);
+
+  @Test
+  void whenContextClosesThenVirtualThreadExecutorIsShutDown() {
+    AtomicReference<ExecutorService> executor = new AtomicReference<>();
+
+    runner.withPropertyValues("gateway.virtual-threads.enabled=true")
+        .run(context -> {
+          executor.set(context.getBean(ExecutorService.class));
+          assertThat(executor.get().isShutdown()).isFalse();
+        });
+
+    assertThat(executor.get().isShutdown()).isTrue();
+  }
+
+  @Test
+  void whenVirtualThreadsAreDisabledThenNoExecutorIsDeclared() {
+    runner.run(context -> assertThat(context).doesNotHaveBean(ExecutorService.class));
+  }
+}
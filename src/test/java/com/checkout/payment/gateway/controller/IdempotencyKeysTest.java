@@ -0,0 +1,49 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.junit.jupiter.api.Test;
+
+class IdempotencyKeysTest {
+
+  @Test
+  void whenRequestsMatchThenFingerprintsMatch() {
+    assertThat(IdempotencyKeys.fingerprint(request(1000, "123")))
+        .isEqualTo(IdempotencyKeys.fingerprint(request(1000, "123")));
+  }
+
+  @Test
+  void whenAmountDiffersThenFingerprintDiffers() {
+    assertThat(IdempotencyKeys.fingerprint(request(1000, "123")))
+        .isNotEqualTo(IdempotencyKeys.fingerprint(request(1001, "123")));
+  }
+
+  @Test
+  void whenOnlyCvvDiffersThenFingerprintIsTheSame() {
+    assertThat(IdempotencyKeys.fingerprint(request(1000, "123")))
+        .isEqualTo(IdempotencyKeys.fingerprint(request(1000, "456")));
+  }
+
+  @Test
+  void whenFieldsAreKnownThenFingerprintIsNotTheirPlainHash() throws Exception {
+    String fields = "1234567890123451\n12\n2030\nUSD\n1000";
+    byte[] plain = MessageDigest.getInstance("SHA-256")
+        .digest(fields.getBytes(StandardCharsets.UTF_8));
+
+    assertThat(IdempotencyKeys.fingerprint(request(1000, "123"))).isNotEqualTo(plain);
+  }
+
+  private static PostPaymentRequest request(int amount, String cvv) {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumberLastFour("1234567890123451");
+    request.setExpiryMonth(12);
+    request.setExpiryYear(2030);
+    request.setCurrency("USD");
+    request.setAmount(amount);
+    request.setCvv(cvv);
+    return request;
+  }
+}
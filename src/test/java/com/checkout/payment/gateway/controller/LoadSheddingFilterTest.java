@@ -0,0 +1,68 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.resilience.AdaptiveConcurrencyLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class LoadSheddingFilterTest {
+
+  private final AdaptiveConcurrencyLimiter limiter =
+      new AdaptiveConcurrencyLimiter("payments", 1, 1, 1);
+  private final LoadSheddingFilter filter =
+      new LoadSheddingFilter(limiter, new ObjectMapper().writer());
+
+  @Test
+  void whenRequestCompletesThenPermitIsReleased() throws Exception {
+    perform(new MockHttpServletRequest("POST", "/payment"), new MockFilterChain());
+
+    assertThat(limiter.getInFlight()).isZero();
+  }
+
+  @Test
+  void whenAsyncRequestIsInFlightThenNextRequestIsShedUntilItCompletes() throws Exception {
+    MockHttpServletRequest asyncRequest = new MockHttpServletRequest("POST", "/payment");
+    asyncRequest.setAsyncSupported(true);
+    perform(asyncRequest, new MockFilterChain(new HttpServlet() {
+      @Override
+      protected void service(HttpServletRequest request, HttpServletResponse response) {
+        request.startAsync();
+      }
+    }));
+
+    MockHttpServletResponse shed =
+        perform(new MockHttpServletRequest("POST", "/payment"), new MockFilterChain());
+
+    assertThat(shed.getStatus()).isEqualTo(429);
+    assertThat(shed.getHeader("Retry-After")).isEqualTo("1");
+
+    ((MockAsyncContext) asyncRequest.getAsyncContext()).complete();
+
+    assertThat(limiter.getInFlight()).isZero();
+  }
+
+  @Test
+  void whenRequestIsNotPostThenItIsNotLimited() throws Exception {
+    limiter.tryAcquire();
+
+    MockHttpServletResponse response =
+        perform(new MockHttpServletRequest("GET", "/payment"), new MockFilterChain());
+
+    assertThat(response.getStatus()).isEqualTo(200);
+  }
+
+  private MockHttpServletResponse perform(MockHttpServletRequest request, MockFilterChain chain)
+      throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, chain);
+    return response;
+  }
+}
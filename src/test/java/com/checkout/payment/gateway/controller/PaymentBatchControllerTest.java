@@ -0,0 +1,136 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.service.BatchPaymentService;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@WebMvcTest(PaymentBatchController.class)
+@Import(BatchPaymentService.class)
+class PaymentBatchControllerTest {
+
+  @Autowired
+  private MockMvc mvc;
+  @Autowired
+  private ObjectMapper objectMapper;
+  @MockBean
+  private PaymentGatewayService paymentGatewayService;
+
+  @Test
+  void whenOnePaymentIsDecidedThenItsLineIsWrittenBeforeTheBatchCompletes() throws Exception {
+    UUID authorizedId = UUID.randomUUID();
+    CompletableFuture<UUID> slowAuthorization = new CompletableFuture<>();
+    when(paymentGatewayService.processPaymentAsync(argThat(cardEndingIn("1"))))
+        .thenReturn(CompletableFuture.completedFuture(authorizedId));
+    when(paymentGatewayService.processPaymentAsync(argThat(cardEndingIn("2"))))
+        .thenReturn(slowAuthorization);
+
+    MvcResult result = mvc.perform(post("/payments/batch")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .content(ndjson(request("4111111111111112"), request("4111111111111111"))))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    List<JsonNode> firstChunk = awaitLines(result, 1);
+    assertThat(firstChunk).hasSize(1);
+    assertThat(firstChunk.get(0).get("index").asInt()).isEqualTo(1);
+    assertThat(firstChunk.get(0).get("status").asText()).isEqualTo("Authorized");
+    assertThat(firstChunk.get(0).get("id").asText()).isEqualTo(authorizedId.toString());
+
+    slowAuthorization.complete(null);
+    mvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+
+    List<JsonNode> lines = lines(result);
+    assertThat(lines).hasSize(2);
+    assertThat(lines.get(1).get("index").asInt()).isZero();
+    assertThat(lines.get(1).get("status").asText()).isEqualTo("Declined");
+  }
+
+  @Test
+  void whenBatchIsAJsonArrayThenInvalidItemsAreRejectedOnTheirOwnLine() throws Exception {
+    when(paymentGatewayService.processPaymentAsync(argThat(cardEndingIn("2"))))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    PostPaymentRequest invalid = request("4111111111111112");
+    invalid.setCvv("12");
+
+    MvcResult result = mvc.perform(post("/payments/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(
+                List.of(request("4111111111111112"), invalid))))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    mvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+    assertThat(lines(result))
+        .extracting(line -> line.get("index").asInt() + ":" + line.get("status").asText())
+        .containsExactlyInAnyOrder("0:Declined", "1:Rejected");
+  }
+
+  private List<JsonNode> awaitLines(MvcResult result, int count) throws Exception {
+    long deadline = System.nanoTime() + 5_000_000_000L;
+    List<JsonNode> lines = lines(result);
+    while (lines.size() < count && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+      lines = lines(result);
+    }
+    return lines;
+  }
+
+  private List<JsonNode> lines(MvcResult result) throws Exception {
+    List<JsonNode> lines = new ArrayList<>();
+    for (String line : result.getResponse().getContentAsString().split("\n")) {
+      if (!line.isBlank()) {
+        lines.add(objectMapper.readTree(line));
+      }
+    }
+    return lines;
+  }
+
+  private String ndjson(PostPaymentRequest... requests) throws Exception {
+    StringBuilder body = new StringBuilder();
+    for (PostPaymentRequest request : requests) {
+      body.append(objectMapper.writeValueAsString(request)).append('\n');
+    }
+    return body.toString();
+  }
+
+  private static ArgumentMatcher<PostPaymentRequest> cardEndingIn(String digit) {
+    return request -> request != null && request.getCardNumberLastFour().endsWith(digit);
+  }
+
+  private static PostPaymentRequest request(String cardNumber) {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumberLastFour(cardNumber);
+    request.setExpiryMonth(12);
+    request.setExpiryYear(2030);
+    request.setCurrency("USD");
+    request.setAmount(100);
+    request.setCvv("123");
+    return request;
+  }
+}
@@ -5,30 +5,48 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import com.checkout.payment.gateway.enums.PaymentStatus;
-import com.checkout.payment.gateway.exception.EventProcessingException;
+import com.checkout.payment.gateway.exception.BankTimeoutException;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
 import com.checkout.payment.gateway.model.PostPaymentRequest;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.service.IdempotencyCache;
 import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.checkout.payment.gateway.service.PaymentResponseCache;
+import com.checkout.payment.gateway.service.PaymentResponseCache.SerializedPayment;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.beans.factory.annotation.Autowired;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 @ExtendWith(SpringExtension.class)
@@ -47,6 +65,15 @@ class PaymentGatewayControllerTest {
 
   private PostPaymentRequest validRequest;
 
+  @TestConfiguration
+  static class IdempotencyConfiguration {
+
+    @Bean
+    IdempotencyCache<ResponseEntity<PostPaymentResponse>> paymentIdempotencyCache() {
+      return new IdempotencyCache<>(100, Duration.ofMinutes(1));
+    }
+  }
+
   @BeforeEach
   void setUp() {
     validRequest = new PostPaymentRequest();
@@ -70,10 +97,11 @@ class PaymentGatewayControllerTest {
     payment.setExpiryYear(2024);
     payment.setCardNumberLastFour("4321");
 
-    when(paymentGatewayService.getPaymentById(any(UUID.class))).thenReturn(payment);
+    when(paymentGatewayService.getSerializedPayment(uuid)).thenReturn(serialize(payment));
 
     mvc.perform(MockMvcRequestBuilders.get("/payment/" + payment.getId()))
         .andExpect(status().isOk())
+        .andExpect(header().exists(HttpHeaders.ETAG))
         .andExpect(jsonPath("$.status").value(payment.getStatus().getName()))
         .andExpect(jsonPath("$.cardNumberLastFour").value(payment.getCardNumberLastFour()))
         .andExpect(jsonPath("$.expiryMonth").value(payment.getExpiryMonth()))
@@ -82,24 +110,44 @@ class PaymentGatewayControllerTest {
         .andExpect(jsonPath("$.amount").value(payment.getAmount()));
   }
 
+  @Test
+  void whenETagMatchesThen304IsReturnedWithoutBody() throws Exception {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    SerializedPayment serialized = serialize(payment);
+
+    when(paymentGatewayService.getSerializedPayment(payment.getId())).thenReturn(serialized);
+
+    mvc.perform(MockMvcRequestBuilders.get("/payment/" + payment.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, serialized.etag()))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, serialized.etag()))
+        .andExpect(content().bytes(new byte[0]));
+  }
+
   @Test
   void whenPaymentWithIdDoesNotExistThen404IsReturned() throws Exception {
 
-    when(paymentGatewayService.getPaymentById(any(UUID.class))).thenThrow( new EventProcessingException("Invalid ID"));
+    when(paymentGatewayService.getSerializedPayment(any(UUID.class))).thenReturn(null);
 
     mvc.perform(MockMvcRequestBuilders.get("/payment/" + UUID.randomUUID()))
         .andExpect(status().isNotFound())
         .andExpect(jsonPath("$.message").value("Page not found"));
   }
+
+  private SerializedPayment serialize(PostPaymentResponse payment) {
+    return new PaymentResponseCache(objectMapper.writer(), 16).put(payment);
+  }
   @Test
   void processPayment_ValidRequest_ReturnsAuthorizedResponse() throws Exception {
     // Given
     UUID paymentId = UUID.randomUUID();
-    when(paymentGatewayService.processPayment(any(PostPaymentRequest.class)))
-        .thenReturn(paymentId);
+    when(paymentGatewayService.processPaymentAsync(any(PostPaymentRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(paymentId));
 
     // When & Then
-    mvc.perform(post("/payment")
+    performAsync(post("/payment")
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(validRequest)))
         .andExpect(status().isOk())
@@ -111,17 +159,81 @@ class PaymentGatewayControllerTest {
         .andExpect(jsonPath("$.expiryYear", is(2025)))
         .andExpect(jsonPath("$.cardNumberLastFour", is("3451")));
 
-    verify(paymentGatewayService).processPayment(any(PostPaymentRequest.class));
+    verify(paymentGatewayService).processPaymentAsync(any(PostPaymentRequest.class));
   }
 
   @Test
-  void processPayment_DeclinedPayment_ReturnsDeclinedResponse() throws Exception {
+  void processPayment_RepeatedIdempotencyKey_AuthorizesOnce() throws Exception {
+    // Given
+    UUID paymentId = UUID.randomUUID();
+    when(paymentGatewayService.processPaymentAsync(any(PostPaymentRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(paymentId));
+
+    // When & Then
+    for (int attempt = 0; attempt < 2; attempt++) {
+      performAsync(post("/payment")
+              .header("Idempotency-Key", "order-42")
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(objectMapper.writeValueAsString(validRequest)))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.id", is(paymentId.toString())));
+    }
+
+    verify(paymentGatewayService, times(1)).processPaymentAsync(any(PostPaymentRequest.class));
+  }
+
+  @Test
+  void processPayment_IdempotencyKeyReusedWithDifferentBody_ReturnsUnprocessableEntity()
+      throws Exception {
     // Given
-    when(paymentGatewayService.processPayment(any(PostPaymentRequest.class)))
-        .thenReturn(null);
+    when(paymentGatewayService.processPaymentAsync(any(PostPaymentRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(UUID.randomUUID()));
+    performAsync(post("/payment")
+            .header("Idempotency-Key", "order-43")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(validRequest)))
+        .andExpect(status().isOk());
+    validRequest.setAmount(2000);
 
     // When & Then
     mvc.perform(post("/payment")
+            .header("Idempotency-Key", "order-43")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(validRequest)))
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(jsonPath("$.message",
+            is("Idempotency key was already used with a different request")));
+
+    verify(paymentGatewayService, times(1)).processPaymentAsync(any(PostPaymentRequest.class));
+  }
+
+  @Test
+  void processPayment_SameIdempotencyKeyFromDifferentClients_AuthorizesEach() throws Exception {
+    // Given
+    when(paymentGatewayService.processPaymentAsync(any(PostPaymentRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(UUID.randomUUID()));
+
+    // When & Then
+    for (String apiKey : new String[] {"merchant-a", "merchant-b"}) {
+      performAsync(post("/payment")
+              .header("Idempotency-Key", "order-44")
+              .header("X-API-Key", apiKey)
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(objectMapper.writeValueAsString(validRequest)))
+          .andExpect(status().isOk());
+    }
+
+    verify(paymentGatewayService, times(2)).processPaymentAsync(any(PostPaymentRequest.class));
+  }
+
+  @Test
+  void processPayment_DeclinedPayment_ReturnsDeclinedResponse() throws Exception {
+    // Given
+    when(paymentGatewayService.processPaymentAsync(any(PostPaymentRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(null));
+
+    // When & Then
+    performAsync(post("/payment")
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(validRequest)))
         .andExpect(status().isOk())
@@ -129,6 +241,36 @@ class PaymentGatewayControllerTest {
         .andExpect(jsonPath("$.id", is(nullValue())));
   }
 
+  @Test
+  void processPayment_BankUnavailable_ReturnsServiceUnavailable() throws Exception {
+    // Given
+    when(paymentGatewayService.processPaymentAsync(any(PostPaymentRequest.class)))
+        .thenReturn(CompletableFuture.failedFuture(
+            new BankUnavailableException("Bank service unavailable")));
+
+    // When & Then
+    performAsync(post("/payment")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(validRequest)))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(jsonPath("$.message", is("Bank service unavailable")));
+  }
+
+  @Test
+  void processPayment_BankTimeout_ReturnsGatewayTimeout() throws Exception {
+    // Given
+    when(paymentGatewayService.processPaymentAsync(any(PostPaymentRequest.class)))
+        .thenReturn(CompletableFuture.failedFuture(
+            new BankTimeoutException("Bank service timed out")));
+
+    // When & Then
+    performAsync(post("/payment")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(validRequest)))
+        .andExpect(status().isGatewayTimeout())
+        .andExpect(jsonPath("$.message", is("Bank service timed out")));
+  }
+
   @Test
   void processPayment_InvalidCardNumber_ReturnsBadRequest() throws Exception {
     // Given
@@ -140,7 +282,7 @@ class PaymentGatewayControllerTest {
             .content(objectMapper.writeValueAsString(validRequest)))
         .andExpect(status().isBadRequest());
 
-    verify(paymentGatewayService, never()).processPayment(any());
+    verify(paymentGatewayService, never()).processPaymentAsync(any());
   }
 
   @Test
@@ -301,11 +443,11 @@ class PaymentGatewayControllerTest {
     validRequest.setCurrency("USD"); // 3 chars
     validRequest.setCvv("123"); // 3 digits
     UUID paymentId = UUID.randomUUID();
-    when(paymentGatewayService.processPayment(any(PostPaymentRequest.class)))
-        .thenReturn(paymentId);
+    when(paymentGatewayService.processPaymentAsync(any(PostPaymentRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(paymentId));
 
     // When & Then
-    mvc.perform(post("/payment")
+    performAsync(post("/payment")
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(validRequest)))
         .andExpect(status().isOk())
@@ -319,14 +461,22 @@ class PaymentGatewayControllerTest {
     validRequest.setExpiryMonth(12); // Maximum month
     validRequest.setCvv("1234"); // 4 digits
     UUID paymentId = UUID.randomUUID();
-    when(paymentGatewayService.processPayment(any(PostPaymentRequest.class)))
-        .thenReturn(paymentId);
+    when(paymentGatewayService.processPaymentAsync(any(PostPaymentRequest.class)))
+        .thenReturn(CompletableFuture.completedFuture(paymentId));
 
     // When & Then
-    mvc.perform(post("/payment")
+    performAsync(post("/payment")
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(validRequest)))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.status", is("Authorized")));
   }
+
+  private ResultActions performAsync(MockHttpServletRequestBuilder requestBuilder)
+      throws Exception {
+    MvcResult result = mvc.perform(requestBuilder)
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    return mvc.perform(asyncDispatch(result));
+  }
 }
\ No newline at end of file
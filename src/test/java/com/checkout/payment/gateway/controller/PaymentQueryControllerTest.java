@@ -0,0 +1,151 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.repository.StripedPaymentStore;
+import com.checkout.payment.gateway.service.PaymentMetrics;
+import com.checkout.payment.gateway.service.PaymentQueryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@WebMvcTest(PaymentQueryController.class)
+@Import(PaymentQueryService.class)
+class PaymentQueryControllerTest {
+
+  @Autowired
+  private MockMvc mvc;
+  @Autowired
+  private ObjectMapper objectMapper;
+  @Autowired
+  private PaymentsRepository paymentsRepository;
+  @MockBean
+  private PaymentMetrics paymentMetrics;
+
+  private UUID gbpPayment;
+  private UUID usdPayment;
+
+  @TestConfiguration
+  static class RepositoryConfiguration {
+
+    @Bean
+    PaymentsRepository paymentsRepository() {
+      return new PaymentsRepository(new StripedPaymentStore(100, 1));
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    gbpPayment = add("GBP");
+    usdPayment = add("USD");
+  }
+
+  @Test
+  void whenIdsAreLookedUpThenOnlyStoredPaymentsAreReturnedInRequestOrder() throws Exception {
+    List<UUID> ids = List.of(usdPayment, UUID.randomUUID(), gbpPayment);
+
+    perform(post("/payments/lookup").contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(ids)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.payments", hasSize(2)))
+        .andExpect(jsonPath("$.payments[0].id").value(usdPayment.toString()))
+        .andExpect(jsonPath("$.payments[1].id").value(gbpPayment.toString()));
+  }
+
+  @Test
+  void whenListingWithCurrencyThenMatchingPaymentsArePagedByCursor() throws Exception {
+    UUID firstEurPayment = add("EUR");
+    UUID secondEurPayment = add("EUR");
+
+    MvcResult first = perform(get("/payments").param("currency", "EUR").param("limit", "1"))
+        .andExpect(jsonPath("$.payments", hasSize(1)))
+        .andExpect(jsonPath("$.payments[0].id").value(firstEurPayment.toString()))
+        .andReturn();
+    String cursor = objectMapper.readTree(first.getResponse().getContentAsString())
+        .get("nextCursor").asText();
+
+    perform(get("/payments").param("currency", "EUR").param("limit", "1")
+        .param("cursor", cursor))
+        .andExpect(jsonPath("$.payments[0].id").value(secondEurPayment.toString()));
+  }
+
+  @Test
+  void whenLastPageIsListedThenNextCursorIsNull() throws Exception {
+    perform(get("/payments").param("status", "authorized"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+  }
+
+  @Test
+  void whenListingWithStatusThenJsonAndConstantSpellingsMatch() throws Exception {
+    UUID declinedPayment = add("EUR", PaymentStatus.DECLINED);
+
+    for (String status : new String[] {"Declined", "declined", "DECLINED"}) {
+      perform(get("/payments").param("status", status))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.payments", hasSize(1)))
+          .andExpect(jsonPath("$.payments[0].id").value(declinedPayment.toString()));
+    }
+  }
+
+  @Test
+  void whenStatusIsUnknownThen400IsReturned() throws Exception {
+    mvc.perform(get("/payments").param("status", "pending"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void whenLimitIsOutOfRangeThen400IsReturned() throws Exception {
+    mvc.perform(get("/payments").param("limit", "0"))
+        .andExpect(status().isBadRequest());
+    mvc.perform(get("/payments").param("cursor", "abc"))
+        .andExpect(status().isBadRequest());
+  }
+
+  private ResultActions perform(MockHttpServletRequestBuilder builder) throws Exception {
+    MvcResult result = mvc.perform(builder)
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    return mvc.perform(asyncDispatch(result));
+  }
+
+  private UUID add(String currency) {
+    return add(currency, PaymentStatus.AUTHORIZED);
+  }
+
+  private UUID add(String currency, PaymentStatus status) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(status);
+    payment.setCurrency(currency);
+    payment.setAmount(100);
+    payment.setCardNumberLastFour("4321");
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(2030);
+    paymentsRepository.add(payment);
+    return payment.getId();
+  }
+}
@@ -0,0 +1,86 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.resilience.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RateLimitFilterTest {
+
+  private final RateLimitFilter filter = new RateLimitFilter(
+      new TokenBucketRateLimiter(0.5, 1, 100), new ObjectMapper().writer(), "X-API-Key",
+      Set.of("merchant-1", "merchant-2"));
+
+  @Test
+  void whenClientExceedsRateThenRequestIsRejectedWithRetryAfter() throws Exception {
+    MockHttpServletResponse first = perform(request("merchant-1"));
+    MockHttpServletResponse second = perform(request("merchant-1"));
+
+    assertThat(first.getStatus()).isEqualTo(200);
+    assertThat(second.getStatus()).isEqualTo(429);
+    assertThat(second.getHeader("Retry-After")).isEqualTo("2");
+    assertThat(second.getContentAsString()).isEqualTo("{\"message\":\"Rate limit exceeded\"}");
+  }
+
+  @Test
+  void whenApiKeysDifferThenClientsAreLimitedSeparately() throws Exception {
+    perform(request("merchant-1"));
+
+    assertThat(perform(request("merchant-2")).getStatus()).isEqualTo(200);
+  }
+
+  @Test
+  void whenApiKeyIsUnknownThenChangingItDoesNotEscapeTheLimit() throws Exception {
+    MockHttpServletRequest first = request("made-up-1");
+    first.setRemoteAddr("10.0.0.1");
+    MockHttpServletRequest second = request("made-up-2");
+    second.setRemoteAddr("10.0.0.1");
+
+    assertThat(perform(first).getStatus()).isEqualTo(200);
+    assertThat(perform(second).getStatus()).isEqualTo(429);
+  }
+
+  @Test
+  void whenApiKeyIsMissingThenClientIsIdentifiedByRemoteAddress() throws Exception {
+    MockHttpServletRequest first = request(null);
+    first.setRemoteAddr("10.0.0.1");
+    MockHttpServletRequest second = request(null);
+    second.setRemoteAddr("10.0.0.1");
+    MockHttpServletRequest other = request(null);
+    other.setRemoteAddr("10.0.0.2");
+
+    assertThat(perform(first).getStatus()).isEqualTo(200);
+    assertThat(perform(second).getStatus()).isEqualTo(429);
+    assertThat(perform(other).getStatus()).isEqualTo(200);
+  }
+
+  @Test
+  void whenApiKeyIsTooLongThenRequestIsRejected() throws Exception {
+    MockHttpServletResponse response =
+        perform(request("k".repeat(RateLimitFilter.MAX_CLIENT_KEY_LENGTH + 1)));
+
+    assertThat(response.getStatus()).isEqualTo(400);
+    assertThat(response.getContentType()).isEqualTo("application/json");
+    assertThat(response.getContentAsString())
+        .isEqualTo("{\"message\":\"X-API-Key must be at most 255 characters\"}");
+  }
+
+  private static MockHttpServletRequest request(String apiKey) {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/payment");
+    if (apiKey != null) {
+      request.addHeader("X-API-Key", apiKey);
+    }
+    return request;
+  }
+
+  private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, new MockFilterChain());
+    return response;
+  }
+}
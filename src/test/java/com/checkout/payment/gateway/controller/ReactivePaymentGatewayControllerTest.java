@@ -0,0 +1,217 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.service.IdempotencyCache;
+import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.checkout.payment.gateway.service.PaymentResponseCache;
+import com.checkout.payment.gateway.service.PaymentResponseCache.SerializedPayment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+@WebFluxTest(ReactivePaymentGatewayController.class)
+class ReactivePaymentGatewayControllerTest {
+
+  @Autowired
+  private WebTestClient client;
+  @Autowired
+  private ReactivePaymentGatewayController controller;
+  @Autowired
+  private ObjectMapper objectMapper;
+  @MockBean
+  private PaymentGatewayService paymentGatewayService;
+
+  private PostPaymentRequest validRequest;
+
+  @TestConfiguration
+  static class IdempotencyConfiguration {
+
+    @Bean
+    IdempotencyCache<ResponseEntity<PostPaymentResponse>> paymentIdempotencyCache() {
+      return new IdempotencyCache<>(100, Duration.ofMinutes(1));
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    validRequest = new PostPaymentRequest();
+    validRequest.setCardNumberLastFour("1234567890123451");
+    validRequest.setExpiryMonth(12);
+    validRequest.setExpiryYear(2025);
+    validRequest.setCurrency("USD");
+    validRequest.setAmount(1000);
+    validRequest.setCvv("123");
+  }
+
+  @Test
+  void whenPaymentWithIdExistThenCorrectPaymentIsReturned() {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setAmount(10);
+    payment.setCurrency("USD");
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setExpiryMonth(12);
+    payment.setExpiryYear(2024);
+    payment.setCardNumberLastFour("4321");
+    SerializedPayment serialized = serialize(payment);
+
+    when(paymentGatewayService.getSerializedPayment(payment.getId())).thenReturn(serialized);
+
+    client.get().uri("/payment/" + payment.getId())
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals(HttpHeaders.ETAG, serialized.etag())
+        .expectBody()
+        .jsonPath("$.status").isEqualTo(payment.getStatus().getName())
+        .jsonPath("$.cardNumberLastFour").isEqualTo(payment.getCardNumberLastFour())
+        .jsonPath("$.amount").isEqualTo(payment.getAmount());
+  }
+
+  @Test
+  void whenPaymentWithIdDoesNotExistThen404IsReturned() {
+    when(paymentGatewayService.getSerializedPayment(any(UUID.class))).thenReturn(null);
+
+    client.get().uri("/payment/" + UUID.randomUUID())
+        .exchange()
+        .expectStatus().isNotFound()
+        .expectBody()
+        .jsonPath("$.message").isEqualTo("Page not found");
+  }
+
+  @Test
+  void processPayment_ValidRequest_ReturnsAuthorizedResponse() {
+    UUID paymentId = UUID.randomUUID();
+    when(paymentGatewayService.processPaymentMono(any(PostPaymentRequest.class)))
+        .thenReturn(Mono.just(paymentId));
+
+    post(validRequest)
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.id").isEqualTo(paymentId.toString())
+        .jsonPath("$.status").isEqualTo(PaymentStatus.AUTHORIZED.getName())
+        .jsonPath("$.cardNumberLastFour").isEqualTo("3451")
+        .jsonPath("$.amount").isEqualTo(1000);
+  }
+
+  @Test
+  void processPayment_BankDeclines_ReturnsDeclinedResponse() {
+    when(paymentGatewayService.processPaymentMono(any(PostPaymentRequest.class)))
+        .thenReturn(Mono.empty());
+
+    post(validRequest)
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.id").doesNotExist()
+        .jsonPath("$.status").isEqualTo(PaymentStatus.DECLINED.getName());
+  }
+
+  @Test
+  void processPayment_BankUnavailable_Returns503() {
+    when(paymentGatewayService.processPaymentMono(any(PostPaymentRequest.class)))
+        .thenReturn(Mono.error(new BankUnavailableException("Bank service unavailable")));
+
+    post(validRequest)
+        .exchange()
+        .expectStatus().isEqualTo(503)
+        .expectBody()
+        .jsonPath("$.message").isEqualTo("Bank service unavailable");
+  }
+
+  @Test
+  void processPayment_InvalidCardNumber_Returns400() {
+    validRequest.setCardNumberLastFour("123");
+
+    post(validRequest)
+        .exchange()
+        .expectStatus().isBadRequest();
+
+    verify(paymentGatewayService, never()).processPaymentMono(any());
+  }
+
+  @Test
+  void processPayment_RepeatedIdempotencyKey_AuthorizesOnce() {
+    UUID paymentId = UUID.randomUUID();
+    when(paymentGatewayService.processPaymentMono(any(PostPaymentRequest.class)))
+        .thenReturn(Mono.just(paymentId));
+
+    for (int i = 0; i < 2; i++) {
+      post(validRequest)
+          .header("Idempotency-Key", "key-1")
+          .exchange()
+          .expectStatus().isOk()
+          .expectBody()
+          .jsonPath("$.id").isEqualTo(paymentId.toString());
+    }
+
+    verify(paymentGatewayService, times(1)).processPaymentMono(any());
+  }
+
+  @Test
+  void processPayment_IdempotencyKeyTooLong_Returns400() {
+    post(validRequest)
+        .header(IdempotencyKeys.HEADER, "k".repeat(IdempotencyKeys.MAX_LENGTH + 1))
+        .exchange()
+        .expectStatus().isBadRequest();
+
+    verify(paymentGatewayService, never()).processPaymentMono(any());
+  }
+
+  @Test
+  void processPayment_ClientDisconnects_RetryWithSameKeyGetsTheResult() {
+    UUID paymentId = UUID.randomUUID();
+    Sinks.One<UUID> bank = Sinks.one();
+    when(paymentGatewayService.processPaymentMono(any(PostPaymentRequest.class)))
+        .thenReturn(bank.asMono());
+
+    Disposable disconnected = controller.processPayment(validRequest, "key-1", "client-1",
+        MockServerHttpRequest.post("/payment").build()).subscribe();
+    disconnected.dispose();
+    bank.tryEmitValue(paymentId);
+
+    post(validRequest)
+        .header(IdempotencyKeys.HEADER, "key-1")
+        .header(IdempotencyKeys.CLIENT_HEADER, "client-1")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.id").isEqualTo(paymentId.toString());
+
+    verify(paymentGatewayService, times(1)).processPaymentMono(any());
+  }
+
+  private WebTestClient.RequestHeadersSpec<?> post(PostPaymentRequest request) {
+    return client.post().uri("/payment")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(request);
+  }
+
+  private SerializedPayment serialize(PostPaymentResponse payment) {
+    return new PaymentResponseCache(objectMapper.writer(), 16).put(payment);
+  }
+}
@@ -0,0 +1,105 @@
+package com.checkout.payment.gateway.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class PaymentJsonModuleTest {
+
+  private final ObjectMapper reflective = new ObjectMapper()
+      .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+  private final ObjectMapper streaming = new ObjectMapper()
+      .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+      .registerModule(new PaymentJsonModule());
+
+  @Test
+  void whenRequestIsWrittenThenJsonMatchesBeanSerialization() throws Exception {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumberLastFour("2222405343248877");
+    request.setExpiryMonth(4);
+    request.setExpiryYear(2030);
+    request.setCurrency("GBP");
+    request.setAmount(100);
+    request.setCvv("123");
+
+    assertSameJson(request);
+    assertThat(streaming.writeValueAsString(request)).contains("\"expiry_date\":\"4/2030\"");
+  }
+
+  @Test
+  void whenRequestHasNullsThenJsonMatchesBeanSerialization() throws Exception {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setExpiryMonth(-1);
+    request.setExpiryYear(Integer.MIN_VALUE);
+
+    assertSameJson(request);
+  }
+
+  @Test
+  void whenResponseIsWrittenThenJsonMatchesBeanSerialization() throws Exception {
+    PostPaymentResponse response = new PostPaymentResponse();
+    response.setId(UUID.fromString("0a1b2c3d-4e5f-6071-8293-a4b5c6d7e8f9"));
+    response.setStatus(PaymentStatus.AUTHORIZED);
+    response.setCardNumberLastFour("8877");
+    response.setExpiryMonth(4);
+    response.setExpiryYear(2030);
+    response.setCurrency("GBP");
+    response.setAmount(100);
+
+    assertSameJson(response);
+    assertSameJson(new PostPaymentResponse());
+  }
+
+  @Test
+  void whenRequestIsReadThenFieldsMatchBeanDeserialization() throws Exception {
+    String json = """
+        {"card_number":"2222405343248877","expiry_month":"4","expiry_year":2030,\
+        "currency":"GBP","amount":100,"cvv":123,"unknown":{"nested":[1,2]}}""";
+
+    PostPaymentRequest expected = reflective.readValue(json, PostPaymentRequest.class);
+    PostPaymentRequest actual = streaming.readValue(json, PostPaymentRequest.class);
+
+    assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    assertThat(actual.getCvv()).isEqualTo("123");
+    assertThat(actual.getExpiryMonth()).isEqualTo(4);
+  }
+
+  @Test
+  void whenAuthResponseIsReadThenBooleanIsReadAsText() throws Exception {
+    PostAuthResponse response = streaming.readValue(
+        "{\"authorized\":true,\"authorization_code\":\"abc\",\"extra\":1}",
+        PostAuthResponse.class);
+
+    assertThat(response.getAuthorized()).isEqualTo("true");
+    assertThat(response.getAuthorization_code()).isEqualTo("abc");
+  }
+
+  @Test
+  void whenUnknownPropertiesAreNotAllowedThenTheyAreRejected() {
+    ObjectMapper strict = new ObjectMapper().registerModule(new PaymentJsonModule());
+
+    assertThatThrownBy(() -> strict.readValue("{\"amount\":1,\"other\":2}",
+        PostPaymentRequest.class)).isInstanceOf(UnrecognizedPropertyException.class);
+  }
+
+  @Test
+  void whenFieldHasWrongTypeThenItIsRejected() {
+    assertThatThrownBy(() -> streaming.readValue("{\"amount\":[1]}", PostPaymentRequest.class))
+        .isInstanceOf(MismatchedInputException.class);
+  }
+
+  private void assertSameJson(Object value) throws Exception {
+    assertThat(streaming.readTree(streaming.writeValueAsString(value)))
+        .isEqualTo(reflective.readTree(reflective.writeValueAsString(value)));
+  }
+}
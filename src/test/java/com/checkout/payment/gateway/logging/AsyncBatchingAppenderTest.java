@@ -0,0 +1,99 @@
+package com.checkout.payment.gateway.logging;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.checkout.payment.gateway.logging.AsyncBatchingAppender.OverflowPolicy;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class AsyncBatchingAppenderTest {
+
+  private final LoggerContext context = new LoggerContext();
+  private final Logger logger = context.getLogger("test");
+
+  @Test
+  void whenAppenderIsStoppedThenAllEventsAreWrittenInOrder() {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    AsyncBatchingAppender appender = appender(output, 16, 8, OverflowPolicy.BLOCK);
+
+    for (int i = 0; i < 100; i++) {
+      appender.doAppend(event("payment " + i));
+    }
+    appender.stop();
+
+    List<String> expected = IntStream.range(0, 100).mapToObj(i -> "payment " + i).toList();
+    assertThat(output.toString(UTF_8).lines()).containsExactlyElementsOf(expected);
+    assertThat(appender.getDroppedEvents()).isZero();
+  }
+
+  @Test
+  void whenBufferIsFullAndPolicyIsDropThenEventsAreDroppedAndCounted() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    OutputStream stalledOutput = new OutputStream() {
+      @Override
+      public void write(int b) {
+        output.write(b);
+      }
+
+      @Override
+      public void write(byte[] bytes, int offset, int length) {
+        writing.countDown();
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        output.write(bytes, offset, length);
+      }
+    };
+    AsyncBatchingAppender appender = appender(stalledOutput, 4, 1, OverflowPolicy.DROP);
+
+    appender.doAppend(event("first"));
+    assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+    for (int i = 0; i < 10; i++) {
+      appender.doAppend(event("queued " + i));
+    }
+    release.countDown();
+    appender.stop();
+
+    assertThat(appender.getDroppedEvents()).isEqualTo(6);
+    assertThat(output.toString(UTF_8).lines())
+        .containsExactly("first", "queued 0", "queued 1", "queued 2", "queued 3");
+  }
+
+  private AsyncBatchingAppender appender(OutputStream output, int capacity, int batchSize,
+      OverflowPolicy overflowPolicy) {
+    PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+    encoder.setContext(context);
+    encoder.setPattern("%msg%n");
+    encoder.start();
+
+    AsyncBatchingAppender appender = new AsyncBatchingAppender();
+    appender.setContext(context);
+    appender.setName("test");
+    appender.setEncoder(encoder);
+    appender.setCapacity(capacity);
+    appender.setBatchSize(batchSize);
+    appender.setOverflowPolicy(overflowPolicy);
+    appender.setOutputStream(output);
+    appender.start();
+    return appender;
+  }
+
+  private LoggingEvent event(String message) {
+    return new LoggingEvent(Logger.class.getName(), logger, Level.INFO, message, null, null);
+  }
+}
@@ -0,0 +1,54 @@
+package com.checkout.payment.gateway.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class CardDataMaskerTest {
+
+  @Test
+  void whenLineHasNothingToMaskThenSameInstanceIsReturned() {
+    String line = "Saving payment with ID 7b0a9b3e-1c4d-4f1e-9a55-3d2f1c9e8b7a at 2024-01-15";
+
+    assertThat(CardDataMasker.mask(line)).isSameAs(line);
+  }
+
+  @Test
+  void whenRequestIsLoggedThenCardNumberAndCvvAreMasked() {
+    String line = "Invalid currency PostPaymentRequest{cardNumberLastFour=2222405343248877, "
+        + "expiryMonth=4, expiryYear=2030, currency='JPY', amount=100, cvv=123}";
+
+    assertThat(CardDataMasker.mask(line)).isEqualTo(
+        "Invalid currency PostPaymentRequest{cardNumberLastFour=************8877, "
+            + "expiryMonth=4, expiryYear=2030, currency='JPY', amount=100, cvv=***}");
+  }
+
+  @Test
+  void whenJsonBodyIsLoggedThenCardNumberAndCvvAreMasked() {
+    String line = "{\"card_number\":\"22224053432488771\",\"cvv\": \"1234\"}";
+
+    assertThat(CardDataMasker.mask(line))
+        .isEqualTo("{\"card_number\":\"*************8771\",\"cvv\": \"****\"}");
+  }
+
+  @Test
+  void whenCardNumberIsGroupedThenDigitsAreMaskedAndSeparatorsKept() {
+    assertThat(CardDataMasker.mask("card 4111 1111 1111 1111."))
+        .isEqualTo("card **** **** **** 1111.");
+    assertThat(CardDataMasker.mask("amex 3782-822463-10005"))
+        .isEqualTo("amex ****-******-*0005");
+  }
+
+  @Test
+  void whenDigitRunIsNotCardShapedThenItIsLeftAlone() {
+    String tooShort = "reference 1234567890123";
+    String tooLong = "reference 12345678901234567890";
+    String insideWord = "token a4111111111111111 4111111111111111_x";
+    String notCvv = "cvvx=123 cvv=12345";
+
+    assertThat(CardDataMasker.mask(tooShort)).isSameAs(tooShort);
+    assertThat(CardDataMasker.mask(tooLong)).isSameAs(tooLong);
+    assertThat(CardDataMasker.mask(insideWord)).isSameAs(insideWord);
+    assertThat(CardDataMasker.mask(notCvv)).isSameAs(notCvv);
+  }
+}
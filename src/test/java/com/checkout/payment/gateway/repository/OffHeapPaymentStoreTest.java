@@ -0,0 +1,125 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class OffHeapPaymentStoreTest {
+
+  @Test
+  void whenPaymentIsStoredThenAllFieldsAreReturned() {
+    OffHeapPaymentStore store = new OffHeapPaymentStore(16, 4);
+    PostPaymentResponse payment = payment(UUID.randomUUID());
+
+    store.put(payment);
+    PostPaymentResponse stored = store.get(payment.getId());
+
+    assertThat(stored).isNotSameAs(payment);
+    assertThat(stored.getId()).isEqualTo(payment.getId());
+    assertThat(stored.getStatus()).isEqualTo(PaymentStatus.AUTHORIZED);
+    assertThat(stored.getAmount()).isEqualTo(1050);
+    assertThat(stored.getCurrency()).isEqualTo("GBP");
+    assertThat(stored.getCardNumberLastFour()).isEqualTo("0123");
+    assertThat(stored.getExpiryMonth()).isEqualTo(4);
+    assertThat(stored.getExpiryYear()).isEqualTo(2031);
+  }
+
+  @Test
+  void whenPaymentIsMissingThenNullIsReturned() {
+    OffHeapPaymentStore store = new OffHeapPaymentStore(16, 4);
+    store.put(payment(UUID.randomUUID()));
+
+    assertThat(store.get(UUID.randomUUID())).isNull();
+  }
+
+  @Test
+  void whenCapacityIsExceededThenOldestPaymentsAreEvicted() {
+    OffHeapPaymentStore store = new OffHeapPaymentStore(100, 1);
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 250; i++) {
+      UUID id = UUID.randomUUID();
+      ids.add(id);
+      store.put(payment(id));
+    }
+
+    assertThat(store.size()).isEqualTo(100);
+    assertThat(store.get(ids.get(149))).isNull();
+    assertThat(store.contains(ids.get(149))).isFalse();
+    for (UUID id : ids.subList(150, 250)) {
+      assertThat(store.get(id)).isNotNull();
+      assertThat(store.contains(id)).isTrue();
+    }
+  }
+
+  @Test
+  void whenPaymentIsReplacedThenLatestFieldsAreReturned() {
+    OffHeapPaymentStore store = new OffHeapPaymentStore(16, 1);
+    PostPaymentResponse payment = payment(UUID.randomUUID());
+    store.put(payment);
+    payment.setStatus(PaymentStatus.DECLINED);
+    payment.setCurrency("USD");
+
+    assertThat(store.put(payment)).isFalse();
+
+    PostPaymentResponse stored = store.get(payment.getId());
+    assertThat(stored.getStatus()).isEqualTo(PaymentStatus.DECLINED);
+    assertThat(stored.getCurrency()).isEqualTo("USD");
+    assertThat(store.size()).isEqualTo(1);
+  }
+
+  @Test
+  void whenStoreIsCreatedThenRecordsAndIndexAreReserved() {
+    OffHeapPaymentStore store = new OffHeapPaymentStore(100, 1);
+
+    assertThat(store.reservedBytes())
+        .isEqualTo(100L * OffHeapPaymentStore.RECORD_SIZE + 256L * Integer.BYTES);
+  }
+
+  @Test
+  void whenPaymentsAreAddedConcurrentlyThenAllAreRetrievable() throws Exception {
+    OffHeapPaymentStore store = new OffHeapPaymentStore(100_000, 16);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<List<UUID>>> results = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        results.add(executor.submit(() -> {
+          List<UUID> ids = new ArrayList<>();
+          for (int i = 0; i < 5_000; i++) {
+            UUID id = UUID.randomUUID();
+            store.put(payment(id));
+            ids.add(id);
+          }
+          return ids;
+        }));
+      }
+      for (Future<List<UUID>> result : results) {
+        for (UUID id : result.get()) {
+          assertThat(store.get(id)).isNotNull();
+        }
+      }
+      assertThat(store.size()).isEqualTo(40_000);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static PostPaymentResponse payment(UUID id) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(id);
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setAmount(1050);
+    payment.setCurrency("GBP");
+    payment.setCardNumberLastFour("0123");
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(2031);
+    return payment;
+  }
+}
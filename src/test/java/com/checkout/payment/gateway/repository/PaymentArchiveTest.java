@@ -0,0 +1,166 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PaymentArchiveTest {
+
+  private String url;
+
+  @BeforeEach
+  void setUp() {
+    url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+  }
+
+  @Test
+  void whenArchiveIsClosedThenEveryQueuedPaymentIsWritten() throws SQLException {
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    try (PaymentArchive archive = open(64, Duration.ofSeconds(10))) {
+      for (int i = 0; i < 1_000; i++) {
+        PostPaymentResponse payment = payment(i);
+        payments.add(payment);
+        archive.offer(payment);
+      }
+    }
+
+    try (PaymentArchive archive = open(64, Duration.ofSeconds(10))) {
+      assertThat(archive.pending()).isZero();
+      for (PostPaymentResponse payment : payments) {
+        assertThat(archive.find(payment.getId())).usingRecursiveComparison().isEqualTo(payment);
+      }
+    }
+  }
+
+  @Test
+  void whenPaymentIsArchivedAgainThenItIsReplaced() throws SQLException {
+    PostPaymentResponse payment = payment(100);
+    try (PaymentArchive archive = open(1, Duration.ofMillis(1))) {
+      archive.offer(payment);
+      payment = payment(200);
+      payment.setStatus(PaymentStatus.DECLINED);
+      archive.offer(payment);
+    }
+
+    try (PaymentArchive archive = open(1, Duration.ofMillis(1))) {
+      assertThat(archive.find(payment.getId())).usingRecursiveComparison().isEqualTo(payment);
+    }
+  }
+
+  @Test
+  void whenPaymentIsUnknownThenNullIsReturned() throws SQLException {
+    try (PaymentArchive archive = open(1, Duration.ofMillis(1))) {
+      assertThat(archive.find(UUID.randomUUID())).isNull();
+    }
+  }
+
+  @Test
+  void whenPaymentIsEvictedFromMemoryThenRepositoryReadsItFromArchive() throws Exception {
+    try (PaymentArchive archive = open(1, Duration.ofMillis(1))) {
+      PaymentsRepository repository =
+          new PaymentsRepository(new StripedPaymentStore(1, 1), null, archive);
+      PostPaymentResponse evicted = payment(100);
+      repository.add(evicted);
+      repository.add(payment(200));
+      while (archive.pending() > 0) {
+        Thread.sleep(1);
+      }
+
+      assertThat(repository.find(evicted.getId())).usingRecursiveComparison()
+          .isEqualTo(evicted);
+      assertThat(repository.contains(evicted.getId())).isTrue();
+      assertThat(repository.contains(UUID.randomUUID())).isFalse();
+    }
+  }
+
+  @Test
+  void whenQueueIsFullThenPaymentIsRefused() throws Exception {
+    JdbcConnectionPool pool = pool();
+    pool.setMaxConnections(1);
+    PostPaymentResponse first = payment(100);
+    PostPaymentResponse second = payment(200);
+    try (PaymentArchive archive = new PaymentArchive(pool, 2, 2, Duration.ofSeconds(10), 100)) {
+      // Holding the only connection stalls the writer with both payments still queued.
+      try (Connection ignored = pool.getConnection()) {
+        assertThat(archive.offer(first)).isTrue();
+        assertThat(archive.offer(second)).isTrue();
+
+        assertThat(archive.offer(payment(300))).isFalse();
+        assertThat(archive.pending()).isEqualTo(2);
+        assertThat(archive.getRejectedPayments()).isEqualTo(1);
+      }
+    }
+
+    try (PaymentArchive archive = open(1, Duration.ofMillis(1))) {
+      assertThat(archive.find(first.getId())).usingRecursiveComparison().isEqualTo(first);
+      assertThat(archive.find(second.getId())).usingRecursiveComparison().isEqualTo(second);
+    }
+  }
+
+  @Test
+  void whenRowCannotBeWrittenThenOnlyThatRowIsDropped() throws SQLException {
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    PostPaymentResponse invalid = payment(100);
+    invalid.setCurrency("TOO LONG");
+    try (PaymentArchive archive = open(16, Duration.ofSeconds(10))) {
+      for (int i = 0; i < 16; i++) {
+        PostPaymentResponse payment = i == 5 ? invalid : payment(i);
+        payments.add(payment);
+        archive.offer(payment);
+      }
+      while (archive.pending() > 0) {
+        Thread.onSpinWait();
+      }
+      assertThat(archive.getDroppedPayments()).isEqualTo(1);
+    }
+
+    try (PaymentArchive archive = open(1, Duration.ofMillis(1))) {
+      for (PostPaymentResponse payment : payments) {
+        if (payment == invalid) {
+          assertThat(archive.find(payment.getId())).isNull();
+        } else {
+          assertThat(archive.find(payment.getId())).usingRecursiveComparison().isEqualTo(payment);
+        }
+      }
+    }
+  }
+
+  @Test
+  void whenArchiveIsClosedThenPaymentIsRefusedWithoutThrowing() throws SQLException {
+    PaymentArchive archive = open(1, Duration.ofMillis(1));
+    archive.close();
+
+    assertThat(archive.offer(payment(100))).isFalse();
+    assertThat(archive.getRejectedPayments()).isEqualTo(1);
+  }
+
+  private PaymentArchive open(int batchSize, Duration flushInterval) throws SQLException {
+    return new PaymentArchive(pool(), 10_000, batchSize, flushInterval, 10_000);
+  }
+
+  private JdbcConnectionPool pool() {
+    return JdbcConnectionPool.create(url, "sa", "");
+  }
+
+  private static PostPaymentResponse payment(int amount) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setAmount(amount);
+    payment.setCurrency("GBP");
+    payment.setCardNumberLastFour("0123");
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(2031);
+    return payment;
+  }
+}
@@ -0,0 +1,82 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class PaymentIndexTest {
+
+  @Test
+  void whenPagingWithCursorThenEveryPaymentIsListedOnceInOrder() {
+    PaymentIndex index = new PaymentIndex(16);
+    List<UUID> ids = addPayments(index, 10);
+
+    List<UUID> listed = new ArrayList<>();
+    Long cursor = null;
+    do {
+      PaymentPage page = index.page(new PaymentQuery(null, null, null, cursor, 3));
+      listed.addAll(page.ids());
+      cursor = page.nextCursor();
+    } while (cursor != null);
+
+    assertThat(listed).containsExactlyElementsOf(ids);
+  }
+
+  @Test
+  void whenFilteringThenOnlyMatchingPaymentsAreListed() {
+    PaymentIndex index = new PaymentIndex(16);
+    List<UUID> ids = addPayments(index, 10);
+
+    assertThat(index.page(new PaymentQuery("GBP", PaymentStatus.DECLINED, null, null, 100)).ids())
+        .containsExactly(ids.get(0), ids.get(6));
+  }
+
+  @Test
+  void whenSinceIsGivenThenListingStartsAtFirstPaymentIndexedAtOrAfterIt() {
+    PaymentIndex index = new PaymentIndex(16);
+    List<UUID> ids = addPayments(index, 10);
+
+    assertThat(index.page(new PaymentQuery(null, null, Instant.ofEpochMilli(7_000), null, 100))
+        .ids()).containsExactlyElementsOf(ids.subList(7, 10));
+  }
+
+  @Test
+  void whenIndexWrapsThenOldestPaymentsAreForgotten() {
+    PaymentIndex index = new PaymentIndex(4);
+    List<UUID> ids = addPayments(index, 10);
+
+    assertThat(index.page(new PaymentQuery(null, null, null, 0L, 100)).ids())
+        .containsExactlyElementsOf(ids.subList(6, 10));
+  }
+
+  @Test
+  void whenFilterIsSelectiveThenPageStopsAtScanLimitWithCursor() {
+    PaymentIndex index = new PaymentIndex(PaymentIndex.SCAN_LIMIT * 2);
+    addPayments(index, PaymentIndex.SCAN_LIMIT + 1);
+
+    PaymentPage page = index.page(new PaymentQuery("EUR", null, null, null, 10));
+
+    assertThat(page.ids()).isEmpty();
+    assertThat(page.nextCursor()).isEqualTo(PaymentIndex.SCAN_LIMIT);
+  }
+
+  // Even positions are GBP, every third is declined, and payment i is indexed at i seconds.
+  private static List<UUID> addPayments(PaymentIndex index, int count) {
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      PostPaymentResponse payment = new PostPaymentResponse();
+      payment.setId(UUID.randomUUID());
+      payment.setCurrency(i % 2 == 0 ? "GBP" : "USD");
+      payment.setStatus(i % 3 == 0 ? PaymentStatus.DECLINED : PaymentStatus.AUTHORIZED);
+      index.add(payment, i * 1_000L);
+      ids.add(payment.getId());
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,204 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PaymentJournalTest {
+
+  private static final int RECORD_SIZE = PaymentJournal.RECORD_SIZE;
+  private static final int HEADER_SIZE = PaymentJournal.HEADER_SIZE;
+  private static final long CREATED_AT = 1_700_000_000_000L;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void whenJournalIsReopenedThenPaymentsAreReplayedInAppendOrder() throws IOException {
+    List<PostPaymentResponse> payments = List.of(payment(100), payment(200), payment(300));
+    try (PaymentJournal journal = journal(1024, 1000)) {
+      payments.forEach(payment -> journal.append(payment, CREATED_AT));
+    }
+
+    List<PostPaymentResponse> replayed = replay(journal(1024, 1000));
+
+    assertThat(replayed).usingRecursiveFieldByFieldElementComparator()
+        .containsExactlyElementsOf(payments);
+  }
+
+  @Test
+  void whenJournalIsReplayedThenEachPaymentKeepsItsCreationTime() throws IOException {
+    try (PaymentJournal journal = journal(1024, 1000)) {
+      journal.append(payment(100), CREATED_AT);
+      journal.append(payment(200), CREATED_AT + 60_000);
+    }
+
+    List<Long> createdAt = new ArrayList<>();
+    try (PaymentJournal journal = journal(1024, 1000)) {
+      journal.replay((payment, createdAtMillis) -> createdAt.add(createdAtMillis));
+    }
+
+    assertThat(createdAt).containsExactly(CREATED_AT, CREATED_AT + 60_000);
+  }
+
+  @Test
+  void whenRepositoryReplaysJournalThenSinceFiltersOnCreationTime() throws IOException {
+    PostPaymentResponse older = payment(100);
+    PostPaymentResponse newer = payment(200);
+    try (PaymentJournal journal = journal(1024, 1000)) {
+      journal.append(older, CREATED_AT);
+      journal.append(newer, CREATED_AT + 60_000);
+    }
+
+    try (PaymentJournal journal = journal(1024, 1000)) {
+      PaymentsRepository repository =
+          new PaymentsRepository(new StripedPaymentStore(100, 1), journal);
+      PaymentQuery query = new PaymentQuery(null, null,
+          Instant.ofEpochMilli(CREATED_AT + 1), null, 10);
+
+      assertThat(repository.list(query).ids()).containsExactly(newer.getId());
+    }
+  }
+
+  @Test
+  void whenSegmentIsFullThenJournalRollsAndDeletesSegmentsBeyondRetention() throws IOException {
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    try (PaymentJournal journal = journal(HEADER_SIZE + RECORD_SIZE * 2, 4)) {
+      for (int i = 1; i <= 10; i++) {
+        PostPaymentResponse payment = payment(i);
+        payments.add(payment);
+        journal.append(payment, CREATED_AT);
+      }
+      journal.flush();
+    }
+
+    assertThat(segmentCount()).isEqualTo(3);
+    assertThat(replay(journal(HEADER_SIZE + RECORD_SIZE * 2, 4)))
+        .usingRecursiveFieldByFieldElementComparator()
+        .containsExactlyElementsOf(payments.subList(4, 10));
+  }
+
+  @Test
+  void whenTailRecordIsTornThenReplayStopsBeforeItAndNextAppendOverwritesIt() throws IOException {
+    try (PaymentJournal journal = journal(1024, 1000)) {
+      journal.append(payment(100), CREATED_AT);
+      journal.append(payment(200), CREATED_AT);
+    }
+    Path segment = onlySegment();
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}), HEADER_SIZE + RECORD_SIZE + 10);
+    }
+
+    PostPaymentResponse next = payment(300);
+    try (PaymentJournal journal = journal(1024, 1000)) {
+      assertThat(journal.replay((payment, createdAt) -> { })).isEqualTo(1);
+      journal.append(next, CREATED_AT);
+    }
+
+    assertThat(replay(journal(1024, 1000))).extracting(PostPaymentResponse::getAmount)
+        .containsExactly(100, 300);
+  }
+
+  @Test
+  void whenSegmentPredatesTheHeaderThenItIsReplayedAndNotOverwritten() throws IOException {
+    PostPaymentResponse old = payment(100);
+    Path legacy = directory.resolve(String.format("%020d.journal", 0));
+    ByteBuffer segment = ByteBuffer.allocate(1024);
+    segment.put(0, legacyRecord(old));
+    Files.write(legacy, segment.array());
+    Files.setLastModifiedTime(legacy, FileTime.fromMillis(CREATED_AT));
+
+    PostPaymentResponse next = payment(200);
+    List<Long> createdAt = new ArrayList<>();
+    try (PaymentJournal journal = journal(1024, 1000)) {
+      assertThat(journal.replay((payment, createdAtMillis) -> createdAt.add(createdAtMillis)))
+          .isEqualTo(1);
+      journal.append(next, CREATED_AT + 60_000);
+    }
+
+    assertThat(createdAt).containsExactly(CREATED_AT);
+    assertThat(segmentCount()).isEqualTo(2);
+    assertThat(replay(journal(1024, 1000))).usingRecursiveFieldByFieldElementComparator()
+        .containsExactly(old, next);
+  }
+
+  @Test
+  void whenSegmentHasUnknownFormatVersionThenJournalRefusesToOpen() throws IOException {
+    Path segment = directory.resolve(String.format("%020d.journal", 0));
+    Files.write(segment, ByteBuffer.allocate(1024)
+        .putInt(0, PaymentJournal.MAGIC)
+        .putInt(4, PaymentJournal.VERSION + 1)
+        .array());
+
+    assertThatThrownBy(() -> journal(1024, 1000))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("format version " + (PaymentJournal.VERSION + 1));
+    assertThat(ByteBuffer.wrap(Files.readAllBytes(segment)).getInt(4))
+        .isEqualTo(PaymentJournal.VERSION + 1);
+  }
+
+  private PaymentJournal journal(int segmentSize, int retainedRecords) throws IOException {
+    return new PaymentJournal(directory, segmentSize, Duration.ofMillis(5), retainedRecords);
+  }
+
+  private static List<PostPaymentResponse> replay(PaymentJournal journal) throws IOException {
+    try (journal) {
+      List<PostPaymentResponse> replayed = new ArrayList<>();
+      journal.replay((payment, createdAt) -> replayed.add(payment));
+      return replayed;
+    }
+  }
+
+  private long segmentCount() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.count();
+    }
+  }
+
+  private Path onlySegment() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.findFirst().orElseThrow();
+    }
+  }
+
+  // A record as written before segments had a header: the current layout without createdAt.
+  private static byte[] legacyRecord(PostPaymentResponse payment) {
+    byte[] record = Arrays.copyOf(PaymentJournal.encode(payment, 0),
+        PaymentJournal.LEGACY_RECORD_SIZE);
+    CRC32C crc = new CRC32C();
+    crc.update(record, 4, record.length - 4);
+    ByteBuffer.wrap(record).putInt(0, (int) crc.getValue());
+    return record;
+  }
+
+  private static PostPaymentResponse payment(int amount) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setCardNumberLastFour("8877");
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(2030);
+    payment.setCurrency("GBP");
+    payment.setAmount(amount);
+    return payment;
+  }
+}
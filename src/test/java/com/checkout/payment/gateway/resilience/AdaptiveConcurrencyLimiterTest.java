@@ -0,0 +1,80 @@
+package com.checkout.payment.gateway.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long RTT = TimeUnit.MILLISECONDS.toNanos(50);
+
+  @Test
+  void whenLimitIsReachedThenCallsAreRejectedUntilOneIsReleased() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("bank", 2, 1, 10);
+
+    assertThat(limiter.tryAcquire()).isTrue();
+    assertThat(limiter.tryAcquire()).isTrue();
+    assertThat(limiter.tryAcquire()).isFalse();
+    assertThat(limiter.getRejectedCalls()).isEqualTo(1);
+
+    limiter.release();
+
+    assertThat(limiter.tryAcquire()).isTrue();
+  }
+
+  @Test
+  void whenLatencyIsSteadyUnderLoadThenLimitGrows() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("bank", 20, 5, 100);
+    fill(limiter, 20);
+
+    for (int i = 0; i < 20; i++) {
+      limiter.onSample(RTT, false);
+    }
+
+    assertThat(limiter.getLimit()).isGreaterThan(20);
+  }
+
+  @Test
+  void whenLatencyRisesThenLimitShrinks() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("bank", 50, 5, 100);
+    fill(limiter, 50);
+    limiter.onSample(RTT, false);
+    int before = limiter.getLimit();
+
+    for (int i = 0; i < 20; i++) {
+      limiter.onSample(RTT * 10, false);
+    }
+
+    assertThat(limiter.getLimit()).isLessThan(before);
+  }
+
+  @Test
+  void whenMostOfTheLimitIsUnusedThenLimitDoesNotGrow() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("bank", 20, 5, 100);
+    fill(limiter, 2);
+
+    for (int i = 0; i < 20; i++) {
+      limiter.onSample(RTT, false);
+    }
+
+    assertThat(limiter.getLimit()).isEqualTo(20);
+  }
+
+  @Test
+  void whenCallsAreDroppedThenLimitBacksOffToMinimum() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("bank", 20, 5, 100);
+
+    for (int i = 0; i < 50; i++) {
+      limiter.onSample(RTT, true);
+    }
+
+    assertThat(limiter.getLimit()).isEqualTo(5);
+  }
+
+  private static void fill(AdaptiveConcurrencyLimiter limiter, int calls) {
+    for (int i = 0; i < calls; i++) {
+      assertThat(limiter.tryAcquire()).isTrue();
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.checkout.payment.gateway.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class BulkheadTest {
+
+  @Test
+  void whenLimitIsReachedThenFurtherCallsAreRejectedAndCounted() {
+    Bulkhead bulkhead = new Bulkhead("bank", 2);
+
+    assertThat(bulkhead.tryAcquire()).isTrue();
+    assertThat(bulkhead.tryAcquire()).isTrue();
+    assertThat(bulkhead.tryAcquire()).isFalse();
+
+    assertThat(bulkhead.getInFlight()).isEqualTo(2);
+    assertThat(bulkhead.getRejectedCalls()).isEqualTo(1);
+  }
+
+  @Test
+  void whenCallIsReleasedThenItsPermitCanBeReused() {
+    Bulkhead bulkhead = new Bulkhead("bank", 1);
+    assertThat(bulkhead.tryAcquire()).isTrue();
+
+    bulkhead.release();
+
+    assertThat(bulkhead.getInFlight()).isZero();
+    assertThat(bulkhead.tryAcquire()).isTrue();
+    assertThat(bulkhead.getRejectedCalls()).isZero();
+  }
+
+  @Test
+  void whenCallersRaceThenNoMoreThanTheLimitRunAtOnce() throws Exception {
+    Bulkhead bulkhead = new Bulkhead("bank", 4);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    try {
+      for (int i = 0; i < 16; i++) {
+        executor.execute(() -> {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+          for (int call = 0; call < 1_000; call++) {
+            if (bulkhead.tryAcquire()) {
+              maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+              running.decrementAndGet();
+              bulkhead.release();
+            }
+          }
+        });
+      }
+      start.countDown();
+    } finally {
+      executor.shutdown();
+    }
+
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(maxRunning.get()).isBetween(1, 4);
+    assertThat(bulkhead.getInFlight()).isZero();
+  }
+}
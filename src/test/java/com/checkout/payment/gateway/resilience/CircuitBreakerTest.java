@@ -0,0 +1,125 @@
+package com.checkout.payment.gateway.resilience;
+
+import static com.checkout.payment.gateway.resilience.CircuitBreaker.NOT_PERMITTED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.resilience.CircuitBreaker.State;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+  @Test
+  void whenFailureThresholdIsReachedThenCircuitOpensAndRejectsCalls() {
+    CircuitBreaker circuitBreaker = new CircuitBreaker("bank", 3, Duration.ofMinutes(1), 1);
+
+    for (int i = 0; i < 3; i++) {
+      long permission = circuitBreaker.tryAcquirePermission();
+      assertThat(permission).isNotEqualTo(NOT_PERMITTED);
+      circuitBreaker.onFailure(permission);
+    }
+
+    assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+    assertThat(circuitBreaker.tryAcquirePermission()).isEqualTo(NOT_PERMITTED);
+    assertThat(circuitBreaker.getNotPermittedCalls()).isEqualTo(1);
+  }
+
+  @Test
+  void whenSuccessInterruptsFailuresThenCircuitStaysClosed() {
+    CircuitBreaker circuitBreaker = new CircuitBreaker("bank", 3, Duration.ofMinutes(1), 1);
+
+    fail(circuitBreaker);
+    fail(circuitBreaker);
+    circuitBreaker.onSuccess(circuitBreaker.tryAcquirePermission());
+    fail(circuitBreaker);
+    fail(circuitBreaker);
+
+    assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+  }
+
+  @Test
+  void whenOpenDurationElapsesThenSingleProbeIsAllowedAndSuccessCloses() throws Exception {
+    CircuitBreaker circuitBreaker = new CircuitBreaker("bank", 1, Duration.ofMillis(20), 1);
+    List<String> transitions = new ArrayList<>();
+    circuitBreaker.addListener((from, to) -> transitions.add(from + "->" + to));
+
+    fail(circuitBreaker);
+    Thread.sleep(30);
+
+    long probe = circuitBreaker.tryAcquirePermission();
+    assertThat(probe).isNotEqualTo(NOT_PERMITTED);
+    assertThat(circuitBreaker.getState()).isEqualTo(State.HALF_OPEN);
+    assertThat(circuitBreaker.tryAcquirePermission()).isEqualTo(NOT_PERMITTED);
+
+    circuitBreaker.onSuccess(probe);
+
+    assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+    assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED");
+  }
+
+  @Test
+  void whenProbeFailsThenCircuitOpensAgain() throws Exception {
+    CircuitBreaker circuitBreaker = new CircuitBreaker("bank", 1, Duration.ofMillis(20), 1);
+
+    fail(circuitBreaker);
+    Thread.sleep(30);
+    long probe = circuitBreaker.tryAcquirePermission();
+    circuitBreaker.onFailure(probe);
+
+    assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+    assertThat(circuitBreaker.tryAcquirePermission()).isEqualTo(NOT_PERMITTED);
+  }
+
+  @Test
+  void whenCallPermittedBeforeOpeningCompletesLateThenHalfOpenCircuitIgnoresIt()
+      throws Exception {
+    CircuitBreaker circuitBreaker = new CircuitBreaker("bank", 1, Duration.ofMillis(20), 1);
+    long slowCall = circuitBreaker.tryAcquirePermission();
+    fail(circuitBreaker);
+    Thread.sleep(30);
+    long probe = circuitBreaker.tryAcquirePermission();
+
+    circuitBreaker.onSuccess(slowCall);
+
+    assertThat(circuitBreaker.getState()).isEqualTo(State.HALF_OPEN);
+    circuitBreaker.onFailure(probe);
+    assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+  }
+
+  @Test
+  void whenCallPermittedBeforeOpeningFailsLateThenItDoesNotReopenTheCircuit() throws Exception {
+    CircuitBreaker circuitBreaker = new CircuitBreaker("bank", 1, Duration.ofMillis(20), 1);
+    long slowCall = circuitBreaker.tryAcquirePermission();
+    fail(circuitBreaker);
+    Thread.sleep(30);
+    long probe = circuitBreaker.tryAcquirePermission();
+    circuitBreaker.onSuccess(probe);
+
+    circuitBreaker.onFailure(slowCall);
+
+    assertThat(circuitBreaker.getState()).isEqualTo(State.CLOSED);
+  }
+
+  @Test
+  void whenSeveralProbesAreAllowedThenEachIsPermittedOnceAndTheFirstOutcomeDecides()
+      throws Exception {
+    CircuitBreaker circuitBreaker = new CircuitBreaker("bank", 1, Duration.ofMillis(20), 2);
+    fail(circuitBreaker);
+    Thread.sleep(30);
+
+    long first = circuitBreaker.tryAcquirePermission();
+    long second = circuitBreaker.tryAcquirePermission();
+    assertThat(circuitBreaker.tryAcquirePermission()).isEqualTo(NOT_PERMITTED);
+
+    circuitBreaker.onFailure(first);
+    assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+    circuitBreaker.onSuccess(second);
+    assertThat(circuitBreaker.getState()).isEqualTo(State.OPEN);
+  }
+
+  private static void fail(CircuitBreaker circuitBreaker) {
+    circuitBreaker.onFailure(circuitBreaker.tryAcquirePermission());
+  }
+}
@@ -0,0 +1,49 @@
+package com.checkout.payment.gateway.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class LatencyPercentileTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Test
+  void whenWindowIsNotFullThenFloorIsReported() {
+    LatencyPercentile percentile = new LatencyPercentile(0.9, 100, Duration.ofMillis(5));
+
+    for (int i = 0; i < 99; i++) {
+      percentile.record(50 * MILLIS);
+    }
+
+    assertThat(percentile.getNanos()).isEqualTo(5 * MILLIS);
+  }
+
+  @Test
+  void whenWindowIsFullThenPercentileOfRecentSamplesIsReported() {
+    LatencyPercentile percentile = new LatencyPercentile(0.9, 100, Duration.ofMillis(1));
+
+    for (int i = 1; i <= 100; i++) {
+      percentile.record(i * MILLIS);
+    }
+    assertThat(percentile.getNanos()).isEqualTo(90 * MILLIS);
+
+    for (int i = 0; i < 100; i++) {
+      percentile.record(2 * MILLIS);
+    }
+    assertThat(percentile.getNanos()).isEqualTo(2 * MILLIS);
+  }
+
+  @Test
+  void whenPercentileIsBelowFloorThenFloorIsReported() {
+    LatencyPercentile percentile = new LatencyPercentile(0.5, 8, Duration.ofMillis(10));
+
+    for (int i = 0; i < 8; i++) {
+      percentile.record(MILLIS);
+    }
+
+    assertThat(percentile.getNanos()).isEqualTo(10 * MILLIS);
+  }
+}
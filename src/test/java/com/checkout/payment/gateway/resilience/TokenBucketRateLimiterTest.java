@@ -0,0 +1,65 @@
+package com.checkout.payment.gateway.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final AtomicLong clock = new AtomicLong(-5 * SECOND);
+
+  @Test
+  void whenBurstIsUsedThenNextRequestWaitsOneInterval() {
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 5, 100, clock::get);
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(limiter.tryAcquire("merchant-1")).isZero();
+    }
+
+    assertThat(limiter.tryAcquire("merchant-1")).isEqualTo(SECOND / 10);
+    assertThat(limiter.getRejectedRequests()).isEqualTo(1);
+  }
+
+  @Test
+  void whenTimePassesThenTokensAreReplenishedAtTheRate() {
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 5, 100, clock::get);
+    for (int i = 0; i < 5; i++) {
+      limiter.tryAcquire("merchant-1");
+    }
+
+    clock.addAndGet(SECOND / 5);
+
+    assertThat(limiter.tryAcquire("merchant-1")).isZero();
+    assertThat(limiter.tryAcquire("merchant-1")).isZero();
+    assertThat(limiter.tryAcquire("merchant-1")).isPositive();
+  }
+
+  @Test
+  void whenOneClientIsThrottledThenOthersAreNot() {
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 100, clock::get);
+
+    assertThat(limiter.tryAcquire("merchant-1")).isZero();
+    assertThat(limiter.tryAcquire("merchant-1")).isPositive();
+
+    assertThat(limiter.tryAcquire("merchant-2")).isZero();
+  }
+
+  @Test
+  void whenTooManyClientsAreTrackedThenFullBucketsAreDropped() {
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 2, clock::get);
+    limiter.tryAcquire("idle");
+    limiter.tryAcquire("busy");
+    clock.addAndGet(SECOND);
+    limiter.tryAcquire("busy");
+
+    clock.addAndGet(SECOND / 2);
+    assertThat(limiter.tryAcquire("new")).isZero();
+
+    assertThat(limiter.getTrackedClients()).isEqualTo(2);
+    assertThat(limiter.tryAcquire("busy")).isPositive();
+  }
+}
@@ -0,0 +1,129 @@
+package com.checkout.payment.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
+import com.checkout.payment.gateway.model.BatchItemResult;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import jakarta.validation.Validation;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+
+class BatchPaymentServiceTest {
+
+  private final PaymentGatewayService paymentGatewayService = mock(PaymentGatewayService.class);
+  private final BatchPaymentService batchPaymentService = new BatchPaymentService(
+      paymentGatewayService, Validation.buildDefaultValidatorFactory().getValidator(), 2, 100);
+
+  @Test
+  void whenBatchIsMixedThenEveryItemGetsAStatus() throws Exception {
+    UUID authorizedId = UUID.randomUUID();
+    when(paymentGatewayService.processPaymentAsync(argThat(cardEndingIn("1"))))
+        .thenReturn(CompletableFuture.completedFuture(authorizedId));
+    when(paymentGatewayService.processPaymentAsync(argThat(cardEndingIn("2"))))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    when(paymentGatewayService.processPaymentAsync(argThat(cardEndingIn("0"))))
+        .thenReturn(CompletableFuture.failedFuture(
+            new BankUnavailableException("Bank service unavailable")));
+    PostPaymentRequest invalid = request("4111111111111111");
+    invalid.setCvv("12");
+
+    List<BatchItemResult> results = new ArrayList<>();
+    int processed = batchPaymentService.process(List.of(
+        request("4111111111111111"),
+        request("4111111111111112"),
+        invalid,
+        request("4111111111111110")).iterator(), results::add);
+
+    results.sort(Comparator.comparingInt(BatchItemResult::getIndex));
+    assertThat(processed).isEqualTo(4);
+    assertThat(results).extracting(BatchItemResult::getStatus).containsExactly(
+        PaymentStatus.AUTHORIZED, PaymentStatus.DECLINED, PaymentStatus.REJECTED,
+        PaymentStatus.REJECTED);
+    assertThat(results.get(0).getId()).isEqualTo(authorizedId);
+    assertThat(results.get(2).getErrors()).containsExactly("CVV must be 3 or 4 digits");
+    assertThat(results.get(3).getErrors()).containsExactly("Bank service unavailable");
+  }
+
+  @Test
+  void whenBatchExceedsLimitThenRemainingItemsAreNotRead() throws Exception {
+    BatchPaymentService limited = new BatchPaymentService(paymentGatewayService,
+        Validation.buildDefaultValidatorFactory().getValidator(), 2, 1);
+    when(paymentGatewayService.processPaymentAsync(argThat(cardEndingIn("2"))))
+        .thenReturn(CompletableFuture.completedFuture(null));
+
+    List<BatchItemResult> results = new ArrayList<>();
+    limited.process(List.of(request("4111111111111112"), request("4111111111111112"),
+        request("4111111111111112")).iterator(), results::add);
+
+    assertThat(results).hasSize(2);
+    assertThat(results).extracting(BatchItemResult::getStatus)
+        .containsExactlyInAnyOrder(PaymentStatus.DECLINED, PaymentStatus.REJECTED);
+  }
+
+  @Test
+  void whenReadingIsBlockedThenDecidedResultsAreStillDelivered() throws Exception {
+    when(paymentGatewayService.processPaymentAsync(argThat(cardEndingIn("2"))))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    CountDownLatch firstResult = new CountDownLatch(1);
+    List<Boolean> deliveredWhileBlocked = new ArrayList<>();
+    Iterator<PostPaymentRequest> items = new Iterator<>() {
+      private int read;
+
+      @Override
+      public boolean hasNext() {
+        if (read == 1) {
+          try {
+            deliveredWhileBlocked.add(firstResult.await(5, TimeUnit.SECONDS));
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        return read < 2;
+      }
+
+      @Override
+      public PostPaymentRequest next() {
+        read++;
+        return request("4111111111111112");
+      }
+    };
+
+    List<BatchItemResult> results = new ArrayList<>();
+    int processed = batchPaymentService.process(items, result -> {
+      results.add(result);
+      firstResult.countDown();
+    });
+
+    assertThat(processed).isEqualTo(2);
+    assertThat(deliveredWhileBlocked).containsExactly(true);
+    assertThat(results).extracting(BatchItemResult::getIndex).containsExactlyInAnyOrder(0, 1);
+  }
+
+  private static ArgumentMatcher<PostPaymentRequest> cardEndingIn(String digit) {
+    return request -> request != null && request.getCardNumberLastFour().endsWith(digit);
+  }
+
+  private static PostPaymentRequest request(String cardNumber) {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumberLastFour(cardNumber);
+    request.setExpiryMonth(12);
+    request.setExpiryYear(2030);
+    request.setCurrency("USD");
+    request.setAmount(100);
+    request.setCvv("123");
+    return request;
+  }
+}
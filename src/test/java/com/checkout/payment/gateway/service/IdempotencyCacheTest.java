@@ -0,0 +1,130 @@
+package com.checkout.payment.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.exception.IdempotencyKeyReusedException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class IdempotencyCacheTest {
+
+  private static final byte[] BODY = {1, 2, 3};
+  private static final byte[] OTHER_BODY = {4, 5, 6};
+
+  @Test
+  void whenKeyIsInFlightThenDuplicatesShareTheSameResult() {
+    IdempotencyCache<String> cache = new IdempotencyCache<>(10, Duration.ofMinutes(1));
+    CompletableFuture<String> authorization = new CompletableFuture<>();
+    AtomicInteger calls = new AtomicInteger();
+
+    CompletableFuture<String> first = cache.getOrCompute("key", BODY, () -> {
+      calls.incrementAndGet();
+      return authorization;
+    });
+    CompletableFuture<String> second = cache.getOrCompute("key", BODY, () -> {
+      calls.incrementAndGet();
+      return CompletableFuture.completedFuture("other");
+    });
+    authorization.complete("authorized");
+
+    assertThat(calls).hasValue(1);
+    assertThat(first.join()).isEqualTo("authorized");
+    assertThat(second.join()).isEqualTo("authorized");
+  }
+
+  @Test
+  void whenComputationFailsThenNextCallRetries() {
+    IdempotencyCache<String> cache = new IdempotencyCache<>(10, Duration.ofMinutes(1));
+
+    CompletableFuture<String> failed = cache.getOrCompute("key", BODY,
+        () -> CompletableFuture.failedFuture(new IllegalStateException("bank down")));
+    CompletableFuture<String> retried = cache.getOrCompute("key", BODY,
+        () -> CompletableFuture.completedFuture("authorized"));
+
+    assertThat(failed).isCompletedExceptionally();
+    assertThat(retried.join()).isEqualTo("authorized");
+  }
+
+  @Test
+  void whenComputationsFailThenTheyDoNotTakeUpCapacity() {
+    IdempotencyCache<Integer> cache = new IdempotencyCache<>(3, Duration.ofMinutes(1));
+    cache.getOrCompute("kept", BODY, () -> CompletableFuture.completedFuture(1));
+
+    for (int i = 0; i < 10; i++) {
+      cache.getOrCompute("failed-" + i, BODY,
+          () -> CompletableFuture.failedFuture(new IllegalStateException("bank down")));
+    }
+
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.getOrCompute("kept", BODY, () -> CompletableFuture.completedFuture(-1))
+        .join()).isEqualTo(1);
+  }
+
+  @Test
+  void whenTtlElapsesThenEntryIsRecomputed() throws Exception {
+    IdempotencyCache<String> cache = new IdempotencyCache<>(10, Duration.ofMillis(10));
+    cache.getOrCompute("key", BODY, () -> CompletableFuture.completedFuture("first"));
+
+    Thread.sleep(20);
+
+    assertThat(cache.getOrCompute("key", BODY, () -> CompletableFuture.completedFuture("second"))
+        .join()).isEqualTo("second");
+  }
+
+  @Test
+  void whenCapacityIsExceededThenOldestKeysAreEvicted() {
+    IdempotencyCache<Integer> cache = new IdempotencyCache<>(3, Duration.ofMinutes(1));
+    for (int i = 0; i < 5; i++) {
+      int value = i;
+      cache.getOrCompute("key-" + i, BODY, () -> CompletableFuture.completedFuture(value));
+    }
+
+    assertThat(cache.size()).isEqualTo(3);
+    assertThat(cache.getOrCompute("key-0", BODY, () -> CompletableFuture.completedFuture(-1))
+        .join()).isEqualTo(-1);
+  }
+
+  @Test
+  void whenCapacityIsExceededThenInFlightKeysAreNotEvicted() {
+    IdempotencyCache<Integer> cache = new IdempotencyCache<>(1, Duration.ofMinutes(1));
+    CompletableFuture<Integer> authorization = new CompletableFuture<>();
+    AtomicInteger calls = new AtomicInteger();
+    cache.getOrCompute("in-flight", BODY, () -> {
+      calls.incrementAndGet();
+      return authorization;
+    });
+
+    for (int i = 0; i < 5; i++) {
+      int value = i;
+      cache.getOrCompute("key-" + i, BODY, () -> CompletableFuture.completedFuture(value));
+    }
+    CompletableFuture<Integer> retried = cache.getOrCompute("in-flight", BODY, () -> {
+      calls.incrementAndGet();
+      return CompletableFuture.completedFuture(-1);
+    });
+    authorization.complete(42);
+
+    assertThat(calls).hasValue(1);
+    assertThat(retried.join()).isEqualTo(42);
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  void whenKeyIsReusedWithDifferentRequestThenItIsRejected() {
+    IdempotencyCache<String> cache = new IdempotencyCache<>(10, Duration.ofMinutes(1));
+    AtomicInteger calls = new AtomicInteger();
+    cache.getOrCompute("key", BODY, () -> {
+      calls.incrementAndGet();
+      return CompletableFuture.completedFuture("authorized");
+    });
+
+    assertThatThrownBy(() -> cache.getOrCompute("key", OTHER_BODY, () -> {
+      calls.incrementAndGet();
+      return CompletableFuture.completedFuture("other");
+    })).isInstanceOf(IdempotencyKeyReusedException.class);
+    assertThat(calls).hasValue(1);
+  }
+}
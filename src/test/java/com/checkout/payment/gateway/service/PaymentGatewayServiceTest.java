@@ -1,25 +1,33 @@
 package com.checkout.payment.gateway.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
+import com.checkout.payment.gateway.client.BankClient;
+import com.checkout.payment.gateway.exception.BankTimeoutException;
+import com.checkout.payment.gateway.exception.BankUnavailableException;
+import com.checkout.payment.gateway.exception.EventProcessingException;
 import com.checkout.payment.gateway.model.PostAuthResponse;
 import com.checkout.payment.gateway.model.PostPaymentRequest;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.validation.PaymentRequestValidator;
+import org.apache.hc.client5.http.ConnectTimeoutException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpServerErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.ResourceAccessException;
 
 @ExtendWith(MockitoExtension.class)
 class PaymentGatewayServiceTest {
@@ -31,7 +39,13 @@ class PaymentGatewayServiceTest {
   private PaymentsRepository paymentsRepository;
 
   @Mock
-  private RestTemplate restTemplate;
+  private BankClient bankClient;
+
+  @Mock
+  private PaymentMetrics paymentMetrics;
+
+  @Spy
+  private PaymentRequestValidator paymentRequestValidator = PaymentRequestValidator.DEFAULT;
 
   @Test
   void whenCardNumberEndInOddPaymentIsAuthorized(){
@@ -47,8 +61,8 @@ class PaymentGatewayServiceTest {
     PostAuthResponse response = new PostAuthResponse();
     response.setAuthorization_code(UUID.randomUUID().toString());
 
-    when(restTemplate.postForEntity(any(String.class), any(HttpEntity.class), any())).thenReturn(
-        new ResponseEntity<>(response, HttpStatus.OK));
+    when(bankClient.authorize(any(PostPaymentRequest.class))).thenReturn(
+        CompletableFuture.completedFuture(response));
 
     UUID uuid = paymentGatewayService.processPayment(payment);
 
@@ -95,6 +109,9 @@ class PaymentGatewayServiceTest {
     payment.setAmount(10);
     payment.setCvv("999");
 
+    when(bankClient.authorize(any(PostPaymentRequest.class))).thenReturn(
+        CompletableFuture.completedFuture(declined()));
+
     UUID uuid = paymentGatewayService.processPayment(payment);
 
     assertNull(uuid);
@@ -110,6 +127,9 @@ class PaymentGatewayServiceTest {
     payment.setAmount(10);
     payment.setCvv("999");
 
+    when(bankClient.authorize(any(PostPaymentRequest.class))).thenReturn(
+        CompletableFuture.completedFuture(declined()));
+
     UUID uuid = paymentGatewayService.processPayment(payment);
 
     assertNull(uuid);
@@ -125,6 +145,9 @@ class PaymentGatewayServiceTest {
     payment.setAmount(10);
     payment.setCvv("999");
 
+    when(bankClient.authorize(any(PostPaymentRequest.class))).thenReturn(
+        CompletableFuture.completedFuture(declined()));
+
     UUID uuid = paymentGatewayService.processPayment(payment);
 
     assertNull(uuid);
@@ -156,6 +179,9 @@ class PaymentGatewayServiceTest {
     payment.setAmount(10);
     payment.setCvv("99913");
 
+    when(bankClient.authorize(any(PostPaymentRequest.class))).thenReturn(
+        CompletableFuture.completedFuture(declined()));
+
     UUID uuid = paymentGatewayService.processPayment(payment);
 
     assertNull(uuid);
@@ -171,12 +197,59 @@ class PaymentGatewayServiceTest {
     payment.setAmount(10);
     payment.setCvv("9993");
 
-    when(restTemplate.postForEntity(any(String.class), any(HttpEntity.class), any())).thenThrow(new HttpServerErrorException(
-        HttpStatus.SERVICE_UNAVAILABLE));
+    when(bankClient.authorize(any(PostPaymentRequest.class))).thenReturn(
+        CompletableFuture.failedFuture(new HttpServerErrorException(
+            HttpStatus.SERVICE_UNAVAILABLE)));
 
-    assertThrows(
-        HttpServerErrorException.class,
+    EventProcessingException exception = assertThrows(
+        EventProcessingException.class,
         () -> paymentGatewayService.processPayment(payment));
+    assertEquals("Bank service unavailable", exception.getMessage());
   }
 
+  @Test
+  void whenBankMissesDeadlineThenTimeoutIsReported() {
+    PostPaymentRequest payment = new PostPaymentRequest();
+    payment.setCardNumberLastFour("4321");
+    payment.setExpiryMonth(12);
+    payment.setExpiryYear(2026);
+    payment.setCurrency("USD");
+    payment.setAmount(10);
+    payment.setCvv("999");
+
+    when(bankClient.authorize(any(PostPaymentRequest.class))).thenReturn(
+        CompletableFuture.failedFuture(new TimeoutException()));
+
+    BankTimeoutException exception = assertThrows(
+        BankTimeoutException.class,
+        () -> paymentGatewayService.processPayment(payment));
+    assertEquals("Bank service timed out", exception.getMessage());
+  }
+
+  @Test
+  void whenConnectionToBankTimesOutThenBankIsReportedUnavailable() {
+    PostPaymentRequest payment = new PostPaymentRequest();
+    payment.setCardNumberLastFour("4321");
+    payment.setExpiryMonth(12);
+    payment.setExpiryYear(2026);
+    payment.setCurrency("USD");
+    payment.setAmount(10);
+    payment.setCvv("999");
+
+    when(bankClient.authorize(any(PostPaymentRequest.class))).thenReturn(
+        CompletableFuture.failedFuture(new ResourceAccessException("Connect timed out",
+            new ConnectTimeoutException("Connect to bank timed out"))));
+
+    BankUnavailableException exception = assertThrows(
+        BankUnavailableException.class,
+        () -> paymentGatewayService.processPayment(payment));
+    assertEquals("Bank service unavailable", exception.getMessage());
+  }
+
+  private static PostAuthResponse declined() {
+    PostAuthResponse response = new PostAuthResponse();
+    response.setAuthorized("false");
+    response.setAuthorization_code("");
+    return response;
+  }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.checkout.payment.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.service.PaymentResponseCache.SerializedPayment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class PaymentResponseCacheTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void whenPaymentIsCachedThenSerializedBodyIsReturned() throws Exception {
+    PaymentResponseCache cache = new PaymentResponseCache(objectMapper.writer(), 16);
+    PostPaymentResponse payment = payment(UUID.randomUUID());
+
+    SerializedPayment serialized = cache.put(payment);
+
+    assertThat(cache.get(payment.getId())).isSameAs(serialized);
+    assertThat(serialized.body()).isEqualTo(objectMapper.writeValueAsBytes(payment));
+    assertThat(serialized.etag()).startsWith("\"0").endsWith("\"").hasSize(35);
+  }
+
+  @Test
+  void whenSamePaymentIsSerializedAgainThenETagIsUnchanged() {
+    UUID id = UUID.randomUUID();
+
+    String first = new PaymentResponseCache(objectMapper.writer(), 16).put(payment(id)).etag();
+    String second = new PaymentResponseCache(objectMapper.writer(), 16).put(payment(id)).etag();
+
+    assertThat(first).isEqualTo(second);
+  }
+
+  @Test
+  void whenPaymentsShareASlotThenOnlyTheLatestIsCached() {
+    PaymentResponseCache cache = new PaymentResponseCache(objectMapper.writer(), 1);
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+
+    cache.put(payment(first));
+    cache.put(payment(second));
+
+    assertThat(cache.get(first)).isNull();
+    assertThat(cache.get(second)).isNotNull();
+  }
+
+  private static PostPaymentResponse payment(UUID id) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(id);
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setAmount(1050);
+    payment.setCurrency("GBP");
+    payment.setCardNumberLastFour("0123");
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(2031);
+    return payment;
+  }
+}
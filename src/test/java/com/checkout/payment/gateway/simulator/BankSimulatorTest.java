@@ -0,0 +1,147 @@
+package com.checkout.payment.gateway.simulator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.client.AsyncHttpBankClient;
+import com.checkout.payment.gateway.client.BatchOutcome;
+import com.checkout.payment.gateway.configuration.BankClientProperties;
+import com.checkout.payment.gateway.model.PostAuthResponse;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+
+class BankSimulatorTest {
+
+  private BankSimulator simulator;
+  private AsyncHttpBankClient client;
+
+  @AfterEach
+  void tearDown() {
+    if (client != null) {
+      client.close();
+    }
+    simulator.close();
+  }
+
+  @Test
+  void whenCardNumberEndsInOddDigitThenPaymentIsAuthorized() {
+    start(BankSimulator.builder());
+
+    PostAuthResponse response = client.authorize(request("4111111111111111")).join();
+
+    assertThat(response.getAuthorized()).isEqualTo("true");
+    assertThat(response.getAuthorization_code()).isNotBlank();
+  }
+
+  @Test
+  void whenCardNumberEndsInEvenDigitThenPaymentIsDeclined() {
+    start(BankSimulator.builder());
+
+    PostAuthResponse response = client.authorize(request("4111111111111112")).join();
+
+    assertThat(response.getAuthorized()).isEqualTo("false");
+  }
+
+  @Test
+  void whenCardNumberEndsInZeroThenBankIsUnavailable() {
+    start(BankSimulator.builder());
+
+    assertThatThrownBy(() -> client.authorize(request("4111111111111110")).join())
+        .hasCauseInstanceOf(HttpServerErrorException.ServiceUnavailable.class);
+  }
+
+  @Test
+  void whenFieldIsMissingThen400IsReturned() throws Exception {
+    start(BankSimulator.builder());
+
+    HttpResponse<String> response = HttpClient.newHttpClient().send(
+        HttpRequest.newBuilder(URI.create(simulator.url()))
+            .POST(BodyPublishers.ofString("{\"card_number\":\"4111111111111111\"}"))
+            .build(),
+        BodyHandlers.ofString());
+
+    assertThat(response.statusCode()).isEqualTo(400);
+    assertThat(response.body()).contains("Not all required properties were sent");
+  }
+
+  @Test
+  void whenBatchIsSentThenResponsesFollowRequestOrder() {
+    start(BankSimulator.builder());
+
+    List<BatchOutcome> outcomes = client.authorizeBatch(List.of(
+        request("4111111111111111"), request("4111111111111112"), request("4111111111111110"),
+        request("4111111111111113"))).join();
+
+    assertThat(outcomes).hasSize(4);
+    assertThat(outcomes.get(0).response().getAuthorized()).isEqualTo("true");
+    assertThat(outcomes.get(1).response().getAuthorized()).isEqualTo("false");
+    assertThat(outcomes.get(2).failure())
+        .isInstanceOf(HttpServerErrorException.ServiceUnavailable.class);
+    assertThat(outcomes.get(3).response().getAuthorized()).isEqualTo("true");
+  }
+
+  @Test
+  void whenErrorRateIsOneThenEveryRequestIsUnavailable() {
+    start(BankSimulator.builder().errorRate(1));
+
+    assertThatThrownBy(() -> client.authorize(request("4111111111111111")).join())
+        .hasCauseInstanceOf(HttpServerErrorException.ServiceUnavailable.class);
+    assertThat(simulator.requests()).isEqualTo(1);
+  }
+
+  @Test
+  void whenLatencyIsConfiguredThenResponsesAreDelayed() {
+    start(BankSimulator.builder()
+        .latency(LatencyDistribution.fixed(Duration.ofMillis(200))));
+
+    long start = System.nanoTime();
+    client.authorize(request("4111111111111111")).join();
+
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(
+        Duration.ofMillis(200));
+  }
+
+  @Test
+  void whenSeedIsSameThenAuthorizationCodesRepeat() {
+    start(BankSimulator.builder().seed(42));
+    String first = client.authorize(request("4111111111111111")).join()
+        .getAuthorization_code();
+    client.close();
+    simulator.close();
+
+    start(BankSimulator.builder().seed(42));
+    String second = client.authorize(request("4111111111111111")).join()
+        .getAuthorization_code();
+
+    assertThat(second).isEqualTo(first);
+  }
+
+  private void start(BankSimulator.Builder builder) {
+    simulator = builder.start();
+    client = new AsyncHttpBankClient(new BankClientProperties(), simulator.url(),
+        new ObjectMapper(), ObservationRegistry.NOOP);
+  }
+
+  private static PostPaymentRequest request(String cardNumber) {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumberLastFour(cardNumber);
+    request.setExpiryMonth(12);
+    request.setExpiryYear(2030);
+    request.setCurrency("GBP");
+    request.setAmount(1050);
+    request.setCvv("123");
+    return request;
+  }
+}
@@ -0,0 +1,56 @@
+package com.checkout.payment.gateway.simulator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class LatencyDistributionTest {
+
+  @Test
+  void whenLogNormalIsSampledThenMedianAndP99MatchConfiguration() {
+    long[] samples = sample(LatencyDistribution.parse("lognormal:5ms,50ms"), 100_000);
+
+    assertThat(samples[50_000] / 1e6).isCloseTo(5, within(0.25));
+    assertThat(samples[99_000] / 1e6).isCloseTo(50, within(2.5));
+  }
+
+  @Test
+  void whenUniformIsSampledThenValuesStayInRange() {
+    long[] samples = sample(LatencyDistribution.parse("uniform:1ms,3ms"), 10_000);
+
+    assertThat(samples[0]).isGreaterThanOrEqualTo(1_000_000);
+    assertThat(samples[samples.length - 1]).isLessThan(3_000_000);
+  }
+
+  @Test
+  void whenSpecIsFixedOrNoneThenLatencyIsConstant() {
+    assertThat(LatencyDistribution.parse("fixed:250us").nextNanos(new SplittableRandom()))
+        .isEqualTo(250_000);
+    assertThat(LatencyDistribution.parse("none").nextNanos(new SplittableRandom())).isZero();
+  }
+
+  @Test
+  void whenSpecIsInvalidThenItIsRejected() {
+    assertThatThrownBy(() -> LatencyDistribution.parse("gamma:1ms"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> LatencyDistribution.parse("uniform:1ms"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> LatencyDistribution.logNormal(Duration.ofMillis(10),
+        Duration.ofMillis(5))).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static long[] sample(LatencyDistribution distribution, int count) {
+    SplittableRandom random = new SplittableRandom(7);
+    long[] samples = new long[count];
+    for (int i = 0; i < count; i++) {
+      samples[i] = distribution.nextNanos(random);
+    }
+    Arrays.sort(samples);
+    return samples;
+  }
+}
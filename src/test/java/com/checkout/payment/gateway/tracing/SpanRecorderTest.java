@@ -0,0 +1,78 @@
+package com.checkout.payment.gateway.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler.Cause;
+import brave.propagation.TraceContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SpanRecorderTest {
+
+  private static final TraceContext CONTEXT =
+      TraceContext.newBuilder().traceId(1).spanId(2).build();
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void whenBufferWrapsThenMostRecentSpansAreKeptNewestFirst() {
+    SpanRecorder recorder = new SpanRecorder(2, new ObjectMapper().writer(), null,
+        Duration.ofSeconds(1));
+
+    recorder.end(CONTEXT, span("payment.check", 100, 110), Cause.FINISHED);
+    recorder.end(CONTEXT, span("payment.bank.authorize", 110, 160), Cause.FINISHED);
+    recorder.end(CONTEXT, span("payment.store", 160, 165), Cause.FINISHED);
+    recorder.end(CONTEXT, span("abandoned", 165, 170), Cause.ABANDONED);
+
+    List<FinishedSpan> recent = recorder.recent(10);
+    assertThat(recent).extracting(FinishedSpan::name)
+        .containsExactly("payment.store", "payment.bank.authorize");
+    assertThat(recent.get(0).durationMicros()).isEqualTo(5);
+    assertThat(recent.get(0).tags()).containsEntry("outcome", "ok");
+  }
+
+  @Test
+  void whenLimitIsNotPositiveThenNoSpansAreReturned() {
+    SpanRecorder recorder = new SpanRecorder(2, new ObjectMapper().writer(), null,
+        Duration.ofSeconds(1));
+    recorder.end(CONTEXT, span("payment.check", 100, 110), Cause.FINISHED);
+
+    assertThat(recorder.recent(0)).isEmpty();
+    assertThat(recorder.recent(-1)).isEmpty();
+  }
+
+  @Test
+  void whenExportFileIsSetThenSpansAreWrittenAsJsonLines() throws IOException {
+    Path exportFile = directory.resolve("spans.ndjson");
+    SpanRecorder recorder = new SpanRecorder(16, new ObjectMapper().writer(), exportFile,
+        Duration.ofMillis(10));
+
+    recorder.end(CONTEXT, span("payment.check", 100, 110), Cause.FINISHED);
+    recorder.end(CONTEXT, span("payment.store", 160, 165), Cause.FINISHED);
+    recorder.close();
+
+    List<String> lines = Files.readAllLines(exportFile);
+    assertThat(lines).hasSize(2);
+    assertThat(lines.get(0)).contains("\"name\":\"payment.check\"", "\"durationMicros\":10");
+    assertThat(recorder.getDroppedSpans()).isZero();
+  }
+
+  private static MutableSpan span(String name, long startMicros, long finishMicros) {
+    MutableSpan span = new MutableSpan();
+    span.traceId(CONTEXT.traceIdString());
+    span.id(CONTEXT.spanIdString());
+    span.name(name);
+    span.startTimestamp(startMicros);
+    span.finishTimestamp(finishMicros);
+    span.tag("outcome", "ok");
+    return span;
+  }
+}
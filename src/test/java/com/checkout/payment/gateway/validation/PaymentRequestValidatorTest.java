@@ -0,0 +1,108 @@
+package com.checkout.payment.gateway.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.enums.Currency;
+import com.checkout.payment.gateway.enums.RejectionReason;
+import com.checkout.payment.gateway.model.PostPaymentRequest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class PaymentRequestValidatorTest {
+
+  private static final Instant MID_JUNE_2026 = Instant.parse("2026-06-15T12:00:00Z");
+
+  private final PaymentRequestValidator validator =
+      new PaymentRequestValidator(Clock.fixed(MID_JUNE_2026, ZoneOffset.UTC), false);
+
+  @Test
+  void whenRequestIsValidThenNoReasonsAreReturned() {
+    assertThat(validator.validate(request("2222405343248877", "123", 6, 2026, "GBP"))).isEmpty();
+  }
+
+  @Test
+  void whenEveryFieldIsInvalidThenEveryReasonIsReturned() {
+    assertThat(validator.validate(request("12a", "12345", 1, 2025, "JPY"))).containsExactly(
+        RejectionReason.CARD_NUMBER_LENGTH, RejectionReason.CARD_NUMBER_DIGITS,
+        RejectionReason.CVV_LENGTH, RejectionReason.CVV_DIGITS, RejectionReason.EXPIRY_YEAR,
+        RejectionReason.CURRENCY);
+  }
+
+  @Test
+  void whenExpiryMonthHasPassedOnlyInCurrentYearThenCardIsExpired() {
+    assertThat(validator.checkExpiry(2026, 5)).isEqualTo(RejectionReason.EXPIRY_MONTH);
+    assertThat(validator.checkExpiry(2026, 6)).isNull();
+    assertThat(validator.checkExpiry(2027, 1)).isNull();
+    assertThat(validator.checkExpiry(2025, 12)).isEqualTo(RejectionReason.EXPIRY_YEAR);
+  }
+
+  @Test
+  void whenMonthChangesThenCachedMonthIsRefreshedWithinASecond() {
+    AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-06-30T23:59:59.500Z"));
+    Clock clock = new Clock() {
+      @Override
+      public ZoneId getZone() {
+        return ZoneOffset.UTC;
+      }
+
+      @Override
+      public Clock withZone(ZoneId zone) {
+        return this;
+      }
+
+      @Override
+      public Instant instant() {
+        return now.get();
+      }
+    };
+    PaymentRequestValidator validator = new PaymentRequestValidator(clock, false);
+    assertThat(validator.checkExpiry(2026, 6)).isNull();
+
+    now.set(now.get().plus(Duration.ofSeconds(1)));
+
+    assertThat(validator.checkExpiry(2026, 6)).isEqualTo(RejectionReason.EXPIRY_MONTH);
+  }
+
+  @Test
+  void whenLuhnCheckIsEnabledThenInvalidCheckDigitIsRejected() {
+    PaymentRequestValidator luhn =
+        new PaymentRequestValidator(Clock.fixed(MID_JUNE_2026, ZoneOffset.UTC), true);
+
+    assertThat(luhn.validate(request("4111111111111111", "123", 6, 2026, "USD"))).isEmpty();
+    assertThat(luhn.validate(request("4111111111111112", "123", 6, 2026, "USD")))
+        .containsExactly(RejectionReason.CARD_NUMBER_LUHN);
+  }
+
+  @Test
+  void whenCurrencyIsCheckedThenOnlySupportedCodesPass() {
+    assertThat(validator.checkCurrency("EUR")).isNull();
+    assertThat(validator.checkCurrency("eur")).isEqualTo(RejectionReason.CURRENCY);
+    assertThat(validator.checkCurrency("USDD")).isEqualTo(RejectionReason.CURRENCY);
+    assertThat(validator.checkCurrency(null)).isEqualTo(RejectionReason.CURRENCY);
+  }
+
+  @Test
+  void whenCurrencyCodeIsLookedUpThenEveryCurrencyIsFound() {
+    for (Currency currency : Currency.values()) {
+      assertThat(PaymentRequestValidator.currencyOf(currency.name())).isEqualTo(currency);
+    }
+    assertThat(PaymentRequestValidator.currencyOf("JPY")).isNull();
+  }
+
+  private static PostPaymentRequest request(String cardNumber, String cvv, int month, int year,
+      String currency) {
+    PostPaymentRequest request = new PostPaymentRequest();
+    request.setCardNumberLastFour(cardNumber);
+    request.setCvv(cvv);
+    request.setExpiryMonth(month);
+    request.setExpiryYear(year);
+    request.setCurrency(currency);
+    request.setAmount(100);
+    return request;
+  }
+}
@@ -0,0 +1,241 @@
+package com.checkout.payment.gateway.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+/**
+ * In-process stand-in for the mountebank bank simulator in {@code imposters/}, for tests,
+ * benchmarks and load tests that should measure the gateway rather than the simulator.
+ *
+ * <p>It applies the imposter's rules to {@code POST /payments}: a request missing a field gets
+ * 400, a card number ending in an odd digit is authorized, one ending in 2, 4, 6 or 8 is declined
+ * and one ending in 0 gets 503. On top of the rules, a fraction {@code errorRate} of
+ * authorizations gets 503 whatever the card. {@code POST /payments/batch} takes an array of
+ * requests and answers 200 with an array of outcomes in the same order, each holding the
+ * {@code status} and {@code body} that request would have got on its own, so one failing card
+ * does not fail the batch. Each response is delayed by a draw from the latency distribution.
+ * Runs on Reactor Netty and delays responses on timers, so slow responses do not hold threads.
+ *
+ * <p>Latency and error draws come from a generator seeded with {@code seed} and the request's
+ * arrival number, so a run with the same seed and arrival order sees the same draws.
+ */
+public final class BankSimulator implements AutoCloseable {
+
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+  private static final Reply MISSING_FIELDS = new Reply(400,
+      "{\"error_message\":\"Not all required properties were sent in the request\"}");
+  private static final Reply UNSUPPORTED = new Reply(400,
+      "{\"errorMessage\":\"The request supplied is not supported by the simulator\"}");
+  private static final Reply DECLINED =
+      new Reply(200, "{\"authorized\":false,\"authorization_code\":\"\"}");
+  private static final Reply UNAVAILABLE = new Reply(503, "{}");
+  private static final String[] REQUIRED_FIELDS =
+      {"card_number", "expiry_date", "currency", "amount", "cvv"};
+
+  private final LatencyDistribution latency;
+  private final double errorRate;
+  private final long seed;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final AtomicLong requests = new AtomicLong();
+  private final DisposableServer server;
+
+  private BankSimulator(Builder builder) {
+    this.latency = builder.latency;
+    this.errorRate = builder.errorRate;
+    this.seed = builder.seed;
+    this.server = HttpServer.create()
+        .host(builder.host)
+        .port(builder.port)
+        .route(routes -> routes
+            .post("/payments", (request, response) -> handle(request, response, false))
+            .post("/payments/batch", (request, response) -> handle(request, response, true)))
+        .bindNow();
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public int port() {
+    return server.port();
+  }
+
+  /** The authorization endpoint, as {@code bank.url} expects it. */
+  public String url() {
+    return "http://" + server.host() + ":" + server.port() + "/payments";
+  }
+
+  /** Number of requests received so far; a batch counts as one. */
+  public long requests() {
+    return requests.get();
+  }
+
+  @Override
+  public void close() {
+    server.disposeNow();
+  }
+
+  private Mono<Void> handle(HttpServerRequest request, HttpServerResponse response,
+      boolean batch) {
+    return request.receive().aggregate().asByteArray()
+        .defaultIfEmpty(new byte[0])
+        .flatMap(body -> {
+          RandomGenerator random =
+              new SplittableRandom(seed + requests.getAndIncrement() * GOLDEN_GAMMA);
+          Reply reply = batch ? replyToBatch(body, random) : replyTo(read(body), random);
+          long delay = latency.nextNanos(random);
+          return delay > 0 ? Mono.just(reply).delayElement(Duration.ofNanos(delay))
+              : Mono.just(reply);
+        })
+        .flatMap(reply -> response.status(reply.status())
+            .header("Content-Type", "application/json")
+            .sendByteArray(Mono.just(reply.body()))
+            .then());
+  }
+
+  private Reply replyToBatch(byte[] body, RandomGenerator random) {
+    JsonNode items = read(body);
+    if (items == null || !items.isArray()) {
+      return UNSUPPORTED;
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write('[');
+    for (JsonNode item : items) {
+      if (out.size() > 1) {
+        out.write(',');
+      }
+      Reply reply = replyTo(item, random);
+      out.writeBytes(("{\"status\":" + reply.status() + ",\"body\":")
+          .getBytes(StandardCharsets.UTF_8));
+      out.writeBytes(reply.body());
+      out.write('}');
+    }
+    out.write(']');
+    return new Reply(200, out.toByteArray());
+  }
+
+  private Reply replyTo(JsonNode payment, RandomGenerator random) {
+    if (random.nextDouble() < errorRate) {
+      return UNAVAILABLE;
+    }
+    if (payment == null || !payment.isObject()) {
+      return UNSUPPORTED;
+    }
+    for (String field : REQUIRED_FIELDS) {
+      if (!payment.has(field)) {
+        return MISSING_FIELDS;
+      }
+    }
+    String cardNumber = payment.get("card_number").asText();
+    if (cardNumber.isEmpty()) {
+      return UNSUPPORTED;
+    }
+    return switch (cardNumber.charAt(cardNumber.length() - 1)) {
+      case '1', '3', '5', '7', '9' -> new Reply(200, "{\"authorized\":true,"
+          + "\"authorization_code\":\"" + new UUID(random.nextLong(), random.nextLong()) + "\"}");
+      case '2', '4', '6', '8' -> DECLINED;
+      case '0' -> UNAVAILABLE;
+      default -> UNSUPPORTED;
+    };
+  }
+
+  private JsonNode read(byte[] body) {
+    try {
+      return objectMapper.readTree(body);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Runs the simulator on its own, as a drop-in for the mountebank container. Options are
+   * {@code --port}, {@code --latency} (see {@link LatencyDistribution#parse}),
+   * {@code --error-rate} and {@code --seed}.
+   */
+  public static void main(String[] args) throws InterruptedException {
+    Builder builder = builder().port(8080);
+    for (String arg : args) {
+      String[] option = arg.split("=", 2);
+      if (option.length != 2) {
+        throw new IllegalArgumentException("Expected --name=value, got " + arg);
+      }
+      switch (option[0]) {
+        case "--port" -> builder.port(Integer.parseInt(option[1]));
+        case "--latency" -> builder.latency(LatencyDistribution.parse(option[1]));
+        case "--error-rate" -> builder.errorRate(Double.parseDouble(option[1]));
+        case "--seed" -> builder.seed(Long.parseLong(option[1]));
+        default -> throw new IllegalArgumentException("Unknown option " + option[0]);
+      }
+    }
+    BankSimulator simulator = builder.start();
+    System.out.println("Bank simulator listening on " + simulator.url());
+    new CountDownLatch(1).await();
+  }
+
+  private record Reply(int status, byte[] body) {
+
+    Reply(int status, String body) {
+      this(status, body.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  public static final class Builder {
+
+    private String host = "localhost";
+    private int port;
+    private LatencyDistribution latency = LatencyDistribution.none();
+    private double errorRate;
+    private long seed;
+
+    private Builder() {
+    }
+
+    public Builder host(String host) {
+      this.host = host;
+      return this;
+    }
+
+    /** Port to listen on; 0, the default, picks a free one. */
+    public Builder port(int port) {
+      this.port = port;
+      return this;
+    }
+
+    public Builder latency(LatencyDistribution latency) {
+      this.latency = latency;
+      return this;
+    }
+
+    /** Fraction of requests, from 0 to 1, that get 503 whatever the card number. */
+    public Builder errorRate(double errorRate) {
+      if (errorRate < 0 || errorRate > 1) {
+        throw new IllegalArgumentException("Error rate must be between 0 and 1: " + errorRate);
+      }
+      this.errorRate = errorRate;
+      return this;
+    }
+
+    public Builder seed(long seed) {
+      this.seed = seed;
+      return this;
+    }
+
+    public BankSimulator start() {
+      return new BankSimulator(this);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package com.checkout.payment.gateway.simulator;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+import org.springframework.boot.convert.DurationStyle;
+
+/** How long the {@link BankSimulator} waits before answering each request. */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+  long nextNanos(RandomGenerator random);
+
+  static LatencyDistribution none() {
+    return random -> 0;
+  }
+
+  static LatencyDistribution fixed(Duration latency) {
+    long nanos = latency.toNanos();
+    return random -> nanos;
+  }
+
+  static LatencyDistribution uniform(Duration min, Duration max) {
+    long minNanos = min.toNanos();
+    long maxNanos = max.toNanos();
+    if (maxNanos < minNanos) {
+      throw new IllegalArgumentException("Max latency " + max + " is below min " + min);
+    }
+    return random -> minNanos + (long) (random.nextDouble() * (maxNanos - minNanos));
+  }
+
+  /**
+   * Log-normal latencies with the given median and 99th percentile, the long-tailed shape real
+   * acquirers tend to show.
+   */
+  static LatencyDistribution logNormal(Duration median, Duration p99) {
+    if (median.isNegative() || median.isZero() || p99.compareTo(median) < 0) {
+      throw new IllegalArgumentException(
+          "Log-normal latency needs 0 < median <= p99, got " + median + " and " + p99);
+    }
+    double mu = Math.log(median.toNanos());
+    // 2.326 is the standard normal quantile at 0.99.
+    double sigma = Math.log((double) p99.toNanos() / median.toNanos()) / 2.3263478740408408;
+    return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+  }
+
+  /**
+   * Parses {@code none}, {@code fixed:<d>}, {@code uniform:<min>,<max>} or
+   * {@code lognormal:<median>,<p99>}, with durations such as {@code 5ms}.
+   */
+  static LatencyDistribution parse(String spec) {
+    int colon = spec.indexOf(':');
+    String kind = colon < 0 ? spec : spec.substring(0, colon);
+    String[] values = colon < 0 ? new String[0] : spec.substring(colon + 1).split(",");
+    return switch (kind) {
+      case "none" -> none();
+      case "fixed" -> fixed(duration(values, 0, spec));
+      case "uniform" -> uniform(duration(values, 0, spec), duration(values, 1, spec));
+      case "lognormal" -> logNormal(duration(values, 0, spec), duration(values, 1, spec));
+      default -> throw new IllegalArgumentException("Unknown latency distribution " + spec);
+    };
+  }
+
+  private static Duration duration(String[] values, int index, String spec) {
+    if (index >= values.length) {
+      throw new IllegalArgumentException("Missing duration in latency distribution " + spec);
+    }
+    return DurationStyle.detectAndParse(values[index].trim());
+  }
+}